@@ -0,0 +1,132 @@
+package com.fitness.tracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.entity.User;
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.mapper.ActivityLogMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Run with: ./gradlew jmh -Pjmh.includes=ActivityLogPayloadBenchmark
+// Payload sizes, raw and gzipped, are printed once per trial next to the timings.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ActivityLogPayloadBenchmark {
+
+    private static final String[] ACTIVITY_TYPES = {"Running", "Cycling", "Swimming", "Rowing"};
+
+    @Param({"100", "1000"})
+    int rows;
+
+    private List<ActivityLog> logs;
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Same shape as a by-user listing: one owner, a handful of plans
+        User user = new User();
+        user.setId(1L);
+        user.setName("John Doe");
+        user.setRole(UserRole.USER);
+
+        List<WorkoutPlan> plans = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            WorkoutPlan plan = new WorkoutPlan();
+            plan.setId(i + 1);
+            plan.setTitle("Strength and conditioning block " + (i + 1));
+            plan.setUser(user);
+            plans.add(plan);
+        }
+
+        logs = new ArrayList<>(rows);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 7, 0);
+        for (int i = 0; i < rows; i++) {
+            ActivityLog log = new ActivityLog();
+            log.setId((long) i + 1);
+            log.setActivityType(ACTIVITY_TYPES[i % ACTIVITY_TYPES.length]);
+            log.setCaloriesBurned(150 + i % 400);
+            log.setDuration(20 + i % 60);
+            log.setCreatedDate(start.plusHours(i * 7L));
+            log.setUser(user);
+            log.setWorkoutPlan(plans.get(i % plans.size()));
+            logs.add(log);
+        }
+
+        jsonMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cborMapper = CBORMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        printSize("json", json());
+        printSize("columnar", columnar());
+        printSize("cbor", cbor());
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        List<ActivityLogResponse> responses = logs.stream().map(ActivityLogMapper::toResponse).toList();
+        return jsonMapper.writeValueAsBytes(new BaseResponse<>("Activity logs fetched successfully", responses));
+    }
+
+    @Benchmark
+    public byte[] columnar() throws IOException {
+        return jsonMapper.writeValueAsBytes(new BaseResponse<>("Activity logs fetched successfully",
+                ActivityLogMapper.toColumnarResponse(logs)));
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        List<ActivityLogResponse> responses = logs.stream().map(ActivityLogMapper::toResponse).toList();
+        return cborMapper.writeValueAsBytes(new BaseResponse<>("Activity logs fetched successfully", responses));
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        return gzip(json());
+    }
+
+    @Benchmark
+    public byte[] columnarGzip() throws IOException {
+        return gzip(columnar());
+    }
+
+    private void printSize(String format, byte[] payload) throws IOException {
+        System.out.printf("%n%s rows=%d: %d bytes, %d bytes gzipped%n", format, rows, payload.length, gzip(payload).length);
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+}
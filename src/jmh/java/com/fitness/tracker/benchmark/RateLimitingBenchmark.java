@@ -0,0 +1,79 @@
+package com.fitness.tracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.tracker.configuration.RateLimitProperties;
+import com.fitness.tracker.enums.RateLimitKeyType;
+import com.fitness.tracker.filter.RateLimitingFilter;
+import com.fitness.tracker.utils.JwtUtil;
+import com.fitness.tracker.utils.TokenBucket;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Run with: ./gradlew jmh -Pjmh.includes=RateLimitingBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class RateLimitingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+
+        // One hot bucket hammered by every thread: worst case CAS contention
+        TokenBucket hotBucket;
+        JwtUtil jwtUtil;
+        RateLimitingFilter filter;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            hotBucket = new TokenBucket(Integer.MAX_VALUE, Duration.ofSeconds(1), System.nanoTime());
+            RateLimitProperties properties = new RateLimitProperties(true, Duration.ofMinutes(10), 100_000, List.of(
+                    new RateLimitProperties.Rule("POST", "/api/activity-logs", Integer.MAX_VALUE, Duration.ofSeconds(1), RateLimitKeyType.USER)
+            ));
+            jwtUtil = new JwtUtil();
+            filter = new RateLimitingFilter(properties, jwtUtil, new ObjectMapper());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RequestState {
+
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+        final FilterChain chain = (req, res) -> { };
+
+        @Setup(Level.Trial)
+        public void setUp(SharedState state) {
+            request = new MockHttpServletRequest("POST", "/api/activity-logs");
+            // A small pool of users so threads collide on the same buckets, the hot path includes verifying the token
+            String username = "user" + ThreadLocalRandom.current().nextInt(4) + "@example.com";
+            request.addHeader("Authorization", "Bearer " + state.jwtUtil.generateToken(username, List.of("USER")));
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public long tokenBucketUnderContention(SharedState state) {
+        return state.hotBucket.tryConsume(System.nanoTime());
+    }
+
+    @Benchmark
+    public int filterHotPath(SharedState state, RequestState requestState) throws Exception {
+        state.filter.doFilter(requestState.request, requestState.response, requestState.chain);
+        return requestState.response.getStatus();
+    }
+}
@@ -0,0 +1,119 @@
+package com.fitness.tracker.benchmark;
+
+import com.fitness.tracker.FitnessTrackerApplication;
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.entity.User;
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.mapper.ActivityLogMapper;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.service.ActivityLogService;
+import com.fitness.tracker.service.UserService;
+import com.fitness.tracker.service.WorkoutPlanService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Run with: ./gradlew jmh -Pjmh.includes=ReadOnlyTransactionBenchmark
+// The same by-user listing in a read-write and a read-only transaction. The read-write one keeps a snapshot of every
+// loaded entity and dirty-checks them all at commit, the gc profiler's alloc.rate.norm shows the heap difference.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ReadOnlyTransactionBenchmark {
+
+    private static final String[] ACTIVITY_TYPES = {"Running", "Cycling", "Swimming", "Rowing"};
+
+    @Param({"100", "1000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private ActivityLogRepository activityLogRepository;
+    private ActivityLogService activityLogService;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FitnessTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark-" + rows, "logging.level.root=WARN")
+                .run();
+        activityLogRepository = context.getBean(ActivityLogRepository.class);
+        activityLogService = context.getBean(ActivityLogService.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        User user = new User();
+        user.setName("John Doe");
+        user.setEmail("john.doe@example.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        userId = context.getBean(UserService.class).createUser(user).getId();
+
+        // Same shape as a by-user listing: one owner, a handful of plans
+        WorkoutPlanService workoutPlanService = context.getBean(WorkoutPlanService.class);
+        Long[] planIds = new Long[5];
+        for (int i = 0; i < planIds.length; i++) {
+            WorkoutPlan plan = new WorkoutPlan();
+            plan.setTitle("Strength and conditioning block " + (i + 1));
+            plan.setDuration(45);
+            planIds[i] = workoutPlanService.createWorkoutPlan(userId, plan).getId();
+        }
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 7, 0);
+        for (int i = 0; i < rows; i++) {
+            ActivityLog log = new ActivityLog();
+            log.setActivityType(ACTIVITY_TYPES[i % ACTIVITY_TYPES.length]);
+            log.setCaloriesBurned(150 + i % 400);
+            log.setDuration(20 + i % 60);
+            log.setCreatedDate(start.plusHours(i * 7L));
+            activityLogService.createActivityLog(userId, planIds[i % planIds.length], log);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ActivityLogResponse> readWriteTransaction() {
+        return readWrite.execute(status -> toResponses(activityLogRepository.findByUserId(userId)));
+    }
+
+    @Benchmark
+    public List<ActivityLogResponse> readOnlyTransaction() {
+        return readOnly.execute(status -> toResponses(activityLogRepository.findByUserId(userId)));
+    }
+
+    // What the list endpoint runs, for reference against the two above
+    @Benchmark
+    public List<ActivityLogResponse> service() {
+        return toResponses(activityLogService.getAllActivityLogsByUser(userId));
+    }
+
+    private static List<ActivityLogResponse> toResponses(List<ActivityLog> logs) {
+        return logs.stream().map(ActivityLogMapper::toResponse).toList();
+    }
+}
@@ -2,9 +2,13 @@ package com.fitness.tracker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
 @EnableMethodSecurity
+@EnableScheduling
+@ConfigurationPropertiesScan
 @SpringBootApplication
 public class FitnessTrackerApplication {
 
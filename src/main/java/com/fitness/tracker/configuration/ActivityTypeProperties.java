@@ -0,0 +1,12 @@
+package com.fitness.tracker.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.activity-types")
+public record ActivityTypeProperties(
+        // Types in the dictionary, seeded ones included, past which logging an unknown type is rejected.
+        // Codes are smallints, so this can be at most 32767
+        @DefaultValue("1000")
+        int maxTypes
+) {}
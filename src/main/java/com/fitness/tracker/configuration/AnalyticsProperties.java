@@ -0,0 +1,23 @@
+package com.fitness.tracker.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.analytics")
+public record AnalyticsProperties(
+        // Partitions per report and threads shared by all reports, each running partition holds a connection
+        @DefaultValue("4")
+        int parallelism,
+
+        // Partitions waiting for a thread, reports beyond this are rejected rather than queued
+        @DefaultValue("16")
+        int queueCapacity,
+
+        // Whole report deadline, also applied to each partition's queries so the database cancels them
+        @DefaultValue("10s")
+        Duration timeout,
+
+        @DefaultValue("366")
+        int maxRangeDays
+) {}
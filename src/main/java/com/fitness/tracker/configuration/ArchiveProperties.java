@@ -0,0 +1,23 @@
+package com.fitness.tracker.configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.archive")
+public record ArchiveProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        // Whole months of logs older than this move out of activity_logs
+        @DefaultValue("365d")
+        Duration olderThan,
+
+        @DefaultValue("data/archive")
+        Path directory,
+
+        // User months archived per run, the rest wait for the next run
+        @DefaultValue("1000")
+        int maxSegmentsPerRun
+) {}
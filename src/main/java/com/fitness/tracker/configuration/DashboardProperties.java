@@ -0,0 +1,34 @@
+package com.fitness.tracker.configuration;
+
+import com.fitness.tracker.enums.DashboardSection;
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.dashboard")
+public record DashboardProperties(
+        // Threads shared by all dashboards, each running section holds a connection
+        @DefaultValue("8")
+        int parallelism,
+
+        // Sections waiting for a thread, beyond this they fail at once rather than queue
+        @DefaultValue("64")
+        int queueCapacity,
+
+        // Deadline of every section, counted from the start of the request
+        @DefaultValue("800ms")
+        Duration timeout,
+
+        // Deadlines of single sections, overriding the timeout
+        @DefaultValue
+        Map<DashboardSection, Duration> sectionTimeouts,
+
+        @DefaultValue("10")
+        int recentActivityLogs
+) {
+
+    public Duration timeout(DashboardSection section) {
+        return sectionTimeouts.getOrDefault(section, timeout);
+    }
+}
@@ -0,0 +1,49 @@
+package com.fitness.tracker.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+// Replaces the auto-configured pool with a primary and a replica pool behind a routing data source. The primary keeps
+// the spring.datasource settings, the replica takes its own from fitness.datasource.replica.
+@Configuration
+@ConditionalOnProperty(name = "fitness.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("fitness.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    // A bean of its own so readers can ask where the current user's reads go
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                       HikariDataSource replicaDataSource,
+                                                       ReplicaProperties properties) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, properties.readYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource, JpaProperties jpaProperties) {
+        // With open-in-view the request's first read pins one connection for every transaction that follows
+        if (!Boolean.FALSE.equals(jpaProperties.getOpenInView())) {
+            throw new IllegalStateException("fitness.datasource.replica.enabled requires spring.jpa.open-in-view=false");
+        }
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
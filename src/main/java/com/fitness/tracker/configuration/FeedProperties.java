@@ -0,0 +1,28 @@
+package com.fitness.tracker.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.feed")
+public record FeedProperties(
+        // Events buffered per subscriber, a subscriber that falls this far behind is disconnected
+        @DefaultValue("64")
+        int bufferSize,
+
+        @DefaultValue("10000")
+        int maxSubscribers,
+
+        // Threads writing buffered events to connections, shared by all subscribers
+        @DefaultValue("2")
+        int dispatchThreads,
+
+        // Clients are expected to reconnect after this long
+        @DefaultValue("30m")
+        Duration connectionTimeout,
+
+        // A connection taking longer than this to accept one event is dropped, so it holds a dispatch thread and
+        // the subscribers queued behind it no longer than that
+        @DefaultValue("5s")
+        Duration sendTimeout
+) {}
@@ -0,0 +1,17 @@
+package com.fitness.tracker.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.idempotency")
+public record IdempotencyProperties(
+        // How long a key and its stored result are replayed
+        @DefaultValue("24h")
+        Duration ttl,
+
+        // Upper bound on remembered keys, the oldest finished keys are forgotten first. New keys are rejected
+        // while every remembered key is still in progress
+        @DefaultValue("10000")
+        int maxEntries
+) {}
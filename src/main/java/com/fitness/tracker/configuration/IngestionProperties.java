@@ -0,0 +1,42 @@
+package com.fitness.tracker.configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.ingestion")
+public record IngestionProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        // Accepted logs waiting for the background writer, requests are rejected once it is full
+        @DefaultValue("10000")
+        int queueCapacity,
+
+        // A batch is flushed when it reaches this size or when the flush interval has passed
+        @DefaultValue("500")
+        int batchSize,
+
+        @DefaultValue("1s")
+        Duration flushInterval,
+
+        // Accepted logs are journaled here until they are committed, and replayed on startup after a crash. Logs
+        // already committed are recognised by their ingestion key and not inserted again
+        @DefaultValue("data/ingestion-spill")
+        Path spillDirectory,
+
+        // Without it an accepted log survives a crash of the process but not of the machine, the journal is
+        // synced to disk only when a batch is flushed. With it every accepted log waits for its own disk sync
+        @DefaultValue("false")
+        boolean syncOnAppend,
+
+        // Failures of a batch, other than the database being unreachable, before its logs are flushed one at a
+        // time and those still failing are moved to the dead letter directory
+        @DefaultValue("5")
+        int maxAttempts,
+
+        // Logs that cannot be committed, kept for inspection and never replayed
+        @DefaultValue("data/ingestion-dead-letter")
+        Path deadLetterDirectory
+) {}
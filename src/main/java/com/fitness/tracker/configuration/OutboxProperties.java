@@ -0,0 +1,29 @@
+package com.fitness.tracker.configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.outbox")
+public record OutboxProperties(
+        // in-process or file
+        @DefaultValue("in-process")
+        String publisher,
+
+        @DefaultValue("data/outbox/activity-log-events.jsonl")
+        Path file,
+
+        @DefaultValue("100")
+        int batchSize,
+
+        // How long a missing id holds back the events after it, counted from when those events became visible, so a
+        // transaction that took an earlier id but commits later is not overtaken. Ids of rolled back transactions
+        // stay missing and hold back the relay this long once
+        @DefaultValue("500ms")
+        Duration settleDelay,
+
+        // Published events are kept this long before they are purged
+        @DefaultValue("7d")
+        Duration retention
+) {}
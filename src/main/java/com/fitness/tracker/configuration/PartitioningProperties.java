@@ -0,0 +1,21 @@
+package com.fitness.tracker.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.partitioning")
+public record PartitioningProperties(
+        // table-per-period or postgres, the postgres profile switches to declarative partitioning
+        @DefaultValue("table-per-period")
+        String strategy,
+
+        // Months after the current one whose partitions are created ahead of time
+        @DefaultValue("3")
+        int monthsAhead,
+
+        // Months before the current one that stay attached, older months are detached into standalone tables
+        // the API no longer reads. Keep fitness.archive.older-than below this so months are archived first.
+        // 0 keeps every month attached
+        @DefaultValue("0")
+        int retentionMonths
+) {}
@@ -0,0 +1,24 @@
+package com.fitness.tracker.configuration;
+
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.percentiles")
+public record PercentileProperties(
+        // Identifies this node's digests in snapshots merged by other nodes
+        @DefaultValue("local")
+        String nodeId,
+
+        // Higher keeps more centroids, 100 gives well under 1% rank error
+        @DefaultValue("100")
+        double compression,
+
+        @DefaultValue("data/percentiles/snapshots.json")
+        Path snapshotFile,
+
+        // Whether snapshots of other nodes are merged in. Only for nodes with a database of their own, nodes
+        // sharing one build the same totals and merging would count every user once per node
+        @DefaultValue("false")
+        boolean mergePeers
+) {}
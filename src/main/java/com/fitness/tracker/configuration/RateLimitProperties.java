@@ -0,0 +1,37 @@
+package com.fitness.tracker.configuration;
+
+import com.fitness.tracker.enums.RateLimitKeyType;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        // Buckets that have been full for this long are dropped by the eviction sweep
+        @DefaultValue("10m")
+        Duration idleTimeout,
+
+        // Upper bound on tracked clients, beyond it new clients share a fixed set of overflow buckets per rule,
+        // picked by hashing the address
+        @DefaultValue("100000")
+        int maxBuckets,
+
+        List<Rule> rules
+) {
+
+    public RateLimitProperties {
+        rules = rules == null ? List.of() : List.copyOf(rules);
+    }
+
+    public record Rule(
+            String method,
+            String path,
+            int capacity,
+            Duration period,
+            @DefaultValue("IP") RateLimitKeyType keyBy
+    ) {}
+}
@@ -0,0 +1,16 @@
+package com.fitness.tracker.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// The replica's connection settings share the prefix and are bound onto its Hikari pool
+@ConfigurationProperties(prefix = "fitness.datasource.replica")
+public record ReplicaProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        // A user reads from the primary for this long after committing a write, covering the replication lag
+        @DefaultValue("5s")
+        Duration readYourWritesWindow
+) {}
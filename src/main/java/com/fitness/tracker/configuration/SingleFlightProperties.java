@@ -0,0 +1,11 @@
+package com.fitness.tracker.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "fitness.single-flight")
+public record SingleFlightProperties(
+        // Whether identical concurrent reads share one query, off runs every read on its own
+        @DefaultValue("true")
+        boolean enabled
+) {}
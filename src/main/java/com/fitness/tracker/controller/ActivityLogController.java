@@ -2,20 +2,37 @@ package com.fitness.tracker.controller;
 
 import com.fitness.tracker.dto.BaseResponse;
 import com.fitness.tracker.dto.request.ActivityLogRequest;
+import com.fitness.tracker.dto.response.ActivityLogColumnarResponse;
 import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.dto.response.BatchItemResponse;
 import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.enums.ActivityLogField;
+import com.fitness.tracker.enums.SparseField;
 import com.fitness.tracker.mapper.ActivityLogMapper;
+import com.fitness.tracker.service.ActivityFeedService;
+import com.fitness.tracker.service.ActivityLogArchiveService;
+import com.fitness.tracker.service.ActivityLogIngestionService;
 import com.fitness.tracker.service.ActivityLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,28 +42,64 @@ import java.util.stream.Collectors;
 public class ActivityLogController {
 
     private final ActivityLogService activityLogService;
+    private final ActivityLogIngestionService activityLogIngestionService;
+    private final ActivityFeedService activityFeedService;
+    private final ActivityLogArchiveService activityLogArchiveService;
 
-    public ActivityLogController(ActivityLogService activityLogService) {
+    public ActivityLogController(ActivityLogService activityLogService,
+                                 ActivityLogIngestionService activityLogIngestionService,
+                                 ActivityFeedService activityFeedService,
+                                 ActivityLogArchiveService activityLogArchiveService) {
         this.activityLogService = activityLogService;
+        this.activityLogIngestionService = activityLogIngestionService;
+        this.activityFeedService = activityFeedService;
+        this.activityLogArchiveService = activityLogArchiveService;
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    @Operation(summary = "Create activity log", description = "Creates an activity log for a user and workout plan")
+    @Operation(summary = "Create activity log", description = "Creates an activity log for a user and workout plan. "
+            + "Retries carrying the same Idempotency-Key replay the original result instead of creating a duplicate")
     @ApiResponse(responseCode = "200", description = "Activity log created successfully")
     @PostMapping
     public ResponseEntity<BaseResponse<ActivityLogResponse>> createActivityLog(
             @RequestParam Long userId,
             @RequestParam Long workoutPlanId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody ActivityLogRequest request
     ) {
         ActivityLog log = ActivityLogMapper.toEntity(request);
-        ActivityLog saved = activityLogService.createActivityLog(userId, workoutPlanId, log);
+        ActivityLog saved = activityLogService.createActivityLog(userId, workoutPlanId, log, idempotencyKey);
         return ResponseEntity.ok(new BaseResponse<>(
                 "Activity log created successfully",
                 ActivityLogMapper.toResponse(saved)
         ));
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Ingest activity log asynchronously",
+            description = "Queues an activity log for batched insertion and acknowledges before it is stored")
+    @ApiResponse(responseCode = "202", description = "Activity log accepted for ingestion")
+    @ApiResponse(responseCode = "503", description = "Ingestion is disabled or its queue is full")
+    @PostMapping("/ingest")
+    public ResponseEntity<BaseResponse<Void>> ingestActivityLog(
+            @RequestParam Long userId,
+            @RequestParam Long workoutPlanId,
+            @Valid @RequestBody ActivityLogRequest request
+    ) {
+        activityLogIngestionService.accept(userId, workoutPlanId, ActivityLogMapper.toEntity(request));
+        return ResponseEntity.accepted().body(new BaseResponse<>("Activity log accepted for ingestion"));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Stream activity logs", description = "Opens a Server-Sent Events stream of the user's "
+            + "activity log changes as they are committed. Slow clients are disconnected and should reconnect")
+    @ApiResponse(responseCode = "200", description = "Live activity feed opened")
+    @ApiResponse(responseCode = "503", description = "Too many live feed subscribers")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamActivityLogs(@RequestParam Long userId) {
+        return activityFeedService.subscribe(userId);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @Operation(summary = "Update activity log", description = "Updates an existing activity log")
     @ApiResponse(responseCode = "200", description = "Activity log updated successfully")
@@ -93,17 +146,115 @@ public class ActivityLogController {
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    @Operation(summary = "Get all activity logs by user", description = "Fetch all activity logs for a user")
+    @Operation(summary = "Get activity logs by IDs", description = "Fetch up to 200 of a user's activity logs in one "
+            + "call, in the order of the comma separated ids. Ids that don't exist or belong to another user are "
+            + "returned with found set to false")
     @ApiResponse(responseCode = "200", description = "Activity logs fetched successfully")
+    @ApiResponse(responseCode = "400", description = "No ids, more than 200 or blank ones")
+    @GetMapping("/batch")
+    public ResponseEntity<BaseResponse<List<BatchItemResponse<ActivityLogResponse>>>> getActivityLogs(
+            @RequestParam Long userId,
+            @RequestParam List<Long> ids
+    ) {
+        Map<Long, ActivityLog> found = activityLogService.getActivityLogs(ids, userId);
+        return ResponseEntity.ok(new BaseResponse<>(
+                "Activity logs fetched successfully",
+                BatchItemResponse.of(ids, found, ActivityLogMapper::toResponse)
+        ));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get all activity logs by user", description = "Fetch all activity logs for a user, "
+            + "or only those created from and to the given dates inclusive. "
+            + "Send the returned ETag in If-None-Match to get 304 Not Modified while the logs are unchanged")
+    @ApiResponse(responseCode = "200", description = "Activity logs fetched successfully")
+    @ApiResponse(responseCode = "304", description = "Activity logs not modified")
+    @ApiResponse(responseCode = "400", description = "Only one of from and to given, or from after to")
     @GetMapping("/by-user")
     public ResponseEntity<BaseResponse<List<ActivityLogResponse>>> getAllByUser(
-            @RequestParam Long userId
+            @RequestParam Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest
     ) {
-        List<ActivityLogResponse> responses = activityLogService.getAllActivityLogsByUser(userId)
+        // Checked before the list query, the ETag comes from version columns only
+        if (webRequest.checkNotModified(representationETag(activityLogService.getActivityLogsETag(userId), webRequest))) {
+            return null;
+        }
+        List<ActivityLogResponse> responses = activityLogService.getActivityLogsByUser(userId, from, to)
                 .stream()
                 .map(ActivityLogMapper::toResponse)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(new BaseResponse<>("Activity logs fetched successfully", responses));
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(new BaseResponse<>("Activity logs fetched successfully", responses));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get selected fields of all activity logs by user",
+            description = "Fetch only the comma separated fields of a user's activity logs, associations that are "
+                    + "not requested are not joined. Supports If-None-Match like the full listing")
+    @ApiResponse(responseCode = "200", description = "Activity logs fetched successfully")
+    @ApiResponse(responseCode = "304", description = "Activity logs not modified")
+    @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    @GetMapping(value = "/by-user", params = "fields")
+    public ResponseEntity<BaseResponse<List<Map<String, Object>>>> getFieldsByUser(
+            @RequestParam Long userId,
+            @RequestParam String fields,
+            WebRequest webRequest
+    ) {
+        EnumSet<ActivityLogField> selected = SparseField.parse(ActivityLogField.class, fields);
+        String etag = activityLogService.getActivityLogsETag(userId) + "-fields-" + SparseField.mask(selected);
+        if (webRequest.checkNotModified(representationETag(etag, webRequest))) {
+            return null;
+        }
+        List<Map<String, Object>> responses = activityLogService.getActivityLogFieldsByUser(userId, selected);
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(new BaseResponse<>("Activity logs fetched successfully", responses));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get all activity logs by user in columnar layout",
+            description = "Same as the JSON listing, selected with Accept: " + ActivityLogColumnarResponse.MEDIA_TYPE
+                    + ". Users, plans and activity types are dictionary encoded instead of repeated on every row")
+    @ApiResponse(responseCode = "200", description = "Activity logs fetched successfully")
+    @ApiResponse(responseCode = "304", description = "Activity logs not modified")
+    @ApiResponse(responseCode = "400", description = "Only one of from and to given, or from after to")
+    @GetMapping(value = "/by-user", produces = ActivityLogColumnarResponse.MEDIA_TYPE)
+    public ResponseEntity<BaseResponse<ActivityLogColumnarResponse>> getAllByUserColumnar(
+            @RequestParam Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest
+    ) {
+        // Distinct from the JSON representation's ETag, both are cached under the same URL
+        if (webRequest.checkNotModified(activityLogService.getActivityLogsETag(userId) + "-columnar")) {
+            return null;
+        }
+        ActivityLogColumnarResponse response = ActivityLogMapper.toColumnarResponse(
+                activityLogService.getActivityLogsByUser(userId, from, to));
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(new BaseResponse<>("Activity logs fetched successfully", response));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Export activity logs by user as CSV", description = "Download all activity logs of a user, "
+            + "or those created from and to the given dates inclusive, including logs moved to the archive")
+    @ApiResponse(responseCode = "200", description = "Activity logs exported successfully")
+    @ApiResponse(responseCode = "400", description = "Only one of from and to given, or from after to")
+    @GetMapping(value = "/export", produces = "text/csv")
+    public ResponseEntity<String> exportByUser(
+            @RequestParam Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        String csv = ActivityLogMapper.toCsv(activityLogArchiveService.exportActivityLogs(userId, from, to));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"activity-logs-" + userId + ".csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(csv);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
@@ -119,4 +270,59 @@ public class ActivityLogController {
                 .collect(Collectors.toList());
         return ResponseEntity.ok(new BaseResponse<>("Activity logs fetched successfully", responses));
     }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get selected fields of all activity logs by workout plan",
+            description = "Fetch only the comma separated fields of a workout plan's activity logs")
+    @ApiResponse(responseCode = "200", description = "Activity logs fetched successfully")
+    @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    @GetMapping(value = "/by-workout", params = "fields")
+    public ResponseEntity<BaseResponse<List<Map<String, Object>>>> getFieldsByWorkoutPlan(
+            @RequestParam Long workoutPlanId,
+            @RequestParam String fields
+    ) {
+        EnumSet<ActivityLogField> selected = SparseField.parse(ActivityLogField.class, fields);
+        List<Map<String, Object>> responses = activityLogService.getActivityLogFieldsByWorkoutPlan(workoutPlanId, selected);
+        return ResponseEntity.ok(new BaseResponse<>("Activity logs fetched successfully", responses));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get all activity logs by workout plan in columnar layout",
+            description = "Same as the JSON listing, selected with Accept: " + ActivityLogColumnarResponse.MEDIA_TYPE)
+    @ApiResponse(responseCode = "200", description = "Activity logs fetched successfully")
+    @GetMapping(value = "/by-workout", produces = ActivityLogColumnarResponse.MEDIA_TYPE)
+    public ResponseEntity<BaseResponse<ActivityLogColumnarResponse>> getAllByWorkoutPlanColumnar(
+            @RequestParam Long workoutPlanId
+    ) {
+        ActivityLogColumnarResponse response =
+                ActivityLogMapper.toColumnarResponse(activityLogService.getAllActivityLogsByWorkoutPlan(workoutPlanId));
+        return ResponseEntity.ok(new BaseResponse<>("Activity logs fetched successfully", response));
+    }
+
+    // JSON listings are served as CBOR too when the client prefers it, a strong ETag has to differ per
+    // representation. Follows the converter choice: the most preferred accepted type, concrete before wildcard
+    private static String representationETag(String etag, WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return etag;
+        }
+        MediaType preferred = null;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (!type.isCompatibleWith(MediaType.APPLICATION_JSON) && !type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                    continue;
+                }
+                if (preferred == null || type.getQualityValue() > preferred.getQualityValue()
+                        || (type.getQualityValue() == preferred.getQualityValue()
+                        && preferred.isWildcardSubtype() && !type.isWildcardSubtype())) {
+                    preferred = type;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Rejected with 406 by the negotiation anyway
+            return etag;
+        }
+        return preferred != null && !preferred.isWildcardSubtype() && preferred.isCompatibleWith(MediaType.APPLICATION_CBOR)
+                ? etag + "-cbor" : etag;
+    }
 }
@@ -0,0 +1,51 @@
+package com.fitness.tracker.controller;
+
+import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.dto.request.ActivityTypeAliasRequest;
+import com.fitness.tracker.dto.response.ActivityTypeResponse;
+import com.fitness.tracker.service.ActivityTypeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/activity-types")
+@Tag(name = "Activity Types", description = "Dictionary of activity types and their synonyms")
+@SecurityRequirement(name = "bearerAuth")
+public class ActivityTypeController {
+
+    private final ActivityTypeService activityTypeService;
+
+    public ActivityTypeController(ActivityTypeService activityTypeService) {
+        this.activityTypeService = activityTypeService;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get all activity types", description = "Fetch every known activity type with its code and aliases")
+    @ApiResponse(responseCode = "200", description = "Activity types fetched successfully")
+    @GetMapping
+    public ResponseEntity<BaseResponse<List<ActivityTypeResponse>>> getActivityTypes() {
+        return ResponseEntity.ok(new BaseResponse<>("Activity types fetched successfully",
+                activityTypeService.getActivityTypes()));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Add an alias", description = "Makes a synonym resolve to an activity type, logs using it "
+            + "are stored under the activity type")
+    @ApiResponse(responseCode = "200", description = "Alias added successfully")
+    @PostMapping("/{code}/aliases")
+    public ResponseEntity<BaseResponse<ActivityTypeResponse>> addAlias(
+            @PathVariable Short code,
+            @Valid @RequestBody ActivityTypeAliasRequest request
+    ) {
+        return ResponseEntity.ok(new BaseResponse<>("Alias added successfully",
+                activityTypeService.addAlias(code, request.alias())));
+    }
+}
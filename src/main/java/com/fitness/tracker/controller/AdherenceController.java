@@ -0,0 +1,64 @@
+package com.fitness.tracker.controller;
+
+import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.dto.response.PageResponse;
+import com.fitness.tracker.dto.response.UserAdherenceResponse;
+import com.fitness.tracker.dto.response.WorkoutPlanAdherenceResponse;
+import com.fitness.tracker.service.AdherenceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/adherence")
+@Tag(name = "Adherence", description = "Logged versus planned workout duration")
+@SecurityRequirement(name = "bearerAuth")
+public class AdherenceController {
+
+    private final AdherenceService adherenceService;
+
+    public AdherenceController(AdherenceService adherenceService) {
+        this.adherenceService = adherenceService;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get a workout plan's adherence", description = "Fetch the sessions logged against a "
+            + "workout plan and their average duration relative to the planned duration")
+    @ApiResponse(responseCode = "200", description = "Workout plan adherence fetched successfully")
+    @GetMapping("/workout-plans/{workoutId}/user/{userId}")
+    public ResponseEntity<BaseResponse<WorkoutPlanAdherenceResponse>> getWorkoutPlanAdherence(
+            @PathVariable Long workoutId,
+            @PathVariable Long userId
+    ) {
+        WorkoutPlanAdherenceResponse adherence = adherenceService.getWorkoutPlanAdherence(workoutId, userId);
+        return ResponseEntity.ok(new BaseResponse<>("Workout plan adherence fetched successfully", adherence));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get a user's adherence", description = "Fetch the logged and planned minutes across "
+            + "all workout plans of a user")
+    @ApiResponse(responseCode = "200", description = "User adherence fetched successfully")
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<BaseResponse<UserAdherenceResponse>> getUserAdherence(@PathVariable Long userId) {
+        return ResponseEntity.ok(new BaseResponse<>("User adherence fetched successfully",
+                adherenceService.getUserAdherence(userId)));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Rank workout plans by adherence", description = "Fetch a page of workout plans with "
+            + "logged sessions, highest adherence first, optionally only the plans of one user")
+    @ApiResponse(responseCode = "200", description = "Workout plans ranked successfully")
+    @GetMapping("/workout-plans")
+    public ResponseEntity<BaseResponse<PageResponse<WorkoutPlanAdherenceResponse>>> getRankedWorkoutPlans(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(new BaseResponse<>("Workout plans ranked successfully",
+                adherenceService.getRankedWorkoutPlans(userId, page, size)));
+    }
+}
@@ -0,0 +1,56 @@
+package com.fitness.tracker.controller;
+
+import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.dto.response.AnalyticsSummaryResponse;
+import com.fitness.tracker.dto.response.DailyStatsResponse;
+import com.fitness.tracker.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@Tag(name = "Admin Analytics", description = "Fleet-wide activity statistics over a date range")
+@SecurityRequirement(name = "bearerAuth")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get activity summary", description = "Fetch active users, totals and the distribution of "
+            + "activity types between two dates, both inclusive")
+    @ApiResponse(responseCode = "200", description = "Analytics summary fetched successfully")
+    @GetMapping("/summary")
+    public ResponseEntity<BaseResponse<AnalyticsSummaryResponse>> getSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(new BaseResponse<>("Analytics summary fetched successfully",
+                analyticsService.getSummary(from, to)));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get daily statistics", description = "Fetch active users and totals of every day with "
+            + "activity between two dates, both inclusive")
+    @ApiResponse(responseCode = "200", description = "Daily statistics fetched successfully")
+    @GetMapping("/daily")
+    public ResponseEntity<BaseResponse<List<DailyStatsResponse>>> getDailyStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(new BaseResponse<>("Daily statistics fetched successfully",
+                analyticsService.getDailyStats(from, to)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.fitness.tracker.controller;
+
+import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.dto.response.DashboardResponse;
+import com.fitness.tracker.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "Dashboard", description = "Everything the home screen shows in one call")
+@SecurityRequirement(name = "bearerAuth")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get a user's dashboard", description = "Fetch the profile, most recent activity logs, "
+            + "workout plans, this week's totals and the streak, loaded in parallel. A section that misses its "
+            + "deadline or fails comes back with status TIMED_OUT or FAILED and no data, the others are still returned")
+    @ApiResponse(responseCode = "200", description = "Dashboard fetched successfully")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<BaseResponse<DashboardResponse>> getDashboard(@PathVariable Long userId) {
+        return ResponseEntity.ok(new BaseResponse<>("Dashboard fetched successfully", dashboardService.getDashboard(userId)));
+    }
+}
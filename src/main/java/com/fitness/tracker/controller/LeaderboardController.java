@@ -0,0 +1,57 @@
+package com.fitness.tracker.controller;
+
+import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.dto.response.LeaderboardRankResponse;
+import com.fitness.tracker.dto.response.LeaderboardResponse;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import com.fitness.tracker.service.LeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+@Tag(name = "Leaderboards", description = "Weekly and monthly calories and duration rankings")
+@SecurityRequirement(name = "bearerAuth")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get a leaderboard", description = "Fetch the top users of the current week or month, "
+            + "across all activities or for one activity type")
+    @ApiResponse(responseCode = "200", description = "Leaderboard fetched successfully")
+    @GetMapping
+    public ResponseEntity<BaseResponse<LeaderboardResponse>> getLeaderboard(
+            @RequestParam LeaderboardPeriod period,
+            @RequestParam LeaderboardMetric metric,
+            @RequestParam(required = false) String activityType,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        LeaderboardResponse leaderboard = leaderboardService.getLeaderboard(period, metric, activityType, limit);
+        return ResponseEntity.ok(new BaseResponse<>("Leaderboard fetched successfully", leaderboard));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get a user's rank", description = "Fetch a user's rank and score on a leaderboard")
+    @ApiResponse(responseCode = "200", description = "Leaderboard rank fetched successfully")
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<BaseResponse<LeaderboardRankResponse>> getRank(
+            @PathVariable Long userId,
+            @RequestParam LeaderboardPeriod period,
+            @RequestParam LeaderboardMetric metric,
+            @RequestParam(required = false) String activityType
+    ) {
+        LeaderboardRankResponse rank = leaderboardService.getRank(userId, period, metric, activityType);
+        return ResponseEntity.ok(new BaseResponse<>("Leaderboard rank fetched successfully", rank));
+    }
+}
@@ -0,0 +1,79 @@
+package com.fitness.tracker.controller;
+
+import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.dto.PercentileSnapshot;
+import com.fitness.tracker.dto.response.PercentileDistributionResponse;
+import com.fitness.tracker.dto.response.PercentileResponse;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import com.fitness.tracker.service.PercentileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/percentiles")
+@Tag(name = "Percentiles", description = "Approximate percentile ranks of weekly and monthly totals")
+@SecurityRequirement(name = "bearerAuth")
+public class PercentileController {
+
+    private final PercentileService percentileService;
+
+    public PercentileController(PercentileService percentileService) {
+        this.percentileService = percentileService;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get a user's percentile", description = "Fetch the share of active users with a lower "
+            + "total than the user in the current week or month")
+    @ApiResponse(responseCode = "200", description = "Percentile fetched successfully")
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<BaseResponse<PercentileResponse>> getUserPercentile(
+            @PathVariable Long userId,
+            @RequestParam LeaderboardPeriod period,
+            @RequestParam LeaderboardMetric metric,
+            @RequestParam(required = false) String activityType
+    ) {
+        PercentileResponse percentile = percentileService.getUserPercentile(userId, period, metric, activityType);
+        return ResponseEntity.ok(new BaseResponse<>("Percentile fetched successfully", percentile));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get the distribution of totals", description = "Fetch approximate quartiles and tail "
+            + "percentiles of users' totals in the current week or month")
+    @ApiResponse(responseCode = "200", description = "Distribution fetched successfully")
+    @GetMapping("/distribution")
+    public ResponseEntity<BaseResponse<PercentileDistributionResponse>> getDistribution(
+            @RequestParam LeaderboardPeriod period,
+            @RequestParam LeaderboardMetric metric,
+            @RequestParam(required = false) String activityType
+    ) {
+        PercentileDistributionResponse distribution = percentileService.getDistribution(period, metric, activityType);
+        return ResponseEntity.ok(new BaseResponse<>("Distribution fetched successfully", distribution));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export this node's digests", description = "Fetch the percentile digests of this node "
+            + "for merging into other nodes")
+    @ApiResponse(responseCode = "200", description = "Percentile snapshot exported successfully")
+    @GetMapping("/snapshot")
+    public ResponseEntity<BaseResponse<PercentileSnapshot>> exportSnapshot() {
+        return ResponseEntity.ok(new BaseResponse<>("Percentile snapshot exported successfully",
+                percentileService.exportSnapshot()));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Merge another node's digests", description = "Replaces the previously merged digests "
+            + "of the snapshot's node")
+    @ApiResponse(responseCode = "200", description = "Percentile snapshot merged successfully")
+    @ApiResponse(responseCode = "409", description = "Merging is disabled, nodes share one database")
+    @PostMapping("/snapshot")
+    public ResponseEntity<BaseResponse<Void>> mergeSnapshot(@RequestBody PercentileSnapshot snapshot) {
+        percentileService.mergeSnapshot(snapshot);
+        return ResponseEntity.ok(new BaseResponse<>("Percentile snapshot merged successfully"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.fitness.tracker.controller;
+
+import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.dto.response.StreakResponse;
+import com.fitness.tracker.service.StreakService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/streaks")
+@Tag(name = "Streaks", description = "Daily activity streaks and consistency")
+@SecurityRequirement(name = "bearerAuth")
+public class StreakController {
+
+    private final StreakService streakService;
+
+    public StreakController(StreakService streakService) {
+        this.streakService = streakService;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get a user's streak", description = "Fetch the current and best daily activity streak "
+            + "and the number of active days this month")
+    @ApiResponse(responseCode = "200", description = "Streak fetched successfully")
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<BaseResponse<StreakResponse>> getStreak(@PathVariable Long userId) {
+        return ResponseEntity.ok(new BaseResponse<>("Streak fetched successfully", streakService.getStreak(userId)));
+    }
+}
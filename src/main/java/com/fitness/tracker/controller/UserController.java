@@ -1,9 +1,13 @@
 package com.fitness.tracker.controller;
 
 import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.dto.UserFilter;
 import com.fitness.tracker.dto.request.UserRequest;
+import com.fitness.tracker.dto.response.PageResponse;
 import com.fitness.tracker.dto.response.UserResponse;
 import com.fitness.tracker.entity.User;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.enums.UserSortField;
 import com.fitness.tracker.mapper.UserMapper;
 import com.fitness.tracker.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,11 +15,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/users")
@@ -69,14 +75,23 @@ public class UserController {
     }
 
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Get all users")
+    @Operation(summary = "List users", description = "Fetch a page of users filtered by role, creation date range "
+            + "(inclusive) and email prefix. The total is only counted when count=true")
     @ApiResponse(responseCode = "200", description = "Users fetched successfully")
     @GetMapping
-    public ResponseEntity<BaseResponse<List<UserResponse>>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers()
-                .stream()
-                .map(UserMapper::toResponse)
-                .toList();
-        return ResponseEntity.ok(new BaseResponse<>("Users fetched successfully", users));
+    public ResponseEntity<BaseResponse<PageResponse<UserResponse>>> getUsers(
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(defaultValue = "ID") UserSortField sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean count
+    ) {
+        UserFilter filter = new UserFilter(role, createdFrom, createdTo, emailPrefix);
+        return ResponseEntity.ok(new BaseResponse<>("Users fetched successfully",
+                userService.getUsers(filter, sort, direction, page, size, count)));
     }
 }
@@ -2,9 +2,13 @@ package com.fitness.tracker.controller;
 
 import com.fitness.tracker.dto.BaseResponse;
 import com.fitness.tracker.dto.request.WorkoutPlanRequest;
+import com.fitness.tracker.dto.response.BatchItemResponse;
 import com.fitness.tracker.dto.response.WorkoutPlanResponse;
 import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.SparseField;
+import com.fitness.tracker.enums.WorkoutPlanField;
 import com.fitness.tracker.mapper.WorkoutPlanMapper;
+import com.fitness.tracker.service.WorkoutPlanSearchService;
 import com.fitness.tracker.service.WorkoutPlanService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,8 +18,11 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,9 +32,11 @@ import java.util.stream.Collectors;
 public class WorkoutPlanController {
 
     private final WorkoutPlanService workoutPlanService;
+    private final WorkoutPlanSearchService workoutPlanSearchService;
 
-    public WorkoutPlanController(WorkoutPlanService workoutPlanService) {
+    public WorkoutPlanController(WorkoutPlanService workoutPlanService, WorkoutPlanSearchService workoutPlanSearchService) {
         this.workoutPlanService = workoutPlanService;
+        this.workoutPlanSearchService = workoutPlanSearchService;
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
@@ -90,11 +99,37 @@ public class WorkoutPlanController {
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    @Operation(summary = "Get all workout plans", description = "Fetch all workout plans for a user")
+    @Operation(summary = "Get workout plans by IDs", description = "Fetch up to 200 of a user's workout plans in one "
+            + "call, in the order of the comma separated ids. Ids that don't exist or belong to another user are "
+            + "returned with found set to false")
     @ApiResponse(responseCode = "200", description = "Workout plans fetched successfully")
+    @ApiResponse(responseCode = "400", description = "No ids, more than 200 or blank ones")
+    @GetMapping("/user/{userId}/batch")
+    public ResponseEntity<BaseResponse<List<BatchItemResponse<WorkoutPlanResponse>>>> getWorkoutPlans(
+            @PathVariable Long userId,
+            @RequestParam List<Long> ids) {
+
+        Map<Long, WorkoutPlan> found = workoutPlanService.getWorkoutPlans(ids, userId);
+        return ResponseEntity.ok(new BaseResponse<>(
+                "Workout plans fetched successfully",
+                BatchItemResponse.of(ids, found, WorkoutPlanMapper::toResponse)
+        ));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get all workout plans", description = "Fetch all workout plans for a user. "
+            + "Send the returned ETag in If-None-Match to get 304 Not Modified while the plans are unchanged")
+    @ApiResponse(responseCode = "200", description = "Workout plans fetched successfully")
+    @ApiResponse(responseCode = "304", description = "Workout plans not modified")
     @GetMapping("/user/{userId}")
     public ResponseEntity<BaseResponse<List<WorkoutPlanResponse>>> getAllWorkoutPlans(
-            @PathVariable Long userId) {
+            @PathVariable Long userId,
+            WebRequest webRequest) {
+
+        // Checked before the list query, the ETag comes from version columns only
+        if (webRequest.checkNotModified(workoutPlanService.getWorkoutPlansETag(userId))) {
+            return null;
+        }
 
         List<WorkoutPlanResponse> responses = workoutPlanService.getAllWorkoutPlans(userId).stream()
                 .map(WorkoutPlanMapper::toResponse)
@@ -104,4 +139,59 @@ public class WorkoutPlanController {
                 new BaseResponse<>("Workout plans fetched successfully", responses)
         );
     }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Get selected fields of all workout plans",
+            description = "Fetch only the comma separated fields of a user's workout plans, the owner is not joined "
+                    + "unless userName or userRole is requested. Supports If-None-Match like the full listing")
+    @ApiResponse(responseCode = "200", description = "Workout plans fetched successfully")
+    @ApiResponse(responseCode = "304", description = "Workout plans not modified")
+    @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    @GetMapping(value = "/user/{userId}", params = "fields")
+    public ResponseEntity<BaseResponse<List<Map<String, Object>>>> getWorkoutPlanFields(
+            @PathVariable Long userId,
+            @RequestParam String fields,
+            WebRequest webRequest) {
+
+        EnumSet<WorkoutPlanField> selected = SparseField.parse(WorkoutPlanField.class, fields);
+        String etag = workoutPlanService.getWorkoutPlansETag(userId) + "-fields-" + SparseField.mask(selected);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok(new BaseResponse<>("Workout plans fetched successfully",
+                workoutPlanService.getWorkoutPlanFields(userId, selected)));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Search a user's workout plans", description = "Finds plans whose title or description "
+            + "contain every word of the query, the last letters of a word may be left out")
+    @ApiResponse(responseCode = "200", description = "Workout plans searched successfully")
+    @GetMapping("/user/{userId}/search")
+    public ResponseEntity<BaseResponse<List<WorkoutPlanResponse>>> searchWorkoutPlans(
+            @PathVariable Long userId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        List<WorkoutPlanResponse> plans = workoutPlanSearchService.searchWorkoutPlans(userId, q, limit)
+                .stream()
+                .map(WorkoutPlanMapper::toResponse)
+                .toList();
+        return ResponseEntity.ok(new BaseResponse<>("Workout plans searched successfully", plans));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Search all workout plans", description = "Same as the user search across every user's plans")
+    @ApiResponse(responseCode = "200", description = "Workout plans searched successfully")
+    @GetMapping("/search")
+    public ResponseEntity<BaseResponse<List<WorkoutPlanResponse>>> searchAllWorkoutPlans(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        List<WorkoutPlanResponse> plans = workoutPlanSearchService.searchAllWorkoutPlans(q, limit)
+                .stream()
+                .map(WorkoutPlanMapper::toResponse)
+                .toList();
+        return ResponseEntity.ok(new BaseResponse<>("Workout plans searched successfully", plans));
+    }
 }
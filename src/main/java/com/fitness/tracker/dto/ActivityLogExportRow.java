@@ -0,0 +1,13 @@
+package com.fitness.tracker.dto;
+
+import java.time.LocalDateTime;
+
+public record ActivityLogExportRow(
+        Long id,
+        LocalDateTime createdDate,
+        String activityType,
+        int caloriesBurned,
+        int duration,
+        Long workoutPlanId,
+        boolean archived
+) {}
@@ -0,0 +1,14 @@
+package com.fitness.tracker.dto;
+
+import java.time.LocalDateTime;
+
+public record ActivityLogIngestion(
+        long sequence,
+        String ingestionKey,
+        Long userId,
+        Long workoutPlanId,
+        String activityType,
+        int caloriesBurned,
+        int duration,
+        LocalDateTime createdDate
+) {}
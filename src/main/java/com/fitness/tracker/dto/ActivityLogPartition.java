@@ -0,0 +1,10 @@
+package com.fitness.tracker.dto;
+
+import java.time.YearMonth;
+
+// A month of activity logs, attached partitions are read through activity_logs, detached ones only by table name
+public record ActivityLogPartition(
+        String tableName,
+        YearMonth month,
+        boolean attached
+) {}
@@ -0,0 +1,27 @@
+package com.fitness.tracker.dto;
+
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The percentile digests of one node, exchanged between nodes and persisted as is
+public record PercentileSnapshot(
+        String nodeId,
+        LocalDateTime createdDate,
+        List<Digest> digests
+) {
+
+    public record Digest(
+            LeaderboardPeriod period,
+            LocalDate periodStart,
+            LeaderboardMetric metric,
+            // Null for the digest across all activity types
+            String activityType,
+            double min,
+            double max,
+            double[] means,
+            double[] weights
+    ) {}
+}
@@ -0,0 +1,12 @@
+package com.fitness.tracker.dto;
+
+import com.fitness.tracker.enums.UserRole;
+import java.time.LocalDate;
+
+// Every criterion is optional, the created dates are inclusive
+public record UserFilter(
+        UserRole role,
+        LocalDate createdFrom,
+        LocalDate createdTo,
+        String emailPrefix
+) {}
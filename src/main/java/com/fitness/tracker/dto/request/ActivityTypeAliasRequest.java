@@ -0,0 +1,11 @@
+package com.fitness.tracker.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record ActivityTypeAliasRequest(
+
+        @NotBlank(message = "Alias is required")
+        @Size(max = 50, message = "Alias must be at most 50 characters")
+        String alias
+) {}
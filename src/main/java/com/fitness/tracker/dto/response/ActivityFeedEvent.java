@@ -0,0 +1,8 @@
+package com.fitness.tracker.dto.response;
+
+import com.fitness.tracker.enums.ActivityLogEventType;
+
+public record ActivityFeedEvent(
+        ActivityLogEventType type,
+        ActivityLogResponse activityLog
+) {}
@@ -0,0 +1,29 @@
+package com.fitness.tracker.dto.response;
+
+import com.fitness.tracker.enums.UserRole;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Column-oriented activity log list. Row i is made of the i-th element of every column, user, workoutPlan and
+// activityType columns hold indexes into the dictionaries so repeated names and titles are written once.
+// A workoutPlan index of -1 means the log has no plan.
+public record ActivityLogColumnarResponse(
+        int count,
+        List<UserEntry> users,
+        List<WorkoutPlanEntry> workoutPlans,
+        List<String> activityTypes,
+        long[] id,
+        int[] activityType,
+        int[] caloriesBurned,
+        int[] duration,
+        List<LocalDateTime> createdDate,
+        int[] user,
+        int[] workoutPlan
+) {
+
+    public static final String MEDIA_TYPE = "application/vnd.fitness.columnar+json";
+
+    public record UserEntry(Long id, String name, UserRole role) {}
+
+    public record WorkoutPlanEntry(Long id, String title) {}
+}
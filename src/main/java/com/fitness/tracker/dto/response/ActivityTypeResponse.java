@@ -0,0 +1,9 @@
+package com.fitness.tracker.dto.response;
+
+import java.util.List;
+
+public record ActivityTypeResponse(
+        short code,
+        String name,
+        List<String> aliases
+) {}
@@ -0,0 +1,11 @@
+package com.fitness.tracker.dto.response;
+
+public record ActivityTypeStatsResponse(
+        String activityType,
+        long sessions,
+        long activeUsers,
+        long caloriesBurned,
+        long duration,
+        // Percent of all sessions in the range
+        double share
+) {}
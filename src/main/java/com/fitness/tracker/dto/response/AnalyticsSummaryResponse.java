@@ -0,0 +1,15 @@
+package com.fitness.tracker.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record AnalyticsSummaryResponse(
+        LocalDate from,
+        LocalDate to,
+        long activeUsers,
+        long sessions,
+        long totalCalories,
+        long totalDuration,
+        // Most logged first
+        List<ActivityTypeStatsResponse> activityTypes
+) {}
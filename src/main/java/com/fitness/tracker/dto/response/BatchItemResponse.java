@@ -0,0 +1,22 @@
+package com.fitness.tracker.dto.response;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// One entry per requested id in request order, ids that don't exist or belong to another user are not found
+public record BatchItemResponse<T>(
+        Long id,
+        boolean found,
+        T data
+) {
+
+    public static <E, T> List<BatchItemResponse<T>> of(List<Long> ids, Map<Long, E> found, Function<E, T> mapper) {
+        return ids.stream()
+                .map(id -> {
+                    E entity = found.get(id);
+                    return new BatchItemResponse<>(id, entity != null, entity != null ? mapper.apply(entity) : null);
+                })
+                .toList();
+    }
+}
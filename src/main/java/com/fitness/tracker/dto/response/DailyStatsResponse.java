@@ -0,0 +1,11 @@
+package com.fitness.tracker.dto.response;
+
+import java.time.LocalDate;
+
+public record DailyStatsResponse(
+        LocalDate date,
+        long activeUsers,
+        long sessions,
+        long caloriesBurned,
+        long duration
+) {}
@@ -0,0 +1,13 @@
+package com.fitness.tracker.dto.response;
+
+import java.util.List;
+
+public record DashboardResponse(
+        Long userId,
+        DashboardSectionResponse<UserResponse> profile,
+        // Newest first
+        DashboardSectionResponse<List<ActivityLogResponse>> recentActivityLogs,
+        DashboardSectionResponse<List<WorkoutPlanResponse>> workoutPlans,
+        DashboardSectionResponse<WeeklyTotalsResponse> weeklyTotals,
+        DashboardSectionResponse<StreakResponse> streak
+) {}
@@ -0,0 +1,22 @@
+package com.fitness.tracker.dto.response;
+
+import com.fitness.tracker.enums.DashboardSectionStatus;
+
+// Data is null unless the status is OK
+public record DashboardSectionResponse<T>(
+        DashboardSectionStatus status,
+        T data
+) {
+
+    public static <T> DashboardSectionResponse<T> ok(T data) {
+        return new DashboardSectionResponse<>(DashboardSectionStatus.OK, data);
+    }
+
+    public static <T> DashboardSectionResponse<T> timedOut() {
+        return new DashboardSectionResponse<>(DashboardSectionStatus.TIMED_OUT, null);
+    }
+
+    public static <T> DashboardSectionResponse<T> failed() {
+        return new DashboardSectionResponse<>(DashboardSectionStatus.FAILED, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.fitness.tracker.dto.response;
+
+public record LeaderboardEntryResponse(
+        int rank,
+        Long userId,
+        String userName,
+        long score
+) {}
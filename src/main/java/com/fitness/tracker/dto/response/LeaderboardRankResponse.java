@@ -0,0 +1,17 @@
+package com.fitness.tracker.dto.response;
+
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import java.time.LocalDate;
+
+public record LeaderboardRankResponse(
+        Long userId,
+        LeaderboardPeriod period,
+        LeaderboardMetric metric,
+        String activityType,
+        LocalDate periodStart,
+        // Null when the user has no activity in the period
+        Integer rank,
+        long score,
+        int totalUsers
+) {}
@@ -0,0 +1,16 @@
+package com.fitness.tracker.dto.response;
+
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import java.time.LocalDate;
+import java.util.List;
+
+public record LeaderboardResponse(
+        LeaderboardPeriod period,
+        LeaderboardMetric metric,
+        // Null for the board across all activity types
+        String activityType,
+        LocalDate periodStart,
+        int totalUsers,
+        List<LeaderboardEntryResponse> entries
+) {}
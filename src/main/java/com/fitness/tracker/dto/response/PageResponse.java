@@ -0,0 +1,11 @@
+package com.fitness.tracker.dto.response;
+
+import java.util.List;
+
+public record PageResponse<T>(
+        List<T> content,
+        int page,
+        int size,
+        boolean hasNext,
+        Long totalElements
+) {}
@@ -0,0 +1,16 @@
+package com.fitness.tracker.dto.response;
+
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import java.time.LocalDate;
+import java.util.Map;
+
+public record PercentileDistributionResponse(
+        LeaderboardPeriod period,
+        LeaderboardMetric metric,
+        String activityType,
+        LocalDate periodStart,
+        long activeUsers,
+        // Keyed p25, p50, p75, p90 and p99, empty when nobody was active
+        Map<String, Double> quantiles
+) {}
@@ -0,0 +1,17 @@
+package com.fitness.tracker.dto.response;
+
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import java.time.LocalDate;
+
+public record PercentileResponse(
+        Long userId,
+        LeaderboardPeriod period,
+        LeaderboardMetric metric,
+        String activityType,
+        LocalDate periodStart,
+        long value,
+        // Share of active users with a lower total, in percent
+        double percentile,
+        long activeUsers
+) {}
@@ -0,0 +1,11 @@
+package com.fitness.tracker.dto.response;
+
+import java.time.LocalDate;
+
+public record StreakResponse(
+        Long userId,
+        int currentStreak,
+        int bestStreak,
+        LocalDate lastActiveDate,
+        int activeDaysThisMonth
+) {}
@@ -0,0 +1,12 @@
+package com.fitness.tracker.dto.response;
+
+public record UserAdherenceResponse(
+        Long userId,
+        long workoutPlans,
+        long sessions,
+        long totalDuration,
+        // Sum of each plan's duration times its sessions
+        long plannedDuration,
+        // Null until a session is logged against one of the user's plans
+        Double adherence
+) {}
@@ -0,0 +1,10 @@
+package com.fitness.tracker.dto.response;
+
+import java.time.LocalDate;
+
+public record WeeklyTotalsResponse(
+        LocalDate weekStart,
+        long sessions,
+        long caloriesBurned,
+        long duration
+) {}
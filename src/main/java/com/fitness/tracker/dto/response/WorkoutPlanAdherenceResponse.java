@@ -0,0 +1,16 @@
+package com.fitness.tracker.dto.response;
+
+import java.time.LocalDateTime;
+
+public record WorkoutPlanAdherenceResponse(
+        Long workoutPlanId,
+        Long userId,
+        String title,
+        int plannedDuration,
+        long sessions,
+        long totalDuration,
+        double averageDuration,
+        // Average logged duration over the planned duration, null until a session is logged
+        Double adherence,
+        LocalDateTime lastSessionDate
+) {}
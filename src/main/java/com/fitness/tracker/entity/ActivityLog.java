@@ -1,22 +1,47 @@
 package com.fitness.tracker.entity;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+        @Index(name = "idx_activity_logs_user_created_date", columnList = "user_id, created_date"),
+        @Index(name = "idx_activity_logs_workout_plan", columnList = "workout_plan_id"),
+        @Index(name = "idx_activity_logs_created_date", columnList = "created_date, user_id"),
+        @Index(name = "idx_activity_logs_activity_type", columnList = "activity_type_code, created_date"),
+        @Index(name = "idx_activity_logs_ingestion_key", columnList = "ingestion_key, created_date")
+})
+// Responses carry the owner and the plan, lists and single logs fetch both in the same query. The owner is the
+// whole users row, password hash included, only a projection would leave columns out
+@NamedEntityGraph(name = ActivityLog.RESPONSE_GRAPH, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("workoutPlan")
+})
 public class ActivityLog {
 
+    public static final String RESPONSE_GRAPH = "ActivityLog.response";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Canonical name in Java, stored as its activity type code
+    @Convert(converter = ActivityTypeConverter.class)
+    @Column(name = "activity_type_code")
     private String activityType;
 
     private int caloriesBurned;
@@ -25,11 +50,19 @@ public class ActivityLog {
 
     private LocalDateTime createdDate = LocalDateTime.now();
 
-    @ManyToOne
+    // Set on logs written behind by the ingestion queue, replays skip keys already stored
+    @Column(length = 36)
+    private String ingestionKey;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "workout_plan_id")
     private WorkoutPlan workoutPlan;
 
@@ -73,6 +106,14 @@ public class ActivityLog {
         this.createdDate = createdDate;
     }
 
+    public String getIngestionKey() {
+        return ingestionKey;
+    }
+
+    public void setIngestionKey(String ingestionKey) {
+        this.ingestionKey = ingestionKey;
+    }
+
     public User getUser() {
         return user;
     }
@@ -88,4 +129,12 @@ public class ActivityLog {
     public void setWorkoutPlan(WorkoutPlan workoutPlan) {
         this.workoutPlan = workoutPlan;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,50 @@
+package com.fitness.tracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "activity_types")
+public class ActivityType {
+
+    // Stored on activity logs instead of the name
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short code;
+
+    // Display name, as first logged or seeded
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    // ActivityTypeDictionary.key of the name, keeps "running" and "Running " from becoming two types
+    @Column(name = "name_key", nullable = false, unique = true, length = 50)
+    private String nameKey;
+
+    public Short getCode() {
+        return code;
+    }
+
+    public void setCode(Short code) {
+        this.code = code;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNameKey() {
+        return nameKey;
+    }
+
+    public void setNameKey(String nameKey) {
+        this.nameKey = nameKey;
+    }
+}
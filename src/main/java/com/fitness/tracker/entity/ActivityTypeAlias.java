@@ -0,0 +1,35 @@
+package com.fitness.tracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "activity_type_aliases")
+public class ActivityTypeAlias {
+
+    // ActivityTypeDictionary.key of the synonym
+    @Id
+    @Column(length = 50)
+    private String alias;
+
+    @Column(nullable = false)
+    private Short code;
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public Short getCode() {
+        return code;
+    }
+
+    public void setCode(Short code) {
+        this.code = code;
+    }
+}
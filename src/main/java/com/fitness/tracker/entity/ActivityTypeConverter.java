@@ -0,0 +1,28 @@
+package com.fitness.tracker.entity;
+
+import com.fitness.tracker.service.ActivityTypeService;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Stores activity types as their dictionary code. Hibernate creates the converter through Spring while the
+// entity manager factory is still being built, so the dictionary is only looked up on first use.
+@Converter
+public class ActivityTypeConverter implements AttributeConverter<String, Short> {
+
+    private final ObjectProvider<ActivityTypeService> activityTypeService;
+
+    public ActivityTypeConverter(ObjectProvider<ActivityTypeService> activityTypeService) {
+        this.activityTypeService = activityTypeService;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String activityType) {
+        return activityType == null ? null : activityTypeService.getObject().getCode(activityType);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return code == null ? null : activityTypeService.getObject().getName(code);
+    }
+}
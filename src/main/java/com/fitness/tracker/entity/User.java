@@ -10,14 +10,20 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_created_date", columnList = "role, created_date"),
+        @Index(name = "idx_users_created_date", columnList = "created_date")
+})
 public class User {
 
     public User() {}
@@ -50,6 +56,20 @@ public class User {
 
     private LocalDateTime createdDate = LocalDateTime.now();
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    // Bumped by bulk updates whenever the user's plans or logs change, so list ETags need no list query.
+    // Not updatable through the entity, otherwise a stale loaded User would write an old value back.
+    @ColumnDefault("0")
+    @Column(name = "workout_plans_version", nullable = false, updatable = false)
+    private long workoutPlansVersion;
+
+    @ColumnDefault("0")
+    @Column(name = "activity_logs_version", nullable = false, updatable = false)
+    private long activityLogsVersion;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<WorkoutPlan> workoutPlans = new ArrayList<>();
 
@@ -119,4 +139,28 @@ public class User {
     public void setActivityLogs(List<ActivityLog> activityLogs) {
         this.activityLogs = activityLogs;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public long getWorkoutPlansVersion() {
+        return workoutPlansVersion;
+    }
+
+    public void setWorkoutPlansVersion(long workoutPlansVersion) {
+        this.workoutPlansVersion = workoutPlansVersion;
+    }
+
+    public long getActivityLogsVersion() {
+        return activityLogsVersion;
+    }
+
+    public void setActivityLogsVersion(long activityLogsVersion) {
+        this.activityLogsVersion = activityLogsVersion;
+    }
 }
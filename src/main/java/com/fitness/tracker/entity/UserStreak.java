@@ -0,0 +1,89 @@
+package com.fitness.tracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "user_streaks")
+public class UserStreak {
+
+    // The user's id, one row per user with at least one activity log
+    @Id
+    private Long userId;
+
+    private LocalDate lastActiveDate;
+
+    // Run of active days ending on lastActiveDate, it is only current while lastActiveDate is today or yesterday
+    private int currentStreak;
+
+    private int bestStreak;
+
+    private LocalDate bitmapStart;
+
+    // DayBitmap of every day with at least one activity log
+    @Column(length = 4096)
+    private byte[] activeDays;
+
+    @Version
+    private Long version;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getLastActiveDate() {
+        return lastActiveDate;
+    }
+
+    public void setLastActiveDate(LocalDate lastActiveDate) {
+        this.lastActiveDate = lastActiveDate;
+    }
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public void setCurrentStreak(int currentStreak) {
+        this.currentStreak = currentStreak;
+    }
+
+    public int getBestStreak() {
+        return bestStreak;
+    }
+
+    public void setBestStreak(int bestStreak) {
+        this.bestStreak = bestStreak;
+    }
+
+    public LocalDate getBitmapStart() {
+        return bitmapStart;
+    }
+
+    public void setBitmapStart(LocalDate bitmapStart) {
+        this.bitmapStart = bitmapStart;
+    }
+
+    public byte[] getActiveDays() {
+        return activeDays;
+    }
+
+    public void setActiveDays(byte[] activeDays) {
+        this.activeDays = activeDays;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -2,21 +2,31 @@ package com.fitness.tracker.entity;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "workout_plans")
+@Table(name = "workout_plans", indexes = @Index(name = "idx_workout_plans_user", columnList = "user_id"))
+// Responses carry the owner, the whole users row, password hash included, only a projection would leave columns out
+@NamedEntityGraph(name = WorkoutPlan.RESPONSE_GRAPH, attributeNodes = @NamedAttributeNode("user"))
 public class WorkoutPlan {
 
+    public static final String RESPONSE_GRAPH = "WorkoutPlan.response";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -29,7 +39,11 @@ public class WorkoutPlan {
 
     private LocalDateTime createdDate = LocalDateTime.now();
 
-    @ManyToOne
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -91,4 +105,12 @@ public class WorkoutPlan {
     public void setActivityLogs(List<ActivityLog> activityLogs) {
         this.activityLogs = activityLogs;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
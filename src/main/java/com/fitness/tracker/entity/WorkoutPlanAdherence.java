@@ -0,0 +1,68 @@
+package com.fitness.tracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "workout_plan_adherence", indexes = @Index(name = "idx_workout_plan_adherence_user", columnList = "user_id"))
+public class WorkoutPlanAdherence {
+
+    // The workout plan's id, the row is created and deleted with the plan
+    @Id
+    private Long workoutPlanId;
+
+    // Owner of the plan, sessions may be logged by any user
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private long sessions;
+
+    // Sum of the logged durations in minutes
+    private long totalDuration;
+
+    private LocalDateTime lastSessionDate;
+
+    public Long getWorkoutPlanId() {
+        return workoutPlanId;
+    }
+
+    public void setWorkoutPlanId(Long workoutPlanId) {
+        this.workoutPlanId = workoutPlanId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(long sessions) {
+        this.sessions = sessions;
+    }
+
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    public void setTotalDuration(long totalDuration) {
+        this.totalDuration = totalDuration;
+    }
+
+    public LocalDateTime getLastSessionDate() {
+        return lastSessionDate;
+    }
+
+    public void setLastSessionDate(LocalDateTime lastSessionDate) {
+        this.lastSessionDate = lastSessionDate;
+    }
+}
@@ -0,0 +1,7 @@
+package com.fitness.tracker.enums;
+
+public enum ActivityLogEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,34 @@
+package com.fitness.tracker.enums;
+
+public enum ActivityLogField implements SparseField {
+
+    ID("id", "id"),
+    ACTIVITY_TYPE("activityType", "activityType"),
+    CALORIES_BURNED("caloriesBurned", "caloriesBurned"),
+    DURATION("duration", "duration"),
+    CREATED_DATE("createdDate", "createdDate"),
+    // Foreign key columns, read without joining
+    USER_ID("userId", "user.id"),
+    WORKOUT_PLAN_ID("workoutPlanId", "workoutPlan.id"),
+    USER_NAME("userName", "user.name"),
+    USER_ROLE("userRole", "user.role"),
+    WORKOUT_PLAN_TITLE("workoutPlanTitle", "workoutPlan.title");
+
+    private final String name;
+    private final String path;
+
+    ActivityLogField(String name, String path) {
+        this.name = name;
+        this.path = path;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,15 @@
+package com.fitness.tracker.enums;
+
+public enum DashboardSection {
+
+    PROFILE,
+
+    RECENT_ACTIVITY_LOGS,
+
+    WORKOUT_PLANS,
+
+    // Sessions, calories and minutes since Monday
+    WEEKLY_TOTALS,
+
+    STREAK
+}
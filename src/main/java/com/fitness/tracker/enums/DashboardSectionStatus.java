@@ -0,0 +1,12 @@
+package com.fitness.tracker.enums;
+
+public enum DashboardSectionStatus {
+
+    OK,
+
+    // Missed its deadline, the rest of the dashboard is returned without it
+    TIMED_OUT,
+
+    // Failed or could not be scheduled, retrying later may succeed
+    FAILED
+}
@@ -0,0 +1,10 @@
+package com.fitness.tracker.enums;
+
+public enum LeaderboardMetric {
+
+    // Sum of caloriesBurned
+    CALORIES,
+
+    // Sum of duration in minutes
+    DURATION
+}
@@ -0,0 +1,35 @@
+package com.fitness.tracker.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum LeaderboardPeriod {
+
+    // Monday to Sunday
+    WEEKLY,
+
+    // Calendar month
+    MONTHLY;
+
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHLY -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate next(LocalDate periodStart) {
+        return switch (this) {
+            case WEEKLY -> periodStart.plusWeeks(1);
+            case MONTHLY -> periodStart.plusMonths(1);
+        };
+    }
+
+    public LocalDate previous(LocalDate periodStart) {
+        return switch (this) {
+            case WEEKLY -> periodStart.minusWeeks(1);
+            case MONTHLY -> periodStart.minusMonths(1);
+        };
+    }
+}
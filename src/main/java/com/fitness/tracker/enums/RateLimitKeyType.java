@@ -0,0 +1,10 @@
+package com.fitness.tracker.enums;
+
+public enum RateLimitKeyType {
+
+    // Buckets are keyed by the subject of a validly signed bearer token, falling back to the client IP
+    USER,
+
+    // Buckets are keyed by the client IP address
+    IP
+}
@@ -0,0 +1,40 @@
+package com.fitness.tracker.enums;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.stream.Collectors;
+
+// A response field that can be requested through the fields= parameter of a listing endpoint.
+// The path is the JPA attribute path selected for it, a dotted path joins the association.
+public interface SparseField {
+
+    String getName();
+
+    String getPath();
+
+    static <E extends Enum<E> & SparseField> EnumSet<E> parse(Class<E> type, String fields) {
+        if (fields == null || fields.isBlank()) {
+            throw new IllegalArgumentException("fields must list at least one field");
+        }
+        EnumSet<E> parsed = EnumSet.noneOf(type);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            E field = Arrays.stream(type.getEnumConstants())
+                    .filter(candidate -> candidate.getName().equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field '" + trimmed + "', allowed fields are "
+                            + Arrays.stream(type.getEnumConstants()).map(SparseField::getName).collect(Collectors.joining(", "))));
+            parsed.add(field);
+        }
+        return parsed;
+    }
+
+    // Stable across requests listing the same fields in any order, used to tell representations apart in ETags
+    static <E extends Enum<E> & SparseField> long mask(EnumSet<E> fields) {
+        long mask = 0;
+        for (E field : fields) {
+            mask |= 1L << field.ordinal();
+        }
+        return mask;
+    }
+}
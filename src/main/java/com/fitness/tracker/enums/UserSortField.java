@@ -0,0 +1,19 @@
+package com.fitness.tracker.enums;
+
+public enum UserSortField {
+
+    ID("id"),
+    NAME("name"),
+    EMAIL("email"),
+    CREATED_DATE("createdDate");
+
+    private final String attribute;
+
+    UserSortField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+}
@@ -0,0 +1,32 @@
+package com.fitness.tracker.enums;
+
+public enum WorkoutPlanField implements SparseField {
+
+    ID("id", "id"),
+    TITLE("title", "title"),
+    DESCRIPTION("description", "description"),
+    DURATION("duration", "duration"),
+    CREATED_DATE("createdDate", "createdDate"),
+    // Foreign key column, read without joining
+    USER_ID("userId", "user.id"),
+    USER_NAME("userName", "user.name"),
+    USER_ROLE("userRole", "user.role");
+
+    private final String name;
+    private final String path;
+
+    WorkoutPlanField(String name, String path) {
+        this.name = name;
+        this.path = path;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+}
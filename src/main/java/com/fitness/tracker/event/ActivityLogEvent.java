@@ -0,0 +1,37 @@
+package com.fitness.tracker.event;
+
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.enums.ActivityLogEventType;
+
+// Published by ActivityLogServiceImpl inside the mutating transaction. "before" is empty for creates,
+// "after" is empty for deletes, so listeners can apply deltas without reloading the log.
+public record ActivityLogEvent(
+        ActivityLogEventType type,
+        ActivityLogResponse before,
+        ActivityLogResponse after
+) {
+
+    public static ActivityLogEvent created(ActivityLogResponse after) {
+        return new ActivityLogEvent(ActivityLogEventType.CREATED, null, after);
+    }
+
+    public static ActivityLogEvent updated(ActivityLogResponse before, ActivityLogResponse after) {
+        return new ActivityLogEvent(ActivityLogEventType.UPDATED, before, after);
+    }
+
+    public static ActivityLogEvent deleted(ActivityLogResponse before) {
+        return new ActivityLogEvent(ActivityLogEventType.DELETED, before, null);
+    }
+
+    public ActivityLogResponse current() {
+        return after != null ? after : before;
+    }
+
+    public Long activityLogId() {
+        return current().id();
+    }
+
+    public Long userId() {
+        return current().userId();
+    }
+}
@@ -0,0 +1,10 @@
+package com.fitness.tracker.event;
+
+import java.util.List;
+
+public interface EventPublisher {
+
+    // Messages arrive in outbox order. Throwing leaves the whole batch unpublished so it is delivered again,
+    // consumers should therefore be idempotent on OutboxMessage.id().
+    void publish(List<OutboxMessage> messages);
+}
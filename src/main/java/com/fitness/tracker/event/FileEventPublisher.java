@@ -0,0 +1,52 @@
+package com.fitness.tracker.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.tracker.configuration.OutboxProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Appends each message as a JSON line, a stand-in for a broker that other processes can tail
+@Component
+@ConditionalOnProperty(name = "fitness.outbox.publisher", havingValue = "file")
+public class FileEventPublisher implements EventPublisher {
+
+    private final Logger log = LoggerFactory.getLogger(FileEventPublisher.class);
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileEventPublisher(OutboxProperties properties, ObjectMapper objectMapper) {
+        this.file = properties.file();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileOutputStream output = new FileOutputStream(file.toFile(), true)) {
+                for (OutboxMessage message : messages) {
+                    output.write(objectMapper.writeValueAsBytes(message));
+                    output.write('\n');
+                }
+                // Synced before the relay marks the batch as published
+                output.getChannel().force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to publish outbox messages to " + file, e);
+        }
+        log.debug("Published '{}' outbox messages to '{}'", messages.size(), file);
+    }
+}
@@ -0,0 +1,37 @@
+package com.fitness.tracker.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "fitness.outbox.publisher", havingValue = "in-process", matchIfMissing = true)
+public class InProcessEventPublisher implements EventPublisher {
+
+    private final Logger log = LoggerFactory.getLogger(InProcessEventPublisher.class);
+
+    private final List<Consumer<OutboxMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<OutboxMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<OutboxMessage> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            for (Consumer<OutboxMessage> subscriber : subscribers) {
+                subscriber.accept(message);
+            }
+        }
+        log.debug("Published '{}' outbox messages to '{}' in-process subscribers", messages.size(), subscribers.size());
+    }
+}
@@ -0,0 +1,42 @@
+package com.fitness.tracker.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.tracker.entity.OutboxEvent;
+import com.fitness.tracker.repository.OutboxEventRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class OutboxEventWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxEventWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Runs synchronously in the publisher's transaction, so the outbox row commits or rolls back with the mutation
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onActivityLogEvent(ActivityLogEvent event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setActivityLogId(event.activityLogId());
+        outboxEvent.setUserId(event.userId());
+        outboxEvent.setEventType(event.type());
+        outboxEvent.setPayload(toJson(event));
+        outboxEventRepository.save(outboxEvent);
+    }
+
+    private String toJson(ActivityLogEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize activity log event", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.fitness.tracker.event;
+
+import com.fitness.tracker.enums.ActivityLogEventType;
+import java.time.LocalDateTime;
+
+public record OutboxMessage(
+        Long id,
+        Long activityLogId,
+        Long userId,
+        ActivityLogEventType type,
+        String payload,
+        LocalDateTime createdDate
+) {}
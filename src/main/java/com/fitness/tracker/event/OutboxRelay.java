@@ -0,0 +1,148 @@
+package com.fitness.tracker.event;
+
+import com.fitness.tracker.configuration.OutboxProperties;
+import com.fitness.tracker.entity.OutboxEvent;
+import com.fitness.tracker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Publishes committed outbox rows in id order from a single scheduler thread, which keeps events of a user in
+// order. Rows are marked published only after the publisher returns, so delivery is at least once. Every node runs
+// a relay: a batch is claimed with skip locked and held until it is marked published, and a relay that could only
+// claim rows behind another relay's claim backs off, so one node relays at a time and never overtakes another.
+// Ids are taken at insert but become visible at commit, so a missing id is waited for up to the settle delay from
+// the moment the rows after it showed up. A transaction committing later still than that is published out of order.
+@Component
+public class OutboxRelay {
+
+    private final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventPublisher eventPublisher;
+    private final OutboxProperties properties;
+    private final Timer publishLagTimer;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+    private final TransactionTemplate transactionTemplate;
+    // Missing ids and when they were first noticed, touched by the scheduler thread only
+    private final NavigableMap<Long, Long> gapsFirstSeen = new TreeMap<>();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       EventPublisher eventPublisher,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishLagTimer = meterRegistry.timer("outbox.publish.lag");
+        Gauge.builder("outbox.pending", pendingEvents, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.oldest.pending.age", oldestPendingAgeMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${fitness.outbox.poll-interval-ms:500}")
+    public void relay() {
+        int published;
+        do {
+            published = publishBatch();
+        } while (published == properties.batchSize());
+        updateLagGauges();
+    }
+
+    @Scheduled(cron = "${fitness.outbox.purge-cron:0 0 3 * * *}")
+    public void purgePublished() {
+        int purged = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(properties.retention()));
+        log.info("Purged '{}' published outbox events", purged);
+    }
+
+    private int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> publishClaimed());
+        return published == null ? 0 : published;
+    }
+
+    private int publishClaimed() {
+        List<OutboxEvent> events = claimBatch();
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxMessage> messages = events.stream()
+                .map(event -> new OutboxMessage(event.getId(), event.getActivityLogId(), event.getUserId(),
+                        event.getEventType(), event.getPayload(), event.getCreatedDate()))
+                .toList();
+        try {
+            eventPublisher.publish(messages);
+        } catch (RuntimeException e) {
+            log.error("Unable to publish '{}' outbox events, they will be retried", messages.size(), e);
+            return 0;
+        }
+
+        LocalDateTime publishedDate = LocalDateTime.now();
+        outboxEventRepository.markPublished(messages.stream().map(OutboxMessage::id).toList(), publishedDate);
+        for (OutboxMessage message : messages) {
+            publishLagTimer.record(Duration.between(message.createdDate(), publishedDate).toMillis(), TimeUnit.MILLISECONDS);
+        }
+        log.debug("Relayed '{}' outbox events", messages.size());
+        return messages.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findByPublishedDateIsNullOrderByIdAsc(
+                PageRequest.of(0, properties.batchSize()));
+        if (events.isEmpty()) {
+            return events;
+        }
+        long firstId = events.get(0).getId();
+        if (outboxEventRepository.existsByPublishedDateIsNullAndIdLessThan(firstId)) {
+            log.debug("Older outbox events are claimed by another relay, skipping this run");
+            return List.of();
+        }
+
+        long previousId = outboxEventRepository.findFirstByIdLessThanOrderByIdDesc(firstId)
+                .map(OutboxEvent::getId)
+                .orElse(firstId - 1);
+        long now = System.nanoTime();
+        for (int i = 0; i < events.size(); i++) {
+            long id = events.get(i).getId();
+            if (id != previousId + 1 && !gapSettled(previousId + 1, now)) {
+                events = events.subList(0, i);
+                break;
+            }
+            previousId = id;
+        }
+        // Gaps up to here are settled or filled
+        gapsFirstSeen.headMap(previousId, true).clear();
+        return events;
+    }
+
+    private boolean gapSettled(long missingId, long now) {
+        long firstSeen = gapsFirstSeen.computeIfAbsent(missingId, id -> now);
+        return now - firstSeen >= properties.settleDelay().toNanos();
+    }
+
+    private void updateLagGauges() {
+        pendingEvents.set(outboxEventRepository.countByPublishedDateIsNull());
+        oldestPendingAgeMillis.set(outboxEventRepository.findFirstByPublishedDateIsNullOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedDate(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,28 @@
+package com.fitness.tracker.event;
+
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.WorkoutPlanEventType;
+
+import java.util.Set;
+
+// Published by WorkoutPlanServiceImpl inside the mutating transaction, carries the plan as it is after the change.
+// "activityLogUserIds" are the users whose activity logs reference the plan, the owner included, since any user
+// may log against any plan.
+public record WorkoutPlanEvent(
+        WorkoutPlanEventType type,
+        Long workoutPlanId,
+        Long userId,
+        String title,
+        String description,
+        Set<Long> activityLogUserIds
+) {
+
+    public static WorkoutPlanEvent of(WorkoutPlanEventType type, WorkoutPlan workoutPlan) {
+        return of(type, workoutPlan, Set.of(workoutPlan.getUser().getId()));
+    }
+
+    public static WorkoutPlanEvent of(WorkoutPlanEventType type, WorkoutPlan workoutPlan, Set<Long> activityLogUserIds) {
+        return new WorkoutPlanEvent(type, workoutPlan.getId(), workoutPlan.getUser().getId(),
+                workoutPlan.getTitle(), workoutPlan.getDescription(), activityLogUserIds);
+    }
+}
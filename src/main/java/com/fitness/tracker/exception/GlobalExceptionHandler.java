@@ -6,10 +6,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -31,6 +33,14 @@ public class GlobalExceptionHandler {
         .body(new BaseResponse<>(exception.getMessage()));
   }
 
+  @ExceptionHandler(value = ObjectOptimisticLockingFailureException.class)
+  public ResponseEntity<BaseResponse<Void>> optimisticLockingFailureHandler(
+      ObjectOptimisticLockingFailureException exception) {
+    log.error("Optimistic Locking Failure :: {}", exception.getMessage());
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .body(new BaseResponse<>("The resource was modified concurrently, please reload and retry"));
+  }
+
   @ExceptionHandler(value = MethodArgumentNotValidException.class)
   public ResponseEntity<BaseResponse<Object>> methodArgumentNotValidExceptionHandler(
       MethodArgumentNotValidException exception) {
@@ -45,6 +55,15 @@ public class GlobalExceptionHandler {
         .body(new BaseResponse<>(errorMessage));
   }
 
+  @ExceptionHandler(value = MethodArgumentTypeMismatchException.class)
+  public ResponseEntity<BaseResponse<Object>> methodArgumentTypeMismatchHandler(
+      MethodArgumentTypeMismatchException exception) {
+    log.error("Method Argument Type Mismatch :: {}", exception.getMessage());
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(new BaseResponse<>("Invalid value '" + exception.getValue() + "' for parameter '"
+            + exception.getName() + "'"));
+  }
+
   @ExceptionHandler(AuthorizationDeniedException.class)
   public ResponseEntity<BaseResponse<Void>> handleAccessDenied(AuthorizationDeniedException exception) {
     log.error("Access Denied :: {}", exception.getMessage());
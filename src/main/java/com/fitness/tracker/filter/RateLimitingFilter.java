@@ -0,0 +1,158 @@
+package com.fitness.tracker.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.tracker.configuration.RateLimitProperties;
+import com.fitness.tracker.dto.BaseResponse;
+import com.fitness.tracker.enums.RateLimitKeyType;
+import com.fitness.tracker.utils.JwtUtil;
+import com.fitness.tracker.utils.TokenBucket;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitingFilter.class);
+
+    // Overflow buckets per rule once the map is full, so the map never holds more than maxBuckets plus these
+    private static final int OVERFLOW_BUCKETS = 64;
+
+    private final RateLimitProperties properties;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final Map<String, List<LimitedEndpoint>> endpointsByPath;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitingFilter(RateLimitProperties properties, JwtUtil jwtUtil, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.endpointsByPath = compile(properties.rules());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        LimitedEndpoint endpoint = properties.enabled() ? match(request) : null;
+        if (endpoint == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        long waitNanos = bucketFor(endpoint, resolveClientKey(endpoint, request), request.getRemoteAddr(), now)
+                .tryConsume(now);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.warn("Rate limit exceeded for '{} {}' from '{}'", request.getMethod(), endpoint.path(), request.getRemoteAddr());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new BaseResponse<>("Too many requests, please retry after " + retryAfterSeconds + " seconds"));
+    }
+
+    @Scheduled(fixedDelayString = "${fitness.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = properties.idleTimeout().toNanos();
+        int before = buckets.size();
+        // A request racing with the removal may lose the token it just took, which only ever errs towards allowing it
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now, idleNanos));
+        log.debug("Evicted '{}' idle rate limit buckets", before - buckets.size());
+    }
+
+    private LimitedEndpoint match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<LimitedEndpoint> candidates = endpointsByPath.get(path);
+        if (candidates == null) {
+            return null;
+        }
+        for (LimitedEndpoint candidate : candidates) {
+            if (candidate.method() == null || candidate.method().equalsIgnoreCase(request.getMethod())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private TokenBucket bucketFor(LimitedEndpoint endpoint, String clientKey, String remoteAddr, long now) {
+        String key = endpoint.id() + clientKey;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.maxBuckets()) {
+            // Addresses are hashed onto a fixed set of buckets, a client spraying addresses cannot grow the map and
+            // mostly throttles the few clients that share its buckets
+            int slot = Math.floorMod(remoteAddr.hashCode(), OVERFLOW_BUCKETS);
+            return buckets.computeIfAbsent(endpoint.id() + "overflow:" + slot, k -> endpoint.newBucket(now));
+        }
+        return buckets.computeIfAbsent(key, k -> endpoint.newBucket(now));
+    }
+
+    // Runs before authentication, so the user is the subject of a token whose signature checks out. Anything the
+    // client can choose freely, like a userId parameter, would hand out a fresh bucket per request.
+    private String resolveClientKey(LimitedEndpoint endpoint, HttpServletRequest request) {
+        if (endpoint.keyBy() == RateLimitKeyType.USER) {
+            String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                try {
+                    return "user:" + jwtUtil.extractUsername(authHeader.substring(7));
+                } catch (JwtException | IllegalArgumentException e) {
+                    log.debug("Rate limiting by address, the bearer token is invalid: {}", e.getMessage());
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static Map<String, List<LimitedEndpoint>> compile(List<RateLimitProperties.Rule> rules) {
+        Map<String, List<LimitedEndpoint>> compiled = new HashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitProperties.Rule rule = rules.get(i);
+            if (rule.path() == null || rule.period() == null || rule.capacity() < 1) {
+                throw new IllegalArgumentException("Rate limit rule " + i + " requires a path, a period and a positive capacity");
+            }
+            String method = rule.method() == null || rule.method().equals("*") ? null : rule.method();
+            compiled.computeIfAbsent(rule.path(), path -> new ArrayList<>())
+                    .add(new LimitedEndpoint(i + "|", method, rule.path(), rule));
+        }
+        return Map.copyOf(compiled);
+    }
+
+    private record LimitedEndpoint(String id, String method, String path, RateLimitProperties.Rule rule) {
+
+        RateLimitKeyType keyBy() {
+            return rule.keyBy();
+        }
+
+        TokenBucket newBucket(long now) {
+            return new TokenBucket(rule.capacity(), rule.period(), now);
+        }
+    }
+}
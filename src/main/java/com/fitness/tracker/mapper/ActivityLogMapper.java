@@ -1,8 +1,18 @@
 package com.fitness.tracker.mapper;
 
+import com.fitness.tracker.dto.ActivityLogExportRow;
 import com.fitness.tracker.dto.request.ActivityLogRequest;
+import com.fitness.tracker.dto.response.ActivityLogColumnarResponse;
 import com.fitness.tracker.dto.response.ActivityLogResponse;
 import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.entity.User;
+import com.fitness.tracker.entity.WorkoutPlan;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ActivityLogMapper {
 
@@ -30,4 +40,74 @@ public class ActivityLogMapper {
                 log.getWorkoutPlan() != null ? log.getWorkoutPlan().getTitle() : null
         );
     }
+
+    public static ActivityLogColumnarResponse toColumnarResponse(List<ActivityLog> logs) {
+        int count = logs.size();
+        long[] ids = new long[count];
+        int[] activityTypes = new int[count];
+        int[] caloriesBurned = new int[count];
+        int[] durations = new int[count];
+        List<LocalDateTime> createdDates = new ArrayList<>(count);
+        int[] users = new int[count];
+        int[] workoutPlans = new int[count];
+
+        Map<Long, Integer> userIndexes = new HashMap<>();
+        Map<Long, Integer> workoutPlanIndexes = new HashMap<>();
+        Map<String, Integer> activityTypeIndexes = new HashMap<>();
+        List<ActivityLogColumnarResponse.UserEntry> userEntries = new ArrayList<>();
+        List<ActivityLogColumnarResponse.WorkoutPlanEntry> workoutPlanEntries = new ArrayList<>();
+        List<String> activityTypeEntries = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            ActivityLog log = logs.get(i);
+            ids[i] = log.getId();
+            activityTypes[i] = activityTypeIndexes.computeIfAbsent(log.getActivityType(), type -> {
+                activityTypeEntries.add(type);
+                return activityTypeEntries.size() - 1;
+            });
+            caloriesBurned[i] = log.getCaloriesBurned();
+            durations[i] = log.getDuration();
+            createdDates.add(log.getCreatedDate());
+
+            User user = log.getUser();
+            users[i] = userIndexes.computeIfAbsent(user.getId(), id -> {
+                userEntries.add(new ActivityLogColumnarResponse.UserEntry(id, user.getName(), user.getRole()));
+                return userEntries.size() - 1;
+            });
+
+            WorkoutPlan workoutPlan = log.getWorkoutPlan();
+            workoutPlans[i] = workoutPlan == null ? -1 : workoutPlanIndexes.computeIfAbsent(workoutPlan.getId(), id -> {
+                workoutPlanEntries.add(new ActivityLogColumnarResponse.WorkoutPlanEntry(id, workoutPlan.getTitle()));
+                return workoutPlanEntries.size() - 1;
+            });
+        }
+
+        return new ActivityLogColumnarResponse(count, userEntries, workoutPlanEntries, activityTypeEntries,
+                ids, activityTypes, caloriesBurned, durations, createdDates, users, workoutPlans);
+    }
+
+    public static String toCsv(List<ActivityLogExportRow> rows) {
+        StringBuilder csv = new StringBuilder(64 + rows.size() * 64)
+                .append("id,createdDate,activityType,caloriesBurned,duration,workoutPlanId,archived\n");
+        for (ActivityLogExportRow row : rows) {
+            csv.append(row.id()).append(',')
+                    .append(row.createdDate()).append(',')
+                    .append(csvField(row.activityType())).append(',')
+                    .append(row.caloriesBurned()).append(',')
+                    .append(row.duration()).append(',')
+                    .append(row.workoutPlanId() != null ? row.workoutPlanId() : "").append(',')
+                    .append(row.archived()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
 }
@@ -0,0 +1,17 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.entity.ActivityLogArchiveSegment;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ActivityLogArchiveSegmentRepository extends JpaRepository<ActivityLogArchiveSegment, Long> {
+
+    List<ActivityLogArchiveSegment> findByUserIdOrderByFromDateAsc(Long userId);
+
+    // Segments overlapping [from, to)
+    List<ActivityLogArchiveSegment> findByUserIdAndFromDateLessThanAndToDateGreaterThanOrderByFromDateAsc(
+            Long userId, LocalDateTime to, LocalDateTime from);
+}
@@ -0,0 +1,38 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.dto.ActivityLogPartition;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Monthly partitions of activity_logs named activity_logs_y2025m03, a detached month keeps the same table name
+public interface ActivityLogPartitionManager {
+
+    Pattern TABLE_NAME = Pattern.compile("activity_logs_y(\\d{4})m(\\d{2})");
+
+    // Ordered by month
+    List<ActivityLogPartition> findPartitions();
+
+    // Does nothing when the month's partition exists already
+    void createPartition(YearMonth month);
+
+    // Moves the month out of activity_logs into its standalone table and bumps the activity log versions of its
+    // users in the same transaction. The API no longer reads the month, only the archive keeps it reachable
+    void detachPartition(YearMonth month);
+
+    static String tableName(YearMonth month) {
+        return String.format(Locale.ROOT, "activity_logs_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    // Null for tables that are not monthly partitions
+    static YearMonth parseMonth(String tableName) {
+        Matcher matcher = TABLE_NAME.matcher(tableName.toLowerCase(Locale.ROOT));
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+}
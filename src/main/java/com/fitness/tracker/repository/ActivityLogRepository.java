@@ -1,12 +1,152 @@
 package com.fitness.tracker.repository;
 
 import com.fitness.tracker.entity.ActivityLog;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>, ActivityLogRepositoryCustom {
+
+    // Ingestion keys of these that are already stored. The created dates bound the lookup to their partitions
+    @Query("select a.ingestionKey from ActivityLog a where a.ingestionKey in :keys "
+            + "and a.createdDate >= :from and a.createdDate <= :to")
+    Set<String> findIngestionKeys(@Param("keys") Collection<String> keys, @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
 
-public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
+    // Every caller renders the log, including updates and deletes publishing it
+    @Override
+    @EntityGraph(ActivityLog.RESPONSE_GRAPH)
+    Optional<ActivityLog> findById(Long id);
 
+    @EntityGraph(ActivityLog.RESPONSE_GRAPH)
     List<ActivityLog> findByUserId(Long userId);
 
+    // Bounded by created_date, so only the partitions of the range are read
+    @EntityGraph(ActivityLog.RESPONSE_GRAPH)
+    List<ActivityLog> findByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(Long userId, LocalDateTime from, LocalDateTime to);
+
+    @EntityGraph(ActivityLog.RESPONSE_GRAPH)
     List<ActivityLog> findByWorkoutPlanId(Long workoutPlanId);
+
+    // Logs other users attached to the plans of a user, removed along with those plans
+    @EntityGraph(ActivityLog.RESPONSE_GRAPH)
+    List<ActivityLog> findByWorkoutPlanUserIdAndUserIdNot(Long workoutPlanUserId, Long userId);
+
+    @EntityGraph(ActivityLog.RESPONSE_GRAPH)
+    List<ActivityLog> findByUserIdOrderByCreatedDateDescIdDesc(Long userId, Pageable pageable);
+
+    // Not bounded by created_date, every partition's primary key index is probed
+    @EntityGraph(ActivityLog.RESPONSE_GRAPH)
+    List<ActivityLog> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    // User months with logs created before the given date, oldest first
+    @Query("select a.user.id as userId, extract(year from a.createdDate) as createdYear, "
+            + "extract(month from a.createdDate) as createdMonth "
+            + "from ActivityLog a where a.createdDate < :before "
+            + "group by a.user.id, extract(year from a.createdDate), extract(month from a.createdDate) "
+            + "order by createdYear, createdMonth, userId")
+    List<ArchiveCandidate> findArchiveCandidates(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from ActivityLog a where a.user.id = :userId and a.createdDate >= :from and a.createdDate < :to "
+            + "order by a.createdDate, a.id")
+    List<ActivityLog> findForArchive(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("delete from ActivityLog a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    boolean existsByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(Long userId, LocalDateTime from, LocalDateTime to);
+
+    @Query("select a.user.id as userId, a.activityType as activityType, "
+            + "sum(a.caloriesBurned) as caloriesBurned, sum(a.duration) as duration "
+            + "from ActivityLog a where a.createdDate >= :from and a.createdDate < :to "
+            + "group by a.user.id, a.activityType")
+    List<ActivityTotals> sumByUserAndActivityType(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select count(a) as sessions, coalesce(sum(a.caloriesBurned), 0) as caloriesBurned, "
+            + "coalesce(sum(a.duration), 0) as duration "
+            + "from ActivityLog a where a.user.id = :userId and a.createdDate >= :from and a.createdDate < :to")
+    UserTotals sumByUser(@Param("userId") Long userId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select a.workoutPlan.id as workoutPlanId, count(a) as sessions, sum(a.duration) as totalDuration, "
+            + "max(a.createdDate) as lastSessionDate "
+            + "from ActivityLog a where a.workoutPlan.id in :workoutPlanIds group by a.workoutPlan.id")
+    List<WorkoutPlanTotals> sumByWorkoutPlanIds(@Param("workoutPlanIds") Collection<Long> workoutPlanIds);
+
+    @Query("select max(a.createdDate) from ActivityLog a where a.workoutPlan.id = :workoutPlanId")
+    LocalDateTime findLastCreatedDateByWorkoutPlanId(@Param("workoutPlanId") Long workoutPlanId);
+
+    @Query("select a.activityType as activityType, count(a) as sessions, count(distinct a.user.id) as activeUsers, "
+            + "sum(a.caloriesBurned) as caloriesBurned, sum(a.duration) as duration "
+            + "from ActivityLog a where a.createdDate >= :from and a.createdDate < :to "
+            + "and a.user.id between :fromUserId and :toUserId group by a.activityType")
+    List<ActivityTypeTotals> sumByActivityTypeForUsers(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                       @Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    @Query("select count(distinct a.user.id) from ActivityLog a where a.createdDate >= :from and a.createdDate < :to "
+            + "and a.user.id between :fromUserId and :toUserId")
+    long countActiveUsers(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                          @Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    @Query("select extract(date from a.createdDate) as date, count(a) as sessions, count(distinct a.user.id) as activeUsers, "
+            + "sum(a.caloriesBurned) as caloriesBurned, sum(a.duration) as duration "
+            + "from ActivityLog a where a.createdDate >= :from and a.createdDate < :to "
+            + "group by extract(date from a.createdDate)")
+    List<DailyTotals> sumByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface ArchiveCandidate {
+        Long getUserId();
+        Integer getCreatedYear();
+        Integer getCreatedMonth();
+    }
+
+    interface UserTotals {
+        Long getSessions();
+        Long getCaloriesBurned();
+        Long getDuration();
+    }
+
+    interface ActivityTotals {
+        Long getUserId();
+        String getActivityType();
+        Long getCaloriesBurned();
+        Long getDuration();
+    }
+
+    interface WorkoutPlanTotals {
+        Long getWorkoutPlanId();
+        Long getSessions();
+        Long getTotalDuration();
+        LocalDateTime getLastSessionDate();
+    }
+
+    interface ActivityTypeTotals {
+        String getActivityType();
+        Long getSessions();
+        Long getActiveUsers();
+        Long getCaloriesBurned();
+        Long getDuration();
+    }
+
+    interface DailyTotals {
+        LocalDate getDate();
+        Long getSessions();
+        Long getActiveUsers();
+        Long getCaloriesBurned();
+        Long getDuration();
+    }
 }
@@ -0,0 +1,14 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.enums.ActivityLogField;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ActivityLogRepositoryCustom {
+
+    List<Map<String, Object>> findFieldsByUserId(Long userId, Set<ActivityLogField> fields);
+
+    List<Map<String, Object>> findFieldsByWorkoutPlanId(Long workoutPlanId, Set<ActivityLogField> fields);
+}
@@ -0,0 +1,26 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.enums.ActivityLogField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ActivityLogRepositoryImpl implements ActivityLogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByUserId(Long userId, Set<ActivityLogField> fields) {
+        return SparseFieldQuery.select(entityManager, ActivityLog.class, "user.id", userId, fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByWorkoutPlanId(Long workoutPlanId, Set<ActivityLogField> fields) {
+        return SparseFieldQuery.select(entityManager, ActivityLog.class, "workoutPlan.id", workoutPlanId, fields);
+    }
+}
@@ -0,0 +1,9 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.entity.ActivityTypeAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ActivityTypeAliasRepository extends JpaRepository<ActivityTypeAlias, String> {
+}
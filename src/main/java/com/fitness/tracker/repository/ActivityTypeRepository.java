@@ -0,0 +1,13 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.entity.ActivityType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ActivityTypeRepository extends JpaRepository<ActivityType, Short> {
+
+    Optional<ActivityType> findByNameKey(String nameKey);
+}
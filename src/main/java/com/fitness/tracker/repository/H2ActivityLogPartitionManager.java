@@ -0,0 +1,82 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.dto.ActivityLogPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+// H2 has no partitioning, so activity_logs holds every attached month and its created_date index does the
+// pruning. Detaching copies a month into its own table and deletes it from activity_logs, rows already copied
+// by an interrupted run are skipped. Future months need no table of their own.
+@Component
+@ConditionalOnProperty(name = "fitness.partitioning.strategy", havingValue = "table-per-period", matchIfMissing = true)
+public class H2ActivityLogPartitionManager implements ActivityLogPartitionManager {
+
+    private final Logger log = LoggerFactory.getLogger(H2ActivityLogPartitionManager.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public H2ActivityLogPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<ActivityLogPartition> findPartitions() {
+        List<ActivityLogPartition> partitions = new ArrayList<>(jdbcTemplate.query(
+                "select extract(year from created_date), extract(month from created_date) from activity_logs "
+                        + "group by extract(year from created_date), extract(month from created_date)",
+                (rs, rowNum) -> {
+                    YearMonth month = YearMonth.of(rs.getInt(1), rs.getInt(2));
+                    return new ActivityLogPartition(ActivityLogPartitionManager.tableName(month), month, true);
+                }));
+        jdbcTemplate.queryForList(
+                        "select table_name from information_schema.tables where table_schema = current_schema "
+                                + "and lower(table_name) like 'activity\\_logs\\_y%'", String.class)
+                .stream()
+                .map(ActivityLogPartitionManager::parseMonth)
+                .filter(Objects::nonNull)
+                .forEach(month -> partitions.add(
+                        new ActivityLogPartition(ActivityLogPartitionManager.tableName(month), month, false)));
+        partitions.sort(Comparator.comparing(ActivityLogPartition::month)
+                .thenComparing(ActivityLogPartition::attached));
+        return partitions;
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        log.debug("Month '{}' is kept in activity_logs until it is detached", month);
+    }
+
+    @Override
+    public void detachPartition(YearMonth month) {
+        String tableName = ActivityLogPartitionManager.tableName(month);
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+        jdbcTemplate.execute("create table if not exists " + tableName + " as select * from activity_logs with no data");
+        Integer moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("insert into " + tableName + " select * from activity_logs a "
+                    + "where a.created_date >= ? and a.created_date < ? "
+                    + "and not exists (select 1 from " + tableName + " d where d.id = a.id)", from, to);
+            int deleted = jdbcTemplate.update("delete from activity_logs where created_date >= ? and created_date < ?", from, to);
+            // After the delete, in the order log writes lock the two tables
+            jdbcTemplate.update("update users set activity_logs_version = activity_logs_version + 1 "
+                    + "where id in (select user_id from " + tableName + ")");
+            return deleted;
+        });
+        log.info("Detached '{}' activity logs into '{}'", moved, tableName);
+    }
+}
@@ -0,0 +1,47 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Claims the oldest pending rows for the caller's transaction. Rows another relay holds are skipped rather
+    // than waited for, a lock timeout of -2 is rendered as skip locked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxEvent> findByPublishedDateIsNullOrderByIdAsc(Pageable pageable);
+
+    // True while another relay holds pending rows older than the caller's claim
+    boolean existsByPublishedDateIsNullAndIdLessThan(Long id);
+
+    // The row right before a claim, published or not, to tell whether ids are missing in between
+    Optional<OutboxEvent> findFirstByIdLessThanOrderByIdDesc(Long id);
+
+    Optional<OutboxEvent> findFirstByPublishedDateIsNullOrderByIdAsc();
+
+    long countByPublishedDateIsNull();
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedDate = :publishedDate where e.id in :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedDate") LocalDateTime publishedDate);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedDate < :publishedBefore")
+    int deletePublishedBefore(@Param("publishedBefore") LocalDateTime publishedBefore);
+}
@@ -0,0 +1,72 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.dto.ActivityLogPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+// activity_logs is declared PARTITION BY RANGE (created_date) by the V1 migration. The planner prunes
+// partitions outside a created_date predicate, detaching a month is a catalog change that moves no rows.
+@Component
+@ConditionalOnProperty(name = "fitness.partitioning.strategy", havingValue = "postgres")
+public class PostgresActivityLogPartitionManager implements ActivityLogPartitionManager {
+
+    private final Logger log = LoggerFactory.getLogger(PostgresActivityLogPartitionManager.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // DDL runs in a transaction of its own, pooled connections may have auto-commit off
+    public PostgresActivityLogPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<ActivityLogPartition> findPartitions() {
+        return jdbcTemplate.query(
+                "select c.relname, exists (select 1 from pg_inherits i where i.inhrelid = c.oid "
+                        + "and i.inhparent = 'activity_logs'::regclass) as attached "
+                        + "from pg_class c where c.relkind in ('r', 'p') and pg_table_is_visible(c.oid) "
+                        + "and c.relname like 'activity\\_logs\\_y%'",
+                (rs, rowNum) -> {
+                    YearMonth month = ActivityLogPartitionManager.parseMonth(rs.getString(1));
+                    return month == null ? null : new ActivityLogPartition(rs.getString(1), month, rs.getBoolean(2));
+                })
+                .stream()
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(ActivityLogPartition::month))
+                .toList();
+    }
+
+    // Fails while the default partition holds rows of the month, those have to be moved out by hand first
+    @Override
+    public void createPartition(YearMonth month) {
+        String tableName = ActivityLogPartitionManager.tableName(month);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+                "create table if not exists " + tableName + " partition of activity_logs "
+                        + "for values from ('" + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1) + "')"));
+        log.info("Created activity log partition '{}'", tableName);
+    }
+
+    @Override
+    public void detachPartition(YearMonth month) {
+        String tableName = ActivityLogPartitionManager.tableName(month);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("alter table activity_logs detach partition " + tableName);
+            // After the detach, in the order log writes lock the two tables
+            jdbcTemplate.update("update users set activity_logs_version = activity_logs_version + 1 "
+                    + "where id in (select user_id from " + tableName + ")");
+        });
+        log.info("Detached activity log partition '{}'", tableName);
+    }
+}
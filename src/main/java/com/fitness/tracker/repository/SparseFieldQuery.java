@@ -0,0 +1,69 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.enums.SparseField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Builds a tuple query selecting only the requested fields. Associations are left joined only when one of
+// their non key attributes is requested, an association id is read from the foreign key column.
+final class SparseFieldQuery {
+
+    private SparseFieldQuery() {}
+
+    static List<Map<String, Object>> select(EntityManager entityManager,
+                                            Class<?> entityType,
+                                            String filterPath,
+                                            Object filterValue,
+                                            Collection<? extends SparseField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entityType);
+
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (SparseField field : fields) {
+            selections.add(resolve(root, joins, field.getPath()).alias(field.getName()));
+        }
+
+        query.multiselect(selections)
+                .where(cb.equal(resolve(root, joins, filterPath), filterValue))
+                .orderBy(cb.asc(root.get("id")));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (SparseField field : fields) {
+                row.put(field.getName(), tuple.get(field.getName()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Path<?> resolve(Root<?> root, Map<String, Join<?, ?>> joins, String path) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            return root.get(path);
+        }
+        String association = path.substring(0, dot);
+        String attribute = path.substring(dot + 1);
+        if ("id".equals(attribute)) {
+            return root.get(association).get(attribute);
+        }
+        return joins.computeIfAbsent(association, name -> root.join(name, JoinType.LEFT)).get(attribute);
+    }
+}
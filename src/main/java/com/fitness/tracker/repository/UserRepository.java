@@ -2,12 +2,42 @@ package com.fitness.tracker.repository;
 
 import com.fitness.tracker.entity.User;
 import com.fitness.tracker.enums.UserRole;
+import java.util.Collection;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByRole(UserRole role);
     Optional<User> findByEmail(String email);
+
+    // Selects only the version columns, used to answer conditional GETs without loading any list
+    Optional<Versions> findVersionsById(Long id);
+
+    @Modifying
+    @Query("update User u set u.workoutPlansVersion = u.workoutPlansVersion + 1 where u.id = :userId")
+    int incrementWorkoutPlansVersion(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update User u set u.activityLogsVersion = u.activityLogsVersion + 1 where u.id in :userIds")
+    int incrementActivityLogsVersion(@Param("userIds") Collection<Long> userIds);
+
+    // Bounds for splitting fleet-wide reports into user id partitions, both null without users
+    @Query("select min(u.id) as minId, max(u.id) as maxId from User u")
+    IdRange findIdRange();
+
+    interface Versions {
+        Long getVersion();
+        long getWorkoutPlansVersion();
+        long getActivityLogsVersion();
+    }
+
+    interface IdRange {
+        Long getMinId();
+        Long getMaxId();
+    }
 }
@@ -0,0 +1,15 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.dto.UserFilter;
+import com.fitness.tracker.dto.response.UserResponse;
+import com.fitness.tracker.enums.UserSortField;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    List<UserResponse> findUsers(UserFilter filter, UserSortField sort, Sort.Direction direction, int offset, int limit);
+
+    long countUsers(UserFilter filter);
+}
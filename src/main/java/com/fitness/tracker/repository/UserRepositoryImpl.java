@@ -0,0 +1,86 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.dto.UserFilter;
+import com.fitness.tracker.dto.response.UserResponse;
+import com.fitness.tracker.entity.User;
+import com.fitness.tracker.enums.UserSortField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Lists users as response projections, no User entity or collection is ever loaded. Every filter maps to an
+// indexed column: role and created date share an index, email prefixes use the unique email index.
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserResponse> findUsers(UserFilter filter, UserSortField sort, Sort.Direction direction, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<User> root = query.from(User.class);
+
+        List<Order> orders = new ArrayList<>(2);
+        orders.add(direction.isAscending() ? cb.asc(root.get(sort.getAttribute())) : cb.desc(root.get(sort.getAttribute())));
+        // The id keeps pages stable when sort values repeat
+        if (sort != UserSortField.ID) {
+            orders.add(direction.isAscending() ? cb.asc(root.get("id")) : cb.desc(root.get("id")));
+        }
+
+        query.select(cb.construct(UserResponse.class, root.get("id"), root.get("name"), root.get("email"), root.get("role")))
+                .where(predicates(cb, root, filter))
+                .orderBy(orders);
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countUsers(UserFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> root = query.from(User.class);
+        query.select(cb.count(root)).where(predicates(cb, root, filter));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<User> root, UserFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.role() != null) {
+            predicates.add(cb.equal(root.get("role"), filter.role()));
+        }
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("createdDate"), filter.createdFrom().atStartOfDay()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(root.get("createdDate"), filter.createdTo().plusDays(1).atStartOfDay()));
+        }
+        if (filter.emailPrefix() != null && !filter.emailPrefix().isEmpty()) {
+            predicates.add(cb.like(root.get("email"), escapeLike(filter.emailPrefix()) + "%", LIKE_ESCAPE));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
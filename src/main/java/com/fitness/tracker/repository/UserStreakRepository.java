@@ -0,0 +1,18 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.entity.UserStreak;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserStreakRepository extends JpaRepository<UserStreak, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UserStreak s where s.userId = :userId")
+    Optional<UserStreak> findForUpdate(@Param("userId") Long userId);
+}
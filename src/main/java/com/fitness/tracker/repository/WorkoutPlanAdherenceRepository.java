@@ -0,0 +1,82 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.entity.WorkoutPlanAdherence;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WorkoutPlanAdherenceRepository extends JpaRepository<WorkoutPlanAdherence, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from WorkoutPlanAdherence a where a.workoutPlanId = :workoutPlanId")
+    Optional<WorkoutPlanAdherence> findForUpdate(@Param("workoutPlanId") Long workoutPlanId);
+
+    @Modifying
+    @Query("delete from WorkoutPlanAdherence a where a.workoutPlanId = :workoutPlanId")
+    void deleteByWorkoutPlanId(@Param("workoutPlanId") Long workoutPlanId);
+
+    @Modifying
+    @Query("delete from WorkoutPlanAdherence a where a.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    @Query("select a.workoutPlanId as workoutPlanId, a.userId as userId, p.title as title, "
+            + "p.duration as plannedDuration, a.sessions as sessions, a.totalDuration as totalDuration, "
+            + "a.lastSessionDate as lastSessionDate "
+            + "from WorkoutPlanAdherence a join WorkoutPlan p on p.id = a.workoutPlanId "
+            + "where a.workoutPlanId = :workoutPlanId")
+    Optional<PlanAdherence> findPlanAdherence(@Param("workoutPlanId") Long workoutPlanId);
+
+    // Plans without sessions have no ratio and are left out of the ranking
+    @Query(value = "select a.workoutPlanId as workoutPlanId, a.userId as userId, p.title as title, "
+            + "p.duration as plannedDuration, a.sessions as sessions, a.totalDuration as totalDuration, "
+            + "a.lastSessionDate as lastSessionDate "
+            + "from WorkoutPlanAdherence a join WorkoutPlan p on p.id = a.workoutPlanId "
+            + "where a.sessions > 0 and (:userId is null or a.userId = :userId) "
+            + "order by cast(a.totalDuration as double) / (a.sessions * nullif(p.duration, 0)) desc, a.workoutPlanId",
+            countQuery = "select count(a) from WorkoutPlanAdherence a "
+                    + "where a.sessions > 0 and (:userId is null or a.userId = :userId)")
+    Page<PlanAdherence> findRankedByAdherence(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select count(a) as plans, coalesce(sum(a.sessions), 0) as sessions, "
+            + "coalesce(sum(a.totalDuration), 0) as totalDuration, "
+            + "coalesce(sum(a.sessions * p.duration), 0) as plannedDuration "
+            + "from WorkoutPlanAdherence a join WorkoutPlan p on p.id = a.workoutPlanId where a.userId = :userId")
+    UserAdherence sumByUserId(@Param("userId") Long userId);
+
+    // Plans created before adherence was tracked
+    @Query("select p.id as workoutPlanId, p.user.id as userId from WorkoutPlan p "
+            + "where not exists (select a.workoutPlanId from WorkoutPlanAdherence a where a.workoutPlanId = p.id)")
+    List<MissingPlan> findPlansWithoutAdherence();
+
+    interface PlanAdherence {
+        Long getWorkoutPlanId();
+        Long getUserId();
+        String getTitle();
+        int getPlannedDuration();
+        long getSessions();
+        long getTotalDuration();
+        LocalDateTime getLastSessionDate();
+    }
+
+    interface UserAdherence {
+        long getPlans();
+        long getSessions();
+        long getTotalDuration();
+        long getPlannedDuration();
+    }
+
+    interface MissingPlan {
+        Long getWorkoutPlanId();
+        Long getUserId();
+    }
+}
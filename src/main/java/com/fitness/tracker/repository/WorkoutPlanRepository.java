@@ -1,9 +1,55 @@
 package com.fitness.tracker.repository;
 
 import com.fitness.tracker.entity.WorkoutPlan;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface WorkoutPlanRepository extends JpaRepository<WorkoutPlan, Long> {
+public interface WorkoutPlanRepository extends JpaRepository<WorkoutPlan, Long>, WorkoutPlanRepositoryCustom {
+
+    @Override
+    @EntityGraph(WorkoutPlan.RESPONSE_GRAPH)
+    Optional<WorkoutPlan> findById(Long id);
+
+    // For ownership checks and plans referenced by activity logs, which never render the owner. Without the
+    // graph the owner stays a proxy that only holds its id
+    Optional<WorkoutPlan> findShallowById(Long id);
+
+    // Locked by whoever creates the plans' adherence rows, in id order so two lockers cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from WorkoutPlan p where p.id in :ids order by p.id")
+    List<WorkoutPlan> findForUpdate(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(WorkoutPlan.RESPONSE_GRAPH)
+    List<WorkoutPlan> findByUserId(Long userId);
+
+    @EntityGraph(WorkoutPlan.RESPONSE_GRAPH)
+    List<WorkoutPlan> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(WorkoutPlan.RESPONSE_GRAPH)
+    List<WorkoutPlan> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    // Any user may log against any plan, these are the users whose activity logs embed the plan
+    @Query("select distinct a.user.id from ActivityLog a where a.workoutPlan.id = :workoutPlanId")
+    Set<Long> findActivityLogUserIds(@Param("workoutPlanId") Long workoutPlanId);
+
+    // Only the searchable columns of every plan, for rebuilding the search index
+    @Query("select p.id as id, p.user.id as userId, p.title as title, p.description as description from WorkoutPlan p")
+    List<SearchDocument> findSearchDocuments();
+
+    interface SearchDocument {
+        Long getId();
+        Long getUserId();
+        String getTitle();
+        String getDescription();
+    }
 }
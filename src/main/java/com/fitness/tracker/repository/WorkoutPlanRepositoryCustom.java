@@ -0,0 +1,12 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.enums.WorkoutPlanField;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface WorkoutPlanRepositoryCustom {
+
+    List<Map<String, Object>> findFieldsByUserId(Long userId, Set<WorkoutPlanField> fields);
+}
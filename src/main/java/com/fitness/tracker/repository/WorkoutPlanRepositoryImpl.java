@@ -0,0 +1,21 @@
+package com.fitness.tracker.repository;
+
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.WorkoutPlanField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class WorkoutPlanRepositoryImpl implements WorkoutPlanRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByUserId(Long userId, Set<WorkoutPlanField> fields) {
+        return SparseFieldQuery.select(entityManager, WorkoutPlan.class, "user.id", userId, fields);
+    }
+}
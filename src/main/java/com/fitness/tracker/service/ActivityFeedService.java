@@ -0,0 +1,10 @@
+package com.fitness.tracker.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ActivityFeedService {
+
+    SseEmitter subscribe(Long userId);
+
+    int getSubscriberCount();
+}
@@ -0,0 +1,15 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.dto.ActivityLogExportRow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ActivityLogArchiveService {
+
+    void archiveActivityLogs();
+
+    // Logs in activity_logs and in archive segments, ordered by creation. Created from and to the given dates
+    // inclusive, or all logs when both are null
+    List<ActivityLogExportRow> exportActivityLogs(Long userId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,10 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.entity.ActivityLog;
+
+public interface ActivityLogIngestionService {
+
+    void accept(Long userId, Long workoutPlanId, ActivityLog activityLog);
+
+    int getQueueDepth();
+}
@@ -0,0 +1,6 @@
+package com.fitness.tracker.service;
+
+public interface ActivityLogPartitionService {
+
+    void maintainPartitions();
+}
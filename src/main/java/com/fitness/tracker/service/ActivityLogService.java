@@ -1,20 +1,43 @@
 package com.fitness.tracker.service;
 
+import com.fitness.tracker.dto.ActivityLogIngestion;
 import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.enums.ActivityLogField;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface ActivityLogService {
 
     ActivityLog createActivityLog(Long userId, Long workoutPlanId, ActivityLog activityLog);
 
+    ActivityLog createActivityLog(Long userId, Long workoutPlanId, ActivityLog activityLog, String idempotencyKey);
+
+    int createActivityLogs(List<ActivityLogIngestion> ingestions);
+
     ActivityLog updateActivityLog(Long id, Long userId, Long workoutPlanId, ActivityLog activityLog);
 
     void deleteActivityLog(Long id, Long userId);
 
     ActivityLog getActivityLog(Long id, Long userId);
 
+    Map<Long, ActivityLog> getActivityLogs(List<Long> ids, Long userId);
+
+    String getActivityLogsETag(Long userId);
+
     List<ActivityLog> getAllActivityLogsByUser(Long userId);
 
+    // Created from and to the given dates inclusive, all logs when both are null
+    List<ActivityLog> getActivityLogsByUser(Long userId, LocalDate from, LocalDate to);
+
+    // Newest first
+    List<ActivityLog> getRecentActivityLogs(Long userId, int limit);
+
     List<ActivityLog> getAllActivityLogsByWorkoutPlan(Long workoutPlanId);
+
+    List<Map<String, Object>> getActivityLogFieldsByUser(Long userId, Set<ActivityLogField> fields);
+
+    List<Map<String, Object>> getActivityLogFieldsByWorkoutPlan(Long workoutPlanId, Set<ActivityLogField> fields);
 }
@@ -0,0 +1,22 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.dto.response.ActivityTypeResponse;
+
+import java.util.List;
+
+public interface ActivityTypeService {
+
+    // Canonical name of a logged activity type, unknown types are added to the dictionary
+    String normalize(String activityType);
+
+    Short getCode(String activityType);
+
+    // Canonical name of a known activity type or null, never adds to the dictionary
+    String findName(String activityType);
+
+    String getName(Short code);
+
+    List<ActivityTypeResponse> getActivityTypes();
+
+    ActivityTypeResponse addAlias(Short code, String alias);
+}
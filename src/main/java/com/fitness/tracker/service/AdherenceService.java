@@ -0,0 +1,14 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.dto.response.PageResponse;
+import com.fitness.tracker.dto.response.UserAdherenceResponse;
+import com.fitness.tracker.dto.response.WorkoutPlanAdherenceResponse;
+
+public interface AdherenceService {
+
+    WorkoutPlanAdherenceResponse getWorkoutPlanAdherence(Long workoutPlanId, Long userId);
+
+    UserAdherenceResponse getUserAdherence(Long userId);
+
+    PageResponse<WorkoutPlanAdherenceResponse> getRankedWorkoutPlans(Long userId, int page, int size);
+}
@@ -0,0 +1,13 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.dto.response.AnalyticsSummaryResponse;
+import com.fitness.tracker.dto.response.DailyStatsResponse;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+
+    AnalyticsSummaryResponse getSummary(LocalDate from, LocalDate to);
+
+    List<DailyStatsResponse> getDailyStats(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,8 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.dto.response.DashboardResponse;
+
+public interface DashboardService {
+
+    DashboardResponse getDashboard(Long userId);
+}
@@ -0,0 +1,23 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.dto.response.LeaderboardRankResponse;
+import com.fitness.tracker.dto.response.LeaderboardResponse;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+
+import java.util.Set;
+
+public interface LeaderboardService {
+
+    LeaderboardResponse getLeaderboard(LeaderboardPeriod period, LeaderboardMetric metric, String activityType, int limit);
+
+    LeaderboardRankResponse getRank(Long userId, LeaderboardPeriod period, LeaderboardMetric metric, String activityType);
+
+    // Every user's score on a current period board, in no particular order
+    long[] getScores(LeaderboardPeriod period, LeaderboardMetric metric, String activityType);
+
+    // Activity types with a board in the current period
+    Set<String> getActivityTypes(LeaderboardPeriod period);
+
+    void rebuild();
+}
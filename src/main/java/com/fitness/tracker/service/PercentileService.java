@@ -0,0 +1,20 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.dto.PercentileSnapshot;
+import com.fitness.tracker.dto.response.PercentileDistributionResponse;
+import com.fitness.tracker.dto.response.PercentileResponse;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+
+public interface PercentileService {
+
+    PercentileResponse getUserPercentile(Long userId, LeaderboardPeriod period, LeaderboardMetric metric, String activityType);
+
+    PercentileDistributionResponse getDistribution(LeaderboardPeriod period, LeaderboardMetric metric, String activityType);
+
+    PercentileSnapshot exportSnapshot();
+
+    void mergeSnapshot(PercentileSnapshot snapshot);
+
+    void refresh();
+}
@@ -0,0 +1,8 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.dto.response.StreakResponse;
+
+public interface StreakService {
+
+    StreakResponse getStreak(Long userId);
+}
@@ -1,8 +1,11 @@
 package com.fitness.tracker.service;
 
+import com.fitness.tracker.dto.UserFilter;
+import com.fitness.tracker.dto.response.PageResponse;
+import com.fitness.tracker.dto.response.UserResponse;
 import com.fitness.tracker.entity.User;
-
-import java.util.List;
+import com.fitness.tracker.enums.UserSortField;
+import org.springframework.data.domain.Sort;
 
 public interface UserService {
 
@@ -14,5 +17,6 @@ public interface UserService {
 
     User getUser(Long id);
 
-    List<User> getAllUsers();
+    PageResponse<UserResponse> getUsers(UserFilter filter, UserSortField sort, Sort.Direction direction,
+                                        int page, int size, boolean count);
 }
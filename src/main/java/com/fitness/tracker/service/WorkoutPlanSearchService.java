@@ -0,0 +1,16 @@
+package com.fitness.tracker.service;
+
+import com.fitness.tracker.entity.WorkoutPlan;
+
+import java.util.List;
+
+public interface WorkoutPlanSearchService {
+
+    // Plans of the user whose title or description contain every word of the query, or words starting with them
+    List<WorkoutPlan> searchWorkoutPlans(Long userId, String query, int limit);
+
+    // Same across all users
+    List<WorkoutPlan> searchAllWorkoutPlans(String query, int limit);
+
+    void rebuild();
+}
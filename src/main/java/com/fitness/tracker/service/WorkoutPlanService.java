@@ -1,7 +1,10 @@
 package com.fitness.tracker.service;
 
 import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.WorkoutPlanField;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface WorkoutPlanService {
 
@@ -13,5 +16,11 @@ public interface WorkoutPlanService {
 
     WorkoutPlan getWorkoutPlan(Long id, Long userId);
 
+    Map<Long, WorkoutPlan> getWorkoutPlans(List<Long> ids, Long userId);
+
+    String getWorkoutPlansETag(Long userId);
+
     List<WorkoutPlan> getAllWorkoutPlans(Long userId);
+
+    List<Map<String, Object>> getWorkoutPlanFields(Long userId, Set<WorkoutPlanField> fields);
 }
@@ -0,0 +1,243 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.configuration.FeedProperties;
+import com.fitness.tracker.dto.response.ActivityFeedEvent;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.service.ActivityFeedService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Fan-out hub for live activity feeds. Connections are async servlet requests, so an idle subscriber costs an
+// emitter and a small bounded buffer but no thread. Publishing never blocks on the network: events go into the
+// subscriber's buffer and a shared dispatch pool writes them out. Writes block, so a send running past the send
+// timeout is interrupted and its subscriber dropped, rather than stalling every subscriber queued behind it.
+@Service
+public class ActivityFeedServiceImpl implements ActivityFeedService {
+
+    private final Logger log = LoggerFactory.getLogger(ActivityFeedServiceImpl.class);
+
+    // Buffered in place of an event to send an SSE comment that keeps proxies from closing idle connections
+    private static final ActivityFeedEvent HEARTBEAT = new ActivityFeedEvent(null, null);
+
+    private final FeedProperties properties;
+    private final Map<Long, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService dispatcher;
+    private final Counter droppedCounter;
+
+    public ActivityFeedServiceImpl(FeedProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(properties.dispatchThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "activity-feed-dispatch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.droppedCounter = meterRegistry.counter("activity_feed.subscribers.dropped");
+        Gauge.builder("activity_feed.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        if (subscriberCount.incrementAndGet() > properties.maxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live feed subscribers, please retry later");
+        }
+
+        SseEmitter emitter = newEmitter(properties.connectionTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, properties.bufferSize());
+        subscribersByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        log.debug("User '{}' subscribed to the live activity feed", userId);
+        return emitter;
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivityLogEvent(ActivityLogEvent event) {
+        Set<Subscriber> subscribers = subscribersByUser.get(event.userId());
+        if (subscribers == null) {
+            return;
+        }
+        ActivityFeedEvent feedEvent = new ActivityFeedEvent(event.type(), event.current());
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, feedEvent);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fitness.feed.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+            for (Subscriber subscriber : subscribers) {
+                offer(subscriber, HEARTBEAT);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fitness.feed.stall-check-interval-ms:1000}")
+    public void evictStalledSubscribers() {
+        long now = System.nanoTime();
+        long timeout = properties.sendTimeout().toNanos();
+        for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+            for (Subscriber subscriber : subscribers) {
+                // Locked so the interrupt cannot reach the dispatch thread once it has moved on to another subscriber
+                synchronized (subscriber) {
+                    Thread sender = subscriber.sender().get();
+                    if (sender != null && now - subscriber.sendStartedAt().get() > timeout) {
+                        drop(subscriber, "stalled");
+                        sender.interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByUser.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter().complete()));
+        dispatcher.shutdownNow();
+    }
+
+    private void offer(Subscriber subscriber, ActivityFeedEvent event) {
+        if (!subscriber.buffer().offer(event)) {
+            // A slow consumer must not hold memory for everyone else, it can reconnect and reload its list
+            drop(subscriber, "slow");
+            return;
+        }
+        if (subscriber.draining().compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            ActivityFeedEvent event;
+            while (!subscriber.removed().get() && (event = subscriber.buffer().poll()) != null) {
+                if (event == HEARTBEAT) {
+                    send(subscriber, SseEmitter.event().comment("heartbeat"));
+                } else {
+                    send(subscriber, SseEmitter.event()
+                            .name(event.type().name().toLowerCase())
+                            .data(event));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Live feed connection of user '{}' is gone", subscriber.userId());
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.draining().set(false);
+        }
+        if (subscriber.dropped().get()) {
+            // Completed on the dispatch pool, completing waits for a send in progress on the same connection
+            subscriber.emitter().complete();
+            return;
+        }
+        // An event may have been buffered after the last poll but before draining was released
+        if (!subscriber.buffer().isEmpty() && subscriber.draining().compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        synchronized (subscriber) {
+            subscriber.sendStartedAt().set(System.nanoTime());
+            subscriber.sender().set(Thread.currentThread());
+        }
+        try {
+            subscriber.emitter().send(event);
+        } finally {
+            synchronized (subscriber) {
+                subscriber.sender().set(null);
+                if (subscriber.dropped().get()) {
+                    // An interrupt meant for this send must not fail the next subscriber's
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (!subscriber.dropped().compareAndSet(false, true)) {
+            return;
+        }
+        log.warn("Dropping {} live feed subscriber of user '{}'", reason, subscriber.userId());
+        droppedCounter.increment();
+        remove(subscriber);
+        if (subscriber.draining().compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.removed().compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribersByUser.computeIfPresent(subscriber.userId(), (userId, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    // Overridden by tests to stand in for a connection
+    protected SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    private record Subscriber(Long userId,
+                              SseEmitter emitter,
+                              ArrayBlockingQueue<ActivityFeedEvent> buffer,
+                              AtomicBoolean draining,
+                              AtomicBoolean removed,
+                              AtomicBoolean dropped,
+                              // Dispatch thread of the send in progress, null between sends
+                              AtomicReference<Thread> sender,
+                              AtomicLong sendStartedAt) {
+
+        Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+            this(userId, emitter, new ArrayBlockingQueue<>(bufferSize), new AtomicBoolean(), new AtomicBoolean(),
+                    new AtomicBoolean(), new AtomicReference<>(), new AtomicLong());
+        }
+
+        // Identity semantics, two connections of the same user are different subscribers
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.configuration.ArchiveProperties;
+import com.fitness.tracker.dto.ActivityLogExportRow;
+import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.entity.ActivityLogArchiveSegment;
+import com.fitness.tracker.repository.ActivityLogArchiveSegmentRepository;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.service.ActivityLogArchiveService;
+import com.fitness.tracker.service.ActivityTypeService;
+import com.fitness.tracker.utils.ArchiveSegment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Each month of a user's old logs moves from activity_logs into one columnar segment file. The file is written
+// inside the transaction that indexes it and deletes the rows, so a log is always in the table or in an indexed
+// segment, a file left behind by a rolled back transaction is never indexed.
+@Service
+public class ActivityLogArchiveServiceImpl implements ActivityLogArchiveService {
+
+    private final Logger log = LoggerFactory.getLogger(ActivityLogArchiveServiceImpl.class);
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogArchiveSegmentRepository segmentRepository;
+    private final UserRepository userRepository;
+    private final ActivityTypeService activityTypeService;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public ActivityLogArchiveServiceImpl(ActivityLogRepository activityLogRepository,
+                                         ActivityLogArchiveSegmentRepository segmentRepository,
+                                         UserRepository userRepository,
+                                         ActivityTypeService activityTypeService,
+                                         ArchiveProperties properties,
+                                         PlatformTransactionManager transactionManager) {
+        this.activityLogRepository = activityLogRepository;
+        this.segmentRepository = segmentRepository;
+        this.userRepository = userRepository;
+        this.activityTypeService = activityTypeService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Scheduled(cron = "${fitness.archive.cron:0 0 2 * * *}")
+    public void archiveActivityLogs() {
+        if (!properties.enabled()) {
+            return;
+        }
+        // Only whole months, a segment never shares its month with rows still in the table
+        LocalDateTime before = YearMonth.from(LocalDateTime.now().minus(properties.olderThan())).atDay(1).atStartOfDay();
+        List<ActivityLogRepository.ArchiveCandidate> candidates =
+                activityLogRepository.findArchiveCandidates(before, PageRequest.of(0, properties.maxSegmentsPerRun()));
+
+        int archived = 0;
+        for (ActivityLogRepository.ArchiveCandidate candidate : candidates) {
+            YearMonth month = YearMonth.of(candidate.getCreatedYear(), candidate.getCreatedMonth());
+            try {
+                Integer rows = transactionTemplate.execute(status -> archive(candidate.getUserId(), month));
+                archived += rows == null ? 0 : rows;
+            } catch (RuntimeException e) {
+                log.error("Unable to archive activity logs of user '{}' for '{}'", candidate.getUserId(), month, e);
+            }
+        }
+        if (!candidates.isEmpty()) {
+            log.info("Archived '{}' activity logs into '{}' segments", archived, candidates.size());
+        }
+    }
+
+    @Override
+    public List<ActivityLogExportRow> exportActivityLogs(Long userId, LocalDate from, LocalDate to) {
+        if ((from == null) != (to == null)) {
+            throw new IllegalArgumentException("from and to must be given together");
+        }
+        if (from != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        LocalDateTime start = from == null ? null : from.atStartOfDay();
+        LocalDateTime end = to == null ? null : to.plusDays(1).atStartOfDay();
+
+        // The table is read before the index, a month archived in between then shows up in both and is
+        // deduplicated instead of missing from both
+        List<ActivityLog> hot = start == null
+                ? activityLogRepository.findByUserId(userId)
+                : activityLogRepository.findByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(userId, start, end);
+        List<ActivityLogArchiveSegment> segments = start == null
+                ? segmentRepository.findByUserIdOrderByFromDateAsc(userId)
+                : segmentRepository.findByUserIdAndFromDateLessThanAndToDateGreaterThanOrderByFromDateAsc(userId, end, start);
+
+        List<ActivityLogExportRow> rows = new ArrayList<>(hot.size());
+        Set<Long> ids = new HashSet<>();
+        for (ActivityLog activityLog : hot) {
+            ids.add(activityLog.getId());
+            rows.add(new ActivityLogExportRow(activityLog.getId(), activityLog.getCreatedDate(),
+                    activityLog.getActivityType(), activityLog.getCaloriesBurned(), activityLog.getDuration(),
+                    activityLog.getWorkoutPlan() != null ? activityLog.getWorkoutPlan().getId() : null, false));
+        }
+        for (ActivityLogArchiveSegment segment : segments) {
+            for (ArchiveSegment.Row row : readSegment(segment)) {
+                boolean inRange = start == null
+                        || (!row.createdDate().isBefore(start) && row.createdDate().isBefore(end));
+                if (inRange && ids.add(row.id())) {
+                    rows.add(new ActivityLogExportRow(row.id(), row.createdDate(),
+                            row.activityTypeCode() == 0 ? null : activityTypeService.getName(row.activityTypeCode()),
+                            row.caloriesBurned(), row.duration(), row.workoutPlanId() == 0 ? null : row.workoutPlanId(), true));
+                }
+            }
+        }
+        rows.sort(Comparator.comparing(ActivityLogExportRow::createdDate).thenComparing(ActivityLogExportRow::id));
+        return rows;
+    }
+
+    private int archive(Long userId, YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        List<ActivityLog> logs = activityLogRepository.findForArchive(userId, from, to);
+        if (logs.isEmpty()) {
+            return 0;
+        }
+
+        List<ArchiveSegment.Row> rows = new ArrayList<>(logs.size());
+        List<Long> ids = new ArrayList<>(logs.size());
+        long lastId = 0;
+        for (ActivityLog activityLog : logs) {
+            Short code = activityLog.getActivityType() == null ? null : activityTypeService.getCode(activityLog.getActivityType());
+            rows.add(new ArchiveSegment.Row(activityLog.getId(),
+                    activityLog.getWorkoutPlan() != null ? activityLog.getWorkoutPlan().getId() : 0,
+                    code == null ? 0 : code, activityLog.getCaloriesBurned(), activityLog.getDuration(),
+                    activityLog.getCreatedDate()));
+            ids.add(activityLog.getId());
+            lastId = Math.max(lastId, activityLog.getId());
+        }
+
+        // A later segment of the same month holds logs that came in after the first one was written
+        String fileName = "user-" + userId + "/" + month + "-" + lastId + ".seg";
+        try {
+            ArchiveSegment.write(properties.directory().resolve(fileName), rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write archive segment " + fileName, e);
+        }
+
+        ActivityLogArchiveSegment segment = new ActivityLogArchiveSegment();
+        segment.setUserId(userId);
+        segment.setFromDate(from);
+        segment.setToDate(to);
+        segment.setFileName(fileName);
+        segment.setRowCount(rows.size());
+        segmentRepository.save(segment);
+        for (int start = 0; start < ids.size(); start += DELETE_CHUNK_SIZE) {
+            activityLogRepository.deleteByIdIn(ids.subList(start, Math.min(start + DELETE_CHUNK_SIZE, ids.size())));
+        }
+        userRepository.incrementActivityLogsVersion(List.of(userId));
+        return rows.size();
+    }
+
+    private List<ArchiveSegment.Row> readSegment(ActivityLogArchiveSegment segment) {
+        try {
+            return ArchiveSegment.read(properties.directory().resolve(segment.getFileName()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read archive segment " + segment.getFileName(), e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.fitness.tracker.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.tracker.configuration.IngestionProperties;
+import com.fitness.tracker.dto.ActivityLogIngestion;
+import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.service.ActivityLogIngestionService;
+import com.fitness.tracker.service.ActivityLogService;
+import com.fitness.tracker.utils.SpillJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ActivityLogIngestionServiceImpl implements ActivityLogIngestionService {
+
+    private final Logger log = LoggerFactory.getLogger(ActivityLogIngestionServiceImpl.class);
+
+    private static final long RETRY_BACKOFF_MILLIS = 1000;
+
+    private final IngestionProperties properties;
+    private final ActivityLogService activityLogService;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<ActivityLogIngestion> queue;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter flushedCounter;
+    private final Counter deadLetteredCounter;
+    private final Timer flushTimer;
+
+    private SpillJournal journal;
+    private SpillJournal deadLetters;
+    private Thread writer;
+    private long sequence;
+    private volatile boolean running;
+
+    public ActivityLogIngestionServiceImpl(IngestionProperties properties,
+        ActivityLogService activityLogService,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.activityLogService = activityLogService;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.queueCapacity()));
+        this.acceptedCounter = meterRegistry.counter("activity_logs.ingestion.accepted");
+        this.rejectedCounter = meterRegistry.counter("activity_logs.ingestion.rejected");
+        this.flushedCounter = meterRegistry.counter("activity_logs.ingestion.flushed");
+        this.deadLetteredCounter = meterRegistry.counter("activity_logs.ingestion.dead_lettered");
+        this.flushTimer = meterRegistry.timer("activity_logs.ingestion.flush");
+        Gauge.builder("activity_logs.ingestion.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.enabled()) {
+            log.info("Asynchronous activity log ingestion is disabled");
+            return;
+        }
+        journal = new SpillJournal(properties.spillDirectory(), properties.syncOnAppend());
+        deadLetters = new SpillJournal(properties.deadLetterDirectory());
+        replaySpilledLogs();
+
+        running = true;
+        writer = new Thread(this::runWriter, "activity-log-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Asynchronous activity log ingestion started with queue capacity '{}'", properties.queueCapacity());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+        deadLetters.close();
+        log.info("Asynchronous activity log ingestion stopped with '{}' logs left in the queue", queue.size());
+    }
+
+    @Override
+    public void accept(Long userId, Long workoutPlanId, ActivityLog activityLog) {
+        if (!running) {
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Asynchronous ingestion is disabled");
+        }
+
+        // Journal and queue are appended under one lock so their order always matches
+        synchronized (this) {
+            if (queue.remainingCapacity() == 0) {
+                rejectedCounter.increment();
+                throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Ingestion queue is full, please retry later");
+            }
+            ActivityLogIngestion ingestion = new ActivityLogIngestion(++sequence, UUID.randomUUID().toString(),
+                userId, workoutPlanId, activityLog.getActivityType(), activityLog.getCaloriesBurned(), activityLog.getDuration(),
+                LocalDateTime.now());
+            journal.append(ingestion.sequence(), toJson(ingestion));
+            // Only this block adds to the queue, so the capacity checked above is still available
+            queue.add(ingestion);
+        }
+        acceptedCounter.increment();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<ActivityLogIngestion> batch = new ArrayList<>(properties.batchSize());
+        int failures = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    collectBatch(batch);
+                }
+                if (!batch.isEmpty()) {
+                    if (failures >= properties.maxAttempts()) {
+                        flushEachOrDeadLetter(batch);
+                    } else {
+                        flush(batch);
+                    }
+                    batch.clear();
+                    failures = 0;
+                }
+            } catch (InterruptedException e) {
+                // Shutdown requested, keep draining what is already queued
+                Thread.interrupted();
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    // The batch stays journaled and is retried, so a database outage does not lose accepted logs
+                    log.error("Unable to flush '{}' ingested activity logs, retrying", batch.size(), e);
+                } else {
+                    failures++;
+                    log.error("Flushing '{}' ingested activity logs failed, attempt '{}' of '{}'",
+                        batch.size(), failures, properties.maxAttempts(), e);
+                }
+                if (!running) {
+                    return;
+                }
+                sleepQuietly(RETRY_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void collectBatch(List<ActivityLogIngestion> batch) throws InterruptedException {
+        ActivityLogIngestion first = running
+            ? queue.poll(properties.flushInterval().toMillis(), TimeUnit.MILLISECONDS)
+            : queue.poll();
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + properties.flushInterval().toNanos();
+        while (batch.size() < properties.batchSize()) {
+            queue.drainTo(batch, properties.batchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.batchSize() || remaining <= 0 || !running) {
+                return;
+            }
+            ActivityLogIngestion next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<ActivityLogIngestion> batch) {
+        journal.rotate();
+        long start = System.nanoTime();
+        // The batch list is reused by the writer, the service gets a copy it may keep
+        int saved = activityLogService.createActivityLogs(List.copyOf(batch));
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        journal.release(batch.get(batch.size() - 1).sequence());
+        flushedCounter.increment(saved);
+        log.debug("Flushed '{}' of '{}' ingested activity logs", saved, batch.size());
+    }
+
+    // A batch failing for other reasons than the database is retried log by log, so one bad log does not hold back
+    // the others. Logs that fail on their own are dead lettered, the batch is then released from the spill journal.
+    // A transient failure stops the pass, the logs not yet flushed stay in the batch for the next attempt.
+    private void flushEachOrDeadLetter(List<ActivityLogIngestion> batch) {
+        journal.rotate();
+        long lastSequence = batch.get(batch.size() - 1).sequence();
+        Iterator<ActivityLogIngestion> pending = batch.iterator();
+        while (pending.hasNext()) {
+            ActivityLogIngestion ingestion = pending.next();
+            try {
+                flushedCounter.increment(activityLogService.createActivityLogs(List.of(ingestion)));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                deadLetters.append(ingestion.sequence(), toJson(ingestion));
+                deadLetteredCounter.increment();
+                log.error("Moved ingested activity log '{}' of user '{}' to the dead letter journal",
+                    ingestion.sequence(), ingestion.userId(), e);
+            }
+            pending.remove();
+        }
+        // Synced before the spill journal lets go of the logs
+        deadLetters.rotate();
+        journal.release(lastSequence);
+    }
+
+    private void replaySpilledLogs() {
+        List<String> lines = journal.recover();
+        if (lines.isEmpty()) {
+            return;
+        }
+        log.warn("Replaying '{}' activity logs spilled before the last shutdown", lines.size());
+        List<ActivityLogIngestion> batch = new ArrayList<>(properties.batchSize());
+        for (String line : lines) {
+            batch.add(fromJson(line));
+            if (batch.size() == properties.batchSize()) {
+                replay(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            replay(batch);
+        }
+        journal.clear();
+    }
+
+    // The database being unreachable fails the startup, anything else would fail the same way on every start
+    private void replay(List<ActivityLogIngestion> batch) {
+        try {
+            activityLogService.createActivityLogs(List.copyOf(batch));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            log.warn("Replaying '{}' spilled activity logs failed, retrying them one at a time", batch.size(), e);
+            flushEachOrDeadLetter(batch);
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+            || e instanceof RecoverableDataAccessException
+            || e instanceof DataAccessResourceFailureException
+            || e instanceof CannotCreateTransactionException;
+    }
+
+    private String toJson(ActivityLogIngestion ingestion) {
+        try {
+            return objectMapper.writeValueAsString(ingestion);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize activity log ingestion", e);
+        }
+    }
+
+    private ActivityLogIngestion fromJson(String line) {
+        try {
+            return objectMapper.readValue(line, ActivityLogIngestion.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read spilled activity log ingestion", e);
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.configuration.PartitioningProperties;
+import com.fitness.tracker.dto.ActivityLogPartition;
+import com.fitness.tracker.repository.ActivityLogPartitionManager;
+import com.fitness.tracker.service.ActivityLogPartitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Keeps a partition for the current month and the next monthsAhead months, so inserts never land in the default
+// partition, and detaches months older than the retention. A month that fails is logged and retried on the next run.
+@Service
+public class ActivityLogPartitionServiceImpl implements ActivityLogPartitionService {
+
+    private final Logger log = LoggerFactory.getLogger(ActivityLogPartitionServiceImpl.class);
+
+    private final ActivityLogPartitionManager partitionManager;
+    private final PartitioningProperties properties;
+
+    public ActivityLogPartitionServiceImpl(ActivityLogPartitionManager partitionManager,
+                                           PartitioningProperties properties) {
+        this.partitionManager = partitionManager;
+        this.properties = properties;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${fitness.partitioning.cron:0 30 0 * * *}")
+    public synchronized void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        List<ActivityLogPartition> partitions = partitionManager.findPartitions();
+        Set<YearMonth> attached = partitions.stream()
+                .filter(ActivityLogPartition::attached)
+                .map(ActivityLogPartition::month)
+                .collect(Collectors.toSet());
+
+        for (int ahead = 0; ahead <= properties.monthsAhead(); ahead++) {
+            YearMonth month = current.plusMonths(ahead);
+            if (!attached.contains(month)) {
+                try {
+                    partitionManager.createPartition(month);
+                } catch (DataAccessException e) {
+                    log.error("Unable to create activity log partition for '{}'", month, e);
+                }
+            }
+        }
+
+        if (properties.retentionMonths() > 0) {
+            YearMonth oldestRetained = current.minusMonths(properties.retentionMonths());
+            List<YearMonth> expired = attached.stream().filter(month -> month.isBefore(oldestRetained)).sorted().toList();
+            for (YearMonth month : expired) {
+                try {
+                    partitionManager.detachPartition(month);
+                } catch (DataAccessException e) {
+                    log.error("Unable to detach activity log partition for '{}'", month, e);
+                }
+            }
+        }
+    }
+}
@@ -1,56 +1,187 @@
 package com.fitness.tracker.service.impl;
 
+import com.fitness.tracker.dto.ActivityLogIngestion;
+import com.fitness.tracker.dto.response.ActivityLogResponse;
 import com.fitness.tracker.entity.ActivityLog;
 import com.fitness.tracker.entity.User;
 import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.ActivityLogField;
+import com.fitness.tracker.event.ActivityLogEvent;
 import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.mapper.ActivityLogMapper;
 import com.fitness.tracker.repository.ActivityLogRepository;
 import com.fitness.tracker.repository.UserRepository;
 import com.fitness.tracker.repository.WorkoutPlanRepository;
 import com.fitness.tracker.service.ActivityLogService;
+import com.fitness.tracker.service.ActivityTypeService;
+import com.fitness.tracker.utils.IdempotencyStore;
+import com.fitness.tracker.utils.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ActivityLogServiceImpl implements ActivityLogService {
 
     private final Logger log = LoggerFactory.getLogger(ActivityLogServiceImpl.class);
 
+    private static final int MAX_BATCH_SIZE = 200;
+
     private final ActivityLogRepository activityLogRepository;
     private final UserRepository userRepository;
     private final WorkoutPlanRepository workoutPlanRepository;
+    private final ActivityTypeService activityTypeService;
+    private final IdempotencyStore idempotencyStore;
+    private final SingleFlight singleFlight;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
     public ActivityLogServiceImpl(ActivityLogRepository activityLogRepository,
         UserRepository userRepository,
-        WorkoutPlanRepository workoutPlanRepository) {
+        WorkoutPlanRepository workoutPlanRepository,
+        ActivityTypeService activityTypeService,
+        IdempotencyStore idempotencyStore,
+        SingleFlight singleFlight,
+        ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager) {
         this.activityLogRepository = activityLogRepository;
         this.userRepository = userRepository;
         this.workoutPlanRepository = workoutPlanRepository;
+        this.activityTypeService = activityTypeService;
+        this.idempotencyStore = idempotencyStore;
+        this.singleFlight = singleFlight;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     @Override
+    @Transactional
     public ActivityLog createActivityLog(Long userId, Long workoutPlanId, ActivityLog activityLog) {
         log.debug("Creating activity log for user '{}' and workout plan '{}'", userId, workoutPlanId);
 
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "User not found"));
 
-        WorkoutPlan workoutPlan = workoutPlanRepository.findById(workoutPlanId)
+        WorkoutPlan workoutPlan = workoutPlanRepository.findShallowById(workoutPlanId)
             .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "Workout plan not found"));
 
+        activityLog.setActivityType(activityTypeService.normalize(activityLog.getActivityType()));
         activityLog.setUser(user);
         activityLog.setWorkoutPlan(workoutPlan);
 
         ActivityLog saved = activityLogRepository.save(activityLog);
+        userRepository.incrementActivityLogsVersion(Set.of(userId));
+        eventPublisher.publishEvent(ActivityLogEvent.created(ActivityLogMapper.toResponse(saved)));
         log.info("Activity log '{}' created successfully for user '{}'", saved.getId(), userId);
         return saved;
     }
 
+    // Deliberately not transactional: requests waiting on a key must not hold a connection. The insert gets its
+    // own transaction through the template because calling createActivityLog directly bypasses the proxy.
+    @Override
+    public ActivityLog createActivityLog(Long userId, Long workoutPlanId, ActivityLog activityLog, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return transactionTemplate.execute(status -> createActivityLog(userId, workoutPlanId, activityLog));
+        }
+        if (idempotencyKey.length() > 255) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Idempotency key must be at most 255 characters");
+        }
+
+        // Keys are scoped per user, the fingerprint rejects a reused key carrying a different payload
+        String fingerprint = workoutPlanId + "|" + activityLog.getActivityType() + "|"
+            + activityLog.getCaloriesBurned() + "|" + activityLog.getDuration();
+        return idempotencyStore.execute("activity-log:" + userId + ":" + idempotencyKey, fingerprint,
+            () -> transactionTemplate.execute(status -> createActivityLog(userId, workoutPlanId, activityLog)));
+    }
+
     @Override
+    @Transactional
+    public int createActivityLogs(List<ActivityLogIngestion> ingestions) {
+        log.debug("Creating '{}' activity logs in batch", ingestions.size());
+
+        Set<Long> userIds = ingestions.stream().map(ActivityLogIngestion::userId).collect(Collectors.toSet());
+        Set<Long> workoutPlanIds = ingestions.stream().map(ActivityLogIngestion::workoutPlanId).collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, WorkoutPlan> workoutPlans = workoutPlanRepository.findAllById(workoutPlanIds).stream()
+            .collect(Collectors.toMap(WorkoutPlan::getId, Function.identity()));
+
+        Set<String> storedKeys = findStoredIngestionKeys(ingestions);
+
+        List<ActivityLog> activityLogs = new ArrayList<>(ingestions.size());
+        for (ActivityLogIngestion ingestion : ingestions) {
+            if (storedKeys.contains(ingestion.ingestionKey())) {
+                // Committed before the spill journal let go of it, replayed after a crash or a lost commit reply
+                log.debug("Skipping ingested activity log '{}' that is already stored", ingestion.ingestionKey());
+                continue;
+            }
+            User user = users.get(ingestion.userId());
+            WorkoutPlan workoutPlan = workoutPlans.get(ingestion.workoutPlanId());
+            if (user == null || workoutPlan == null) {
+                // Ingestion was acknowledged without lookups, so unknown references are dropped here
+                log.warn("Dropping ingested activity log for unknown user '{}' or workout plan '{}'",
+                    ingestion.userId(), ingestion.workoutPlanId());
+                continue;
+            }
+            ActivityLog activityLog = new ActivityLog();
+            activityLog.setActivityType(activityTypeService.normalize(ingestion.activityType()));
+            activityLog.setCaloriesBurned(ingestion.caloriesBurned());
+            activityLog.setDuration(ingestion.duration());
+            activityLog.setCreatedDate(ingestion.createdDate());
+            activityLog.setIngestionKey(ingestion.ingestionKey());
+            activityLog.setUser(user);
+            activityLog.setWorkoutPlan(workoutPlan);
+            activityLogs.add(activityLog);
+        }
+
+        List<ActivityLog> savedLogs = activityLogRepository.saveAll(activityLogs);
+        if (!savedLogs.isEmpty()) {
+            userRepository.incrementActivityLogsVersion(savedLogs.stream()
+                .map(saved -> saved.getUser().getId())
+                .collect(Collectors.toSet()));
+        }
+        for (ActivityLog saved : savedLogs) {
+            eventPublisher.publishEvent(ActivityLogEvent.created(ActivityLogMapper.toResponse(saved)));
+        }
+        log.info("'{}' activity logs created in batch", activityLogs.size());
+        return activityLogs.size();
+    }
+
+    private Set<String> findStoredIngestionKeys(List<ActivityLogIngestion> ingestions) {
+        List<ActivityLogIngestion> keyed = ingestions.stream().filter(ingestion -> ingestion.ingestionKey() != null).toList();
+        if (keyed.isEmpty()) {
+            return Set.of();
+        }
+        LocalDateTime from = keyed.stream().map(ActivityLogIngestion::createdDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = keyed.stream().map(ActivityLogIngestion::createdDate).max(Comparator.naturalOrder()).orElseThrow();
+        return activityLogRepository.findIngestionKeys(keyed.stream().map(ActivityLogIngestion::ingestionKey).toList(),
+            from, to);
+    }
+
+    @Override
+    @Transactional
     public ActivityLog updateActivityLog(Long id, Long userId, Long workoutPlanId, ActivityLog activityLog) {
         log.debug("Updating activity log '{}'", id);
 
@@ -61,22 +192,26 @@ public class ActivityLogServiceImpl implements ActivityLogService {
             throw new CustomException(HttpStatus.FORBIDDEN, "Activity log does not belong to this user");
         }
 
-        existing.setActivityType(activityLog.getActivityType());
+        ActivityLogResponse before = ActivityLogMapper.toResponse(existing);
+        existing.setActivityType(activityTypeService.normalize(activityLog.getActivityType()));
         existing.setCaloriesBurned(activityLog.getCaloriesBurned());
         existing.setDuration(activityLog.getDuration());
 
         if (workoutPlanId != null) {
-            WorkoutPlan workoutPlan = workoutPlanRepository.findById(workoutPlanId)
+            WorkoutPlan workoutPlan = workoutPlanRepository.findShallowById(workoutPlanId)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "Workout plan not found"));
             existing.setWorkoutPlan(workoutPlan);
         }
 
         ActivityLog updated = activityLogRepository.save(existing);
+        userRepository.incrementActivityLogsVersion(Set.of(userId));
+        eventPublisher.publishEvent(ActivityLogEvent.updated(before, ActivityLogMapper.toResponse(updated)));
         log.info("Activity log '{}' updated successfully", updated.getId());
         return updated;
     }
 
     @Override
+    @Transactional
     public void deleteActivityLog(Long id, Long userId) {
         log.debug("Deleting activity log '{}' for user '{}'", id, userId);
 
@@ -88,10 +223,19 @@ public class ActivityLogServiceImpl implements ActivityLogService {
         }
 
         activityLogRepository.delete(existing);
+        userRepository.incrementActivityLogsVersion(Set.of(userId));
+        eventPublisher.publishEvent(ActivityLogEvent.deleted(ActivityLogMapper.toResponse(existing)));
         log.info("Activity log '{}' deleted successfully", id);
     }
 
+    // Reads starting after the commit must not join one that started before it
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivityLogEvent(ActivityLogEvent event) {
+        singleFlight.forget(event.userId());
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public ActivityLog getActivityLog(Long id, Long userId) {
         log.debug("Fetching activity log '{}' for user '{}'", id, userId);
 
@@ -105,15 +249,86 @@ public class ActivityLogServiceImpl implements ActivityLogService {
         return existing;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ActivityLog> getActivityLogs(List<Long> ids, Long userId) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("ids must contain between 1 and " + MAX_BATCH_SIZE + " ids");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain blanks");
+        }
+        log.debug("Fetching '{}' activity logs for user '{}'", ids.size(), userId);
+
+        // Logs of other users are left out like missing ones, a batch does not tell which ids exist
+        return activityLogRepository.findByUserIdAndIdIn(userId, Set.copyOf(ids)).stream()
+            .collect(Collectors.toMap(ActivityLog::getId, Function.identity()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getActivityLogsETag(Long userId) {
+        // An unknown user has a stable empty list, matching getAllActivityLogsByUser
+        return userRepository.findVersionsById(userId)
+            .map(versions -> "al-" + userId + "-" + versions.getVersion() + "-" + versions.getActivityLogsVersion())
+            .orElse("al-" + userId + "-0-0");
+    }
+
+    // Deliberately not transactional, like the idempotent create: callers waiting on an identical read in flight
+    // must not hold a connection. Only the call that runs the query opens a read-only transaction. Reads are keyed
+    // by the version the ETag is built from, so data is never older than the ETag sent with it.
     @Override
     public List<ActivityLog> getAllActivityLogsByUser(Long userId) {
         log.debug("Fetching all activity logs for user '{}'", userId);
-        return activityLogRepository.findByUserId(userId);
+        String version = readOnlyTransactionTemplate.execute(status -> getActivityLogsETag(userId));
+        return singleFlight.execute("activity-logs", userId, version, () -> readOnlyTransactionTemplate.execute(
+            status -> activityLogRepository.findByUserId(userId)));
     }
 
     @Override
+    public List<ActivityLog> getActivityLogsByUser(Long userId, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return getAllActivityLogsByUser(userId);
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to must be given together");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        log.debug("Fetching activity logs for user '{}' from '{}' to '{}'", userId, from, to);
+        String version = readOnlyTransactionTemplate.execute(status -> getActivityLogsETag(userId));
+        return singleFlight.execute("activity-logs-range", userId, List.of(from, to, version),
+            () -> readOnlyTransactionTemplate.execute(status ->
+                activityLogRepository.findByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(
+                    userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ActivityLog> getRecentActivityLogs(Long userId, int limit) {
+        log.debug("Fetching the '{}' most recent activity logs for user '{}'", limit, userId);
+        return activityLogRepository.findByUserIdOrderByCreatedDateDescIdDesc(userId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ActivityLog> getAllActivityLogsByWorkoutPlan(Long workoutPlanId) {
         log.debug("Fetching all activity logs for workout plan '{}'", workoutPlanId);
         return activityLogRepository.findByWorkoutPlanId(workoutPlanId);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getActivityLogFieldsByUser(Long userId, Set<ActivityLogField> fields) {
+        log.debug("Fetching fields '{}' of all activity logs for user '{}'", fields, userId);
+        return activityLogRepository.findFieldsByUserId(userId, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getActivityLogFieldsByWorkoutPlan(Long workoutPlanId, Set<ActivityLogField> fields) {
+        log.debug("Fetching fields '{}' of all activity logs for workout plan '{}'", fields, workoutPlanId);
+        return activityLogRepository.findFieldsByWorkoutPlanId(workoutPlanId, fields);
+    }
 }
@@ -0,0 +1,225 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.configuration.ActivityTypeProperties;
+import com.fitness.tracker.dto.response.ActivityTypeResponse;
+import com.fitness.tracker.entity.ActivityType;
+import com.fitness.tracker.entity.ActivityTypeAlias;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityTypeAliasRepository;
+import com.fitness.tracker.repository.ActivityTypeRepository;
+import com.fitness.tracker.service.ActivityTypeService;
+import com.fitness.tracker.utils.ActivityTypeDictionary;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Activity logs store a small code per type, the dictionary is read once and served from an immutable snapshot.
+// Unknown types are registered on first use in their own transaction, so a type never disappears with a rolled
+// back log and every node agrees on its code. Registration is capped, as any user can log a new type.
+@Service
+public class ActivityTypeServiceImpl implements ActivityTypeService {
+
+    private final Logger log = LoggerFactory.getLogger(ActivityTypeServiceImpl.class);
+
+    private static final int MAX_NAME_LENGTH = 50;
+
+    // Seeded into an empty dictionary with common synonyms
+    private static final Map<String, List<String>> DEFAULT_TYPES = defaultTypes();
+
+    private final ActivityTypeRepository activityTypeRepository;
+    private final ActivityTypeAliasRepository activityTypeAliasRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Codes are smallints
+    private final int maxTypes;
+
+    private volatile ActivityTypeDictionary dictionary = ActivityTypeDictionary.EMPTY;
+
+    public ActivityTypeServiceImpl(ActivityTypeRepository activityTypeRepository,
+                                   ActivityTypeAliasRepository activityTypeAliasRepository,
+                                   ActivityTypeProperties properties,
+                                   PlatformTransactionManager transactionManager) {
+        this.activityTypeRepository = activityTypeRepository;
+        this.activityTypeAliasRepository = activityTypeAliasRepository;
+        this.maxTypes = Math.min(properties.maxTypes(), Short.MAX_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (activityTypeRepository.count() == 0) {
+                seed();
+            }
+        });
+        dictionary = read();
+        log.info("Loaded '{}' activity types", dictionary.names().size());
+    }
+
+    @Override
+    public String normalize(String activityType) {
+        if (activityType == null) {
+            return null;
+        }
+        // Resolved before the snapshot is read, registering a new type replaces it
+        Short code = getCode(activityType);
+        return getName(code);
+    }
+
+    @Override
+    public Short getCode(String activityType) {
+        Short code = dictionary.code(activityType);
+        return code != null ? code : register(activityType);
+    }
+
+    @Override
+    public String findName(String activityType) {
+        // Served from the snapshot only, a type registered by another node resolves after the next read
+        ActivityTypeDictionary current = dictionary;
+        Short code = activityType == null ? null : current.code(activityType);
+        return code == null ? null : current.name(code);
+    }
+
+    @Override
+    public String getName(Short code) {
+        String name = dictionary.name(code);
+        if (name == null) {
+            // Registered by another node since the last read
+            name = reload().name(code);
+            if (name == null) {
+                throw new IllegalStateException("Unknown activity type code " + code);
+            }
+        }
+        return name;
+    }
+
+    @Override
+    public List<ActivityTypeResponse> getActivityTypes() {
+        ActivityTypeDictionary current = dictionary;
+        return current.names().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new ActivityTypeResponse(entry.getKey(), entry.getValue(), current.aliases(entry.getKey())))
+                .toList();
+    }
+
+    @Override
+    public synchronized ActivityTypeResponse addAlias(Short code, String alias) {
+        ActivityTypeDictionary current = reload();
+        String name = current.name(code);
+        if (name == null) {
+            throw new CustomException(HttpStatus.NOT_FOUND, "Activity type not found");
+        }
+        Short existing = current.code(alias);
+        if (existing != null && !existing.equals(code)) {
+            throw new CustomException(HttpStatus.CONFLICT, "'" + alias.trim() + "' already refers to activity type '"
+                    + current.name(existing) + "'");
+        }
+
+        if (existing == null) {
+            ActivityTypeAlias entity = new ActivityTypeAlias();
+            entity.setAlias(ActivityTypeDictionary.key(alias));
+            entity.setCode(code);
+            transactionTemplate.executeWithoutResult(status -> activityTypeAliasRepository.save(entity));
+            dictionary = current.withAlias(code, alias);
+            log.info("Alias '{}' added to activity type '{}'", entity.getAlias(), name);
+        }
+        return new ActivityTypeResponse(code, name, dictionary.aliases(code));
+    }
+
+    private synchronized Short register(String activityType) {
+        Short code = dictionary.code(activityType);
+        if (code != null) {
+            // Registered by another request while this one waited
+            return code;
+        }
+
+        String name = activityType.trim().replaceAll("\\s+", " ");
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Activity type must be between 1 and " + MAX_NAME_LENGTH + " characters");
+        }
+        String nameKey = ActivityTypeDictionary.key(name);
+        ActivityType type;
+        try {
+            type = transactionTemplate.execute(status -> {
+                // Another node may have registered it, only that row is read rather than the whole dictionary
+                ActivityType existing = activityTypeRepository.findByNameKey(nameKey).orElse(null);
+                if (existing != null) {
+                    return existing;
+                }
+                if (activityTypeRepository.count() >= maxTypes) {
+                    throw new IllegalArgumentException("No more activity types can be added, log one of the existing types");
+                }
+                ActivityType created = new ActivityType();
+                created.setName(name);
+                created.setNameKey(nameKey);
+                return activityTypeRepository.save(created);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with another node
+            type = transactionTemplate.execute(status -> activityTypeRepository.findByNameKey(nameKey).orElse(null));
+            if (type == null) {
+                throw e;
+            }
+        }
+        dictionary = dictionary.withType(type.getCode(), type.getName());
+        log.info("Activity type '{}' registered with code '{}'", type.getName(), type.getCode());
+        return type.getCode();
+    }
+
+    private synchronized ActivityTypeDictionary reload() {
+        dictionary = read();
+        return dictionary;
+    }
+
+    private ActivityTypeDictionary read() {
+        return transactionTemplate.execute(status -> {
+            ActivityTypeDictionary read = ActivityTypeDictionary.EMPTY;
+            for (ActivityType type : activityTypeRepository.findAll()) {
+                read = read.withType(type.getCode(), type.getName());
+            }
+            for (ActivityTypeAlias alias : activityTypeAliasRepository.findAll()) {
+                read = read.withAlias(alias.getCode(), alias.getAlias());
+            }
+            return read;
+        });
+    }
+
+    private void seed() {
+        DEFAULT_TYPES.forEach((name, aliases) -> {
+            ActivityType type = new ActivityType();
+            type.setName(name);
+            type.setNameKey(ActivityTypeDictionary.key(name));
+            activityTypeRepository.save(type);
+            for (String alias : aliases) {
+                ActivityTypeAlias entity = new ActivityTypeAlias();
+                entity.setAlias(alias);
+                entity.setCode(type.getCode());
+                activityTypeAliasRepository.save(entity);
+            }
+        });
+        log.info("Seeded '{}' activity types", DEFAULT_TYPES.size());
+    }
+
+    private static Map<String, List<String>> defaultTypes() {
+        Map<String, List<String>> types = new LinkedHashMap<>();
+        types.put("Running", List.of("run", "jog", "jogging"));
+        types.put("Walking", List.of("walk"));
+        types.put("Cycling", List.of("cycle", "bike", "biking", "bicycling"));
+        types.put("Swimming", List.of("swim"));
+        types.put("Strength Training", List.of("weights", "weight training", "weightlifting", "lifting"));
+        types.put("Yoga", List.of());
+        types.put("HIIT", List.of("interval training"));
+        types.put("Rowing", List.of("row"));
+        return types;
+    }
+}
@@ -0,0 +1,239 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.dto.response.PageResponse;
+import com.fitness.tracker.dto.response.UserAdherenceResponse;
+import com.fitness.tracker.dto.response.WorkoutPlanAdherenceResponse;
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.entity.WorkoutPlanAdherence;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.repository.WorkoutPlanAdherenceRepository;
+import com.fitness.tracker.repository.WorkoutPlanRepository;
+import com.fitness.tracker.service.AdherenceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Sessions and logged minutes per workout plan, kept alongside every activity log mutation so adherence never
+// needs the plan's activity logs loaded. The ratio itself is computed at read time against the plan's current
+// duration, so editing a plan re-rates its past sessions.
+@Service
+public class AdherenceServiceImpl implements AdherenceService {
+
+    private final Logger log = LoggerFactory.getLogger(AdherenceServiceImpl.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+
+    private final WorkoutPlanAdherenceRepository adherenceRepository;
+    private final ActivityLogRepository activityLogRepository;
+    private final WorkoutPlanRepository workoutPlanRepository;
+    private final UserRepository userRepository;
+
+    public AdherenceServiceImpl(WorkoutPlanAdherenceRepository adherenceRepository,
+                                ActivityLogRepository activityLogRepository,
+                                WorkoutPlanRepository workoutPlanRepository,
+                                UserRepository userRepository) {
+        this.adherenceRepository = adherenceRepository;
+        this.activityLogRepository = activityLogRepository;
+        this.workoutPlanRepository = workoutPlanRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Runs in the mutating transaction, the plan's row lock orders concurrent sessions of the same plan
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onActivityLogEvent(ActivityLogEvent event) {
+        ActivityLogResponse before = event.before();
+        ActivityLogResponse after = event.after();
+        if (before != null && after != null && Objects.equals(before.workoutPlanId(), after.workoutPlanId())) {
+            if (before.duration() != after.duration()) {
+                WorkoutPlanAdherence adherence = lockAdherence(after.workoutPlanId());
+                if (adherence != null) {
+                    adherence.setTotalDuration(adherence.getTotalDuration() - before.duration() + after.duration());
+                    adherenceRepository.save(adherence);
+                }
+            }
+            return;
+        }
+        if (before != null) {
+            removeSession(before);
+        }
+        if (after != null) {
+            addSession(after);
+        }
+    }
+
+    // Plans created before adherence was tracked get their row from their existing activity logs
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        List<WorkoutPlanAdherenceRepository.MissingPlan> missing = adherenceRepository.findPlansWithoutAdherence();
+        int backfilled = 0;
+        for (int from = 0; from < missing.size(); from += BACKFILL_CHUNK_SIZE) {
+            List<WorkoutPlanAdherenceRepository.MissingPlan> chunk =
+                    missing.subList(from, Math.min(from + BACKFILL_CHUNK_SIZE, missing.size()));
+            List<Long> ids = chunk.stream().map(WorkoutPlanAdherenceRepository.MissingPlan::getWorkoutPlanId).toList();
+            // Locked as lockAdherence does, sessions logged since the plans were listed may have created some rows
+            workoutPlanRepository.findForUpdate(ids);
+            Set<Long> created = adherenceRepository.findAllById(ids).stream()
+                    .map(WorkoutPlanAdherence::getWorkoutPlanId)
+                    .collect(Collectors.toSet());
+            Map<Long, ActivityLogRepository.WorkoutPlanTotals> totals = activityLogRepository.sumByWorkoutPlanIds(ids)
+                    .stream()
+                    .collect(Collectors.toMap(ActivityLogRepository.WorkoutPlanTotals::getWorkoutPlanId, Function.identity()));
+            List<WorkoutPlanAdherence> rows = new ArrayList<>(chunk.size());
+            for (WorkoutPlanAdherenceRepository.MissingPlan plan : chunk) {
+                if (!created.contains(plan.getWorkoutPlanId())) {
+                    rows.add(toAdherence(plan.getWorkoutPlanId(), plan.getUserId(), totals.get(plan.getWorkoutPlanId())));
+                }
+            }
+            adherenceRepository.saveAll(rows);
+            backfilled += rows.size();
+        }
+        if (backfilled > 0) {
+            log.info("Backfilled adherence of '{}' workout plans", backfilled);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WorkoutPlanAdherenceResponse getWorkoutPlanAdherence(Long workoutPlanId, Long userId) {
+        WorkoutPlanAdherenceRepository.PlanAdherence adherence = adherenceRepository.findPlanAdherence(workoutPlanId)
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "Workout plan not found"));
+
+        if (!adherence.getUserId().equals(userId)) {
+            throw new CustomException(HttpStatus.FORBIDDEN, "Not authorized to view this workout plan");
+        }
+
+        return toResponse(adherence);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserAdherenceResponse getUserAdherence(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new CustomException(HttpStatus.NOT_FOUND, "User not found");
+        }
+
+        WorkoutPlanAdherenceRepository.UserAdherence totals = adherenceRepository.sumByUserId(userId);
+        Double adherence = totals.getSessions() == 0 || totals.getPlannedDuration() == 0
+                ? null : ratio(totals.getTotalDuration(), totals.getPlannedDuration());
+        return new UserAdherenceResponse(userId, totals.getPlans(), totals.getSessions(), totals.getTotalDuration(),
+                totals.getPlannedDuration(), adherence);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<WorkoutPlanAdherenceResponse> getRankedWorkoutPlans(Long userId, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Page<WorkoutPlanAdherenceRepository.PlanAdherence> ranked =
+                adherenceRepository.findRankedByAdherence(userId, PageRequest.of(page, size));
+        return new PageResponse<>(ranked.map(this::toResponse).getContent(), page, size, ranked.hasNext(),
+                ranked.getTotalElements());
+    }
+
+    private void addSession(ActivityLogResponse activityLog) {
+        WorkoutPlanAdherence adherence = lockAdherence(activityLog.workoutPlanId());
+        if (adherence == null) {
+            return;
+        }
+        adherence.setSessions(adherence.getSessions() + 1);
+        adherence.setTotalDuration(adherence.getTotalDuration() + activityLog.duration());
+        if (adherence.getLastSessionDate() == null || activityLog.createdDate().isAfter(adherence.getLastSessionDate())) {
+            adherence.setLastSessionDate(activityLog.createdDate());
+        }
+        adherenceRepository.save(adherence);
+    }
+
+    private void removeSession(ActivityLogResponse activityLog) {
+        WorkoutPlanAdherence adherence = lockAdherence(activityLog.workoutPlanId());
+        if (adherence == null) {
+            return;
+        }
+        adherence.setSessions(adherence.getSessions() - 1);
+        adherence.setTotalDuration(adherence.getTotalDuration() - activityLog.duration());
+        // Only removing the latest session moves the last session date, the query sees the flushed removal
+        if (adherence.getLastSessionDate() == null || !activityLog.createdDate().isBefore(adherence.getLastSessionDate())) {
+            adherence.setLastSessionDate(activityLogRepository.findLastCreatedDateByWorkoutPlanId(adherence.getWorkoutPlanId()));
+        }
+        adherenceRepository.save(adherence);
+    }
+
+    // Null when there is no delta to apply: either the plan is gone, its row being deleted with it before the
+    // cascaded log deletes are published, or the row was just rebuilt from totals that include the change
+    private WorkoutPlanAdherence lockAdherence(Long workoutPlanId) {
+        WorkoutPlanAdherence adherence = adherenceRepository.findForUpdate(workoutPlanId).orElse(null);
+        if (adherence != null) {
+            return adherence;
+        }
+        // Not backfilled yet. A missing row has nothing to lock, so the plan's row is locked instead and a
+        // concurrent session of the plan waits here for the row rather than inserting it a second time
+        List<WorkoutPlan> plans = workoutPlanRepository.findForUpdate(List.of(workoutPlanId));
+        if (plans.isEmpty()) {
+            return null;
+        }
+        adherence = adherenceRepository.findForUpdate(workoutPlanId).orElse(null);
+        if (adherence != null) {
+            // Created by the session that held the lock, its totals did not include this change
+            return adherence;
+        }
+        List<ActivityLogRepository.WorkoutPlanTotals> totals =
+                activityLogRepository.sumByWorkoutPlanIds(List.of(workoutPlanId));
+        adherenceRepository.save(toAdherence(workoutPlanId, plans.get(0).getUser().getId(),
+                totals.isEmpty() ? null : totals.get(0)));
+        log.debug("Rebuilt adherence of workout plan '{}'", workoutPlanId);
+        return null;
+    }
+
+    private static WorkoutPlanAdherence toAdherence(Long workoutPlanId, Long userId,
+                                                    ActivityLogRepository.WorkoutPlanTotals totals) {
+        WorkoutPlanAdherence adherence = new WorkoutPlanAdherence();
+        adherence.setWorkoutPlanId(workoutPlanId);
+        adherence.setUserId(userId);
+        if (totals != null) {
+            adherence.setSessions(totals.getSessions());
+            adherence.setTotalDuration(totals.getTotalDuration());
+            adherence.setLastSessionDate(totals.getLastSessionDate());
+        }
+        return adherence;
+    }
+
+    private WorkoutPlanAdherenceResponse toResponse(WorkoutPlanAdherenceRepository.PlanAdherence adherence) {
+        long sessions = adherence.getSessions();
+        double averageDuration = sessions == 0 ? 0 : Math.round(adherence.getTotalDuration() * 10.0 / sessions) / 10.0;
+        Double ratio = sessions == 0 || adherence.getPlannedDuration() == 0
+                ? null : ratio(adherence.getTotalDuration(), sessions * adherence.getPlannedDuration());
+        return new WorkoutPlanAdherenceResponse(adherence.getWorkoutPlanId(), adherence.getUserId(), adherence.getTitle(),
+                adherence.getPlannedDuration(), sessions, adherence.getTotalDuration(), averageDuration, ratio,
+                adherence.getLastSessionDate());
+    }
+
+    private static double ratio(long actual, long planned) {
+        return Math.round(actual * 1000.0 / planned) / 1000.0;
+    }
+}
@@ -0,0 +1,196 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.configuration.AnalyticsProperties;
+import com.fitness.tracker.dto.response.ActivityTypeStatsResponse;
+import com.fitness.tracker.dto.response.AnalyticsSummaryResponse;
+import com.fitness.tracker.dto.response.DailyStatsResponse;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.service.AnalyticsService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Fleet-wide reports are split into partitions aggregated by the database in parallel. Summaries split by user id
+// range, since distinct active users only add up across disjoint sets of users; daily stats split by time, since
+// each day is reported on its own. The pool is small and bounded so reports never take more connections than it
+// has threads, and every partition runs in a read-only transaction whose timeout cancels its queries.
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private final Logger log = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    private record Totals(long sessions, long activeUsers, long caloriesBurned, long duration) {
+
+        Totals plus(Totals other) {
+            return new Totals(sessions + other.sessions, activeUsers + other.activeUsers,
+                    caloriesBurned + other.caloriesBurned, duration + other.duration);
+        }
+    }
+
+    private record UserPartition(long activeUsers, List<ActivityLogRepository.ActivityTypeTotals> activityTypes) {}
+
+    private final ActivityLogRepository activityLogRepository;
+    private final UserRepository userRepository;
+    private final AnalyticsProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public AnalyticsServiceImpl(ActivityLogRepository activityLogRepository,
+                                UserRepository userRepository,
+                                AnalyticsProperties properties,
+                                PlatformTransactionManager transactionManager) {
+        this.activityLogRepository = activityLogRepository;
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) Math.max(1, properties.timeout().toSeconds()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.parallelism(), properties.parallelism(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()), runnable -> {
+                    Thread thread = new Thread(runnable, "analytics-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public AnalyticsSummaryResponse getSummary(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        UserRepository.IdRange idRange = userRepository.findIdRange();
+        if (idRange == null || idRange.getMinId() == null) {
+            return new AnalyticsSummaryResponse(from, to, 0, 0, 0, 0, List.of());
+        }
+
+        long minId = idRange.getMinId();
+        long span = idRange.getMaxId() - minId + 1;
+        long partitionSize = (span + properties.parallelism() - 1) / properties.parallelism();
+        List<Supplier<UserPartition>> partitions = new ArrayList<>();
+        for (long fromUserId = minId; fromUserId <= idRange.getMaxId(); fromUserId += partitionSize) {
+            long first = fromUserId;
+            long last = Math.min(fromUserId + partitionSize - 1, idRange.getMaxId());
+            partitions.add(() -> new UserPartition(
+                    activityLogRepository.countActiveUsers(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), first, last),
+                    activityLogRepository.sumByActivityTypeForUsers(from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                            first, last)));
+        }
+
+        long activeUsers = 0;
+        Map<String, Totals> byActivityType = new HashMap<>();
+        for (UserPartition partition : run(partitions)) {
+            activeUsers += partition.activeUsers();
+            for (ActivityLogRepository.ActivityTypeTotals totals : partition.activityTypes()) {
+                byActivityType.merge(totals.getActivityType(), new Totals(totals.getSessions(), totals.getActiveUsers(),
+                        totals.getCaloriesBurned(), totals.getDuration()), Totals::plus);
+            }
+        }
+
+        Totals overall = byActivityType.values().stream().reduce(new Totals(0, 0, 0, 0), Totals::plus);
+        List<ActivityTypeStatsResponse> activityTypes = byActivityType.entrySet().stream()
+                .map(entry -> new ActivityTypeStatsResponse(entry.getKey(), entry.getValue().sessions(),
+                        entry.getValue().activeUsers(), entry.getValue().caloriesBurned(), entry.getValue().duration(),
+                        Math.round(entry.getValue().sessions() * 1000.0 / overall.sessions()) / 10.0))
+                .sorted(Comparator.comparingLong(ActivityTypeStatsResponse::sessions).reversed()
+                        .thenComparing(ActivityTypeStatsResponse::activityType, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        return new AnalyticsSummaryResponse(from, to, activeUsers, overall.sessions(), overall.caloriesBurned(),
+                overall.duration(), activityTypes);
+    }
+
+    @Override
+    public List<DailyStatsResponse> getDailyStats(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        long partitionDays = (days + properties.parallelism() - 1) / properties.parallelism();
+        List<Supplier<List<ActivityLogRepository.DailyTotals>>> partitions = new ArrayList<>();
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(partitionDays)) {
+            LocalDate first = start;
+            LocalDate end = start.plusDays(partitionDays).isAfter(to.plusDays(1)) ? to.plusDays(1) : start.plusDays(partitionDays);
+            partitions.add(() -> activityLogRepository.sumByDay(first.atStartOfDay(), end.atStartOfDay()));
+        }
+
+        List<DailyStatsResponse> daily = new ArrayList<>();
+        for (List<ActivityLogRepository.DailyTotals> partition : run(partitions)) {
+            for (ActivityLogRepository.DailyTotals totals : partition) {
+                daily.add(new DailyStatsResponse(totals.getDate(), totals.getActiveUsers(), totals.getSessions(),
+                        totals.getCaloriesBurned(), totals.getDuration()));
+            }
+        }
+        daily.sort(Comparator.comparing(DailyStatsResponse::date));
+        return daily;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= properties.maxRangeDays()) {
+            throw new IllegalArgumentException("Date range must be at most " + properties.maxRangeDays() + " days");
+        }
+    }
+
+    // Either every partition completes within the deadline or the report fails and the rest are cancelled
+    private <T> List<T> run(List<Supplier<T>> partitions) {
+        long deadline = System.nanoTime() + properties.timeout().toNanos();
+        List<Future<T>> futures = new ArrayList<>(partitions.size());
+        try {
+            for (Supplier<T> partition : partitions) {
+                futures.add(executor.submit(() -> transactionTemplate.execute(status -> partition.get())));
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (RejectedExecutionException e) {
+            cancel(futures);
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Too many analytics reports running, please retry later");
+        } catch (TimeoutException e) {
+            cancel(futures);
+            log.warn("Analytics report over '{}' partitions timed out after '{}'", partitions.size(), properties.timeout());
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Analytics report timed out, please narrow the date range");
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Analytics report was interrupted");
+        } catch (ExecutionException e) {
+            cancel(futures);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void cancel(List<? extends Future<?>> futures) {
+        futures.forEach(future -> future.cancel(true));
+    }
+}
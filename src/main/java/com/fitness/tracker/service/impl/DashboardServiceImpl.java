@@ -0,0 +1,178 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.configuration.DashboardProperties;
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.dto.response.DashboardResponse;
+import com.fitness.tracker.dto.response.DashboardSectionResponse;
+import com.fitness.tracker.dto.response.StreakResponse;
+import com.fitness.tracker.dto.response.UserResponse;
+import com.fitness.tracker.dto.response.WeeklyTotalsResponse;
+import com.fitness.tracker.dto.response.WorkoutPlanResponse;
+import com.fitness.tracker.enums.DashboardSection;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.mapper.ActivityLogMapper;
+import com.fitness.tracker.mapper.UserMapper;
+import com.fitness.tracker.mapper.WorkoutPlanMapper;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.service.ActivityLogService;
+import com.fitness.tracker.service.DashboardService;
+import com.fitness.tracker.service.StreakService;
+import com.fitness.tracker.service.UserService;
+import com.fitness.tracker.service.WorkoutPlanService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// The sections of a dashboard are independent reads, run in parallel so a dashboard takes as long as its slowest
+// section rather than all of them together. A section missing its deadline is cancelled and reported as timed out
+// next to the ones that made it. Like the analytics pool, the pool is bounded because every running section holds
+// a connection, and each section runs in a read-only transaction whose timeout, the section's own deadline rounded
+// up to whole seconds, cancels its queries.
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private final Logger log = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
+    private final UserService userService;
+    private final ActivityLogService activityLogService;
+    private final WorkoutPlanService workoutPlanService;
+    private final StreakService streakService;
+    private final ActivityLogRepository activityLogRepository;
+    private final DashboardProperties properties;
+    private final Map<DashboardSection, TransactionTemplate> transactionTemplates = new EnumMap<>(DashboardSection.class);
+    private final ThreadPoolExecutor executor;
+
+    public DashboardServiceImpl(UserService userService,
+                                ActivityLogService activityLogService,
+                                WorkoutPlanService workoutPlanService,
+                                StreakService streakService,
+                                ActivityLogRepository activityLogRepository,
+                                DashboardProperties properties,
+                                PlatformTransactionManager transactionManager) {
+        this.userService = userService;
+        this.activityLogService = activityLogService;
+        this.workoutPlanService = workoutPlanService;
+        this.streakService = streakService;
+        this.activityLogRepository = activityLogRepository;
+        this.properties = properties;
+        for (DashboardSection section : DashboardSection.values()) {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            // Transaction timeouts are whole seconds
+            long timeoutMillis = properties.timeout(section).toMillis();
+            transactionTemplate.setTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+            transactionTemplates.put(section, transactionTemplate);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.parallelism(), properties.parallelism(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public DashboardResponse getDashboard(Long userId) {
+        long start = System.nanoTime();
+        Map<DashboardSection, Future<?>> futures = new EnumMap<>(DashboardSection.class);
+        try {
+            Future<UserResponse> profile = submit(futures, DashboardSection.PROFILE,
+                    () -> UserMapper.toResponse(userService.getUser(userId)));
+            Future<List<ActivityLogResponse>> recentActivityLogs = submit(futures, DashboardSection.RECENT_ACTIVITY_LOGS,
+                    () -> activityLogService.getRecentActivityLogs(userId, properties.recentActivityLogs()).stream()
+                            .map(ActivityLogMapper::toResponse)
+                            .toList());
+            Future<List<WorkoutPlanResponse>> workoutPlans = submit(futures, DashboardSection.WORKOUT_PLANS,
+                    () -> workoutPlanService.getAllWorkoutPlans(userId).stream()
+                            .map(WorkoutPlanMapper::toResponse)
+                            .toList());
+            Future<WeeklyTotalsResponse> weeklyTotals = submit(futures, DashboardSection.WEEKLY_TOTALS,
+                    () -> weeklyTotals(userId));
+            Future<StreakResponse> streak = submit(futures, DashboardSection.STREAK,
+                    () -> streakService.getStreak(userId));
+
+            return new DashboardResponse(userId,
+                    await(DashboardSection.PROFILE, profile, start),
+                    await(DashboardSection.RECENT_ACTIVITY_LOGS, recentActivityLogs, start),
+                    await(DashboardSection.WORKOUT_PLANS, workoutPlans, start),
+                    await(DashboardSection.WEEKLY_TOTALS, weeklyTotals, start),
+                    await(DashboardSection.STREAK, streak, start));
+        } finally {
+            // A no-op for finished sections, stops the rest when a client error ended the dashboard early
+            futures.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private WeeklyTotalsResponse weeklyTotals(Long userId) {
+        LocalDate weekStart = LeaderboardPeriod.WEEKLY.startOf(LocalDate.now());
+        ActivityLogRepository.UserTotals totals = activityLogRepository.sumByUser(userId, weekStart.atStartOfDay(),
+                LeaderboardPeriod.WEEKLY.next(weekStart).atStartOfDay());
+        return new WeeklyTotalsResponse(weekStart, totals.getSessions(), totals.getCaloriesBurned(), totals.getDuration());
+    }
+
+    // Null when the pool is saturated, the section is then reported as failed without waiting
+    private <T> Future<T> submit(Map<DashboardSection, Future<?>> futures, DashboardSection section, Supplier<T> supplier) {
+        TransactionTemplate transactionTemplate = transactionTemplates.get(section);
+        try {
+            // The caller's authentication travels along, reads of a user who just wrote stay on the primary
+            Future<T> future = executor.submit(DelegatingSecurityContextCallable.create(
+                    () -> transactionTemplate.execute(status -> supplier.get()), null));
+            futures.put(section, future);
+            return future;
+        } catch (RejectedExecutionException e) {
+            log.warn("Dashboard section '{}' rejected, the pool is saturated", section);
+            return null;
+        }
+    }
+
+    private <T> DashboardSectionResponse<T> await(DashboardSection section, Future<T> future, long start) {
+        if (future == null) {
+            return DashboardSectionResponse.failed();
+        }
+        long deadline = start + properties.timeout(section).toNanos();
+        try {
+            return DashboardSectionResponse.ok(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Dashboard section '{}' timed out after '{}'", section, properties.timeout(section));
+            return DashboardSectionResponse.timedOut();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return DashboardSectionResponse.failed();
+        } catch (ExecutionException e) {
+            // Client errors such as an unknown user fail the whole dashboard, anything else only its section
+            if (e.getCause() instanceof CustomException customException
+                    && customException.getStatusCode().is4xxClientError()) {
+                throw customException;
+            }
+            log.error("Dashboard section '{}' failed", section, e.getCause());
+            return DashboardSectionResponse.failed();
+        }
+    }
+}
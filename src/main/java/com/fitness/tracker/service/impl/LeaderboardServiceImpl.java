@@ -0,0 +1,188 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.dto.response.LeaderboardEntryResponse;
+import com.fitness.tracker.dto.response.LeaderboardRankResponse;
+import com.fitness.tracker.dto.response.LeaderboardResponse;
+import com.fitness.tracker.entity.User;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.service.ActivityTypeService;
+import com.fitness.tracker.service.LeaderboardService;
+import com.fitness.tracker.utils.RankedScoreTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Leaderboards are kept in memory for the current and the previous week and month, per metric, globally and
+// per activity type. They follow committed activity log changes and are rebuilt from the database on startup.
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService, SmartInitializingSingleton {
+
+    private final Logger log = LoggerFactory.getLogger(LeaderboardServiceImpl.class);
+
+    private static final int MAX_LIMIT = 100;
+
+    private record BoardKey(LeaderboardPeriod period, LocalDate periodStart, LeaderboardMetric metric, String activityType) {}
+
+    // Key of the board across all activity types, cannot clash with a real type as those are never blank
+    private static final String ALL_ACTIVITIES = "";
+
+    private final ActivityLogRepository activityLogRepository;
+    private final UserRepository userRepository;
+    private final ActivityTypeService activityTypeService;
+    private final Map<BoardKey, RankedScoreTree> boards = new ConcurrentHashMap<>();
+
+    public LeaderboardServiceImpl(ActivityLogRepository activityLogRepository, UserRepository userRepository,
+                                  ActivityTypeService activityTypeService) {
+        this.activityLogRepository = activityLogRepository;
+        this.userRepository = userRepository;
+        this.activityTypeService = activityTypeService;
+    }
+
+    // Runs before the web server starts, so no request can change the logs while the boards are summed
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        boards.clear();
+        LocalDate today = LocalDate.now();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            LocalDate current = period.startOf(today);
+            for (LocalDate start : List.of(period.previous(current), current)) {
+                List<ActivityLogRepository.ActivityTotals> totals = activityLogRepository.sumByUserAndActivityType(
+                        start.atStartOfDay(), period.next(start).atStartOfDay());
+                for (ActivityLogRepository.ActivityTotals total : totals) {
+                    add(period, start, LeaderboardMetric.CALORIES, total.getActivityType(), total.getUserId(), total.getCaloriesBurned());
+                    add(period, start, LeaderboardMetric.DURATION, total.getActivityType(), total.getUserId(), total.getDuration());
+                }
+            }
+        }
+        log.info("Leaderboards rebuilt, '{}' boards loaded", boards.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivityLogEvent(ActivityLogEvent event) {
+        if (event.before() != null) {
+            apply(event.before(), -1);
+        }
+        if (event.after() != null) {
+            apply(event.after(), 1);
+        }
+    }
+
+    // Drops boards older than the previous period, the current period's boards are created by the first log in it
+    @Scheduled(cron = "${fitness.leaderboard.rollover-cron:0 0 0 * * *}")
+    public void rollover() {
+        LocalDate today = LocalDate.now();
+        boolean removed = boards.keySet().removeIf(key ->
+                key.periodStart().isBefore(key.period().previous(key.period().startOf(today))));
+        if (removed) {
+            log.info("Leaderboards rolled over, '{}' boards retained", boards.size());
+        }
+    }
+
+    @Override
+    public LeaderboardResponse getLeaderboard(LeaderboardPeriod period, LeaderboardMetric metric, String activityType, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        LocalDate periodStart = period.startOf(LocalDate.now());
+        RankedScoreTree board = board(period, periodStart, metric, activityType);
+        if (board == null) {
+            return new LeaderboardResponse(period, metric, activityType, periodStart, 0, List.of());
+        }
+
+        List<RankedScoreTree.Entry> top = board.top(limit);
+        Map<Long, String> names = userRepository.findAllById(top.stream().map(RankedScoreTree.Entry::userId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, User::getName));
+        List<LeaderboardEntryResponse> entries = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            RankedScoreTree.Entry entry = top.get(i);
+            entries.add(new LeaderboardEntryResponse(i + 1, entry.userId(), names.get(entry.userId()), entry.score()));
+        }
+        return new LeaderboardResponse(period, metric, activityType, periodStart, board.size(), entries);
+    }
+
+    @Override
+    public LeaderboardRankResponse getRank(Long userId, LeaderboardPeriod period, LeaderboardMetric metric, String activityType) {
+        LocalDate periodStart = period.startOf(LocalDate.now());
+        RankedScoreTree board = board(period, periodStart, metric, activityType);
+        int rank = board == null ? -1 : board.rank(userId);
+        return new LeaderboardRankResponse(userId, period, metric, activityType, periodStart,
+                rank < 0 ? null : rank,
+                board == null ? 0 : board.score(userId),
+                board == null ? 0 : board.size());
+    }
+
+    @Override
+    public long[] getScores(LeaderboardPeriod period, LeaderboardMetric metric, String activityType) {
+        RankedScoreTree board = board(period, period.startOf(LocalDate.now()), metric, activityType);
+        return board == null ? new long[0] : board.scores();
+    }
+
+    @Override
+    public Set<String> getActivityTypes(LeaderboardPeriod period) {
+        LocalDate periodStart = period.startOf(LocalDate.now());
+        return boards.keySet().stream()
+                .filter(key -> key.period() == period && key.periodStart().equals(periodStart))
+                .map(BoardKey::activityType)
+                .filter(activityType -> !ALL_ACTIVITIES.equals(activityType))
+                .collect(Collectors.toSet());
+    }
+
+    private synchronized void apply(ActivityLogResponse activityLog, int sign) {
+        LocalDate date = activityLog.createdDate().toLocalDate();
+        LocalDate today = LocalDate.now();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            LocalDate start = period.startOf(date);
+            if (start.isBefore(period.previous(period.startOf(today)))) {
+                // Boards of that period are no longer kept
+                continue;
+            }
+            add(period, start, LeaderboardMetric.CALORIES, activityLog.activityType(), activityLog.userId(),
+                    (long) sign * activityLog.caloriesBurned());
+            add(period, start, LeaderboardMetric.DURATION, activityLog.activityType(), activityLog.userId(),
+                    (long) sign * activityLog.duration());
+        }
+    }
+
+    private void add(LeaderboardPeriod period, LocalDate start, LeaderboardMetric metric, String activityType,
+                     Long userId, long delta) {
+        Function<BoardKey, RankedScoreTree> newBoard = key -> new RankedScoreTree();
+        boards.computeIfAbsent(new BoardKey(period, start, metric, ALL_ACTIVITIES), newBoard).add(userId, delta);
+        boards.computeIfAbsent(new BoardKey(period, start, metric, activityType), newBoard).add(userId, delta);
+    }
+
+    // Boards are keyed by canonical type names, a query for a type never logged has no board
+    private RankedScoreTree board(LeaderboardPeriod period, LocalDate periodStart, LeaderboardMetric metric, String activityType) {
+        String name = ALL_ACTIVITIES;
+        if (activityType != null && !activityType.isBlank()) {
+            name = activityTypeService.findName(activityType);
+            if (name == null) {
+                return null;
+            }
+        }
+        return boards.get(new BoardKey(period, periodStart, metric, name));
+    }
+}
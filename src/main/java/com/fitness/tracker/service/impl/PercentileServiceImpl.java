@@ -0,0 +1,252 @@
+package com.fitness.tracker.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.tracker.configuration.PercentileProperties;
+import com.fitness.tracker.dto.PercentileSnapshot;
+import com.fitness.tracker.dto.response.PercentileDistributionResponse;
+import com.fitness.tracker.dto.response.PercentileResponse;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.service.ActivityTypeService;
+import com.fitness.tracker.service.LeaderboardService;
+import com.fitness.tracker.service.PercentileService;
+import com.fitness.tracker.utils.TDigest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Percentile ranks of users' period totals. Each node summarises the totals of its leaderboards into t-digests on
+// a schedule, rather than feeding sessions into the sketch, because a sketch cannot take back a deleted or edited
+// log while the leaderboard totals already account for them. Nodes with databases of their own can merge in each
+// other's digests at query time, persisted so a restarted node keeps its peers' view. Nodes sharing a database
+// never merge, their leaderboards are built from the same rows.
+@Service
+public class PercentileServiceImpl implements PercentileService {
+
+    private final Logger log = LoggerFactory.getLogger(PercentileServiceImpl.class);
+
+    private static final double[] QUANTILES = {0.25, 0.5, 0.75, 0.9, 0.99};
+
+    private record DigestKey(LeaderboardPeriod period, LocalDate periodStart, LeaderboardMetric metric, String activityType) {}
+
+    private final LeaderboardService leaderboardService;
+    private final ActivityTypeService activityTypeService;
+    private final PercentileProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private volatile Map<DigestKey, TDigest> localDigests = Map.of();
+    private final Map<String, Map<DigestKey, TDigest>> peerDigests = new ConcurrentHashMap<>();
+    // Local and peer digests combined, dropped whenever either side changes
+    private final Map<DigestKey, TDigest> mergedDigests = new ConcurrentHashMap<>();
+
+    public PercentileServiceImpl(LeaderboardService leaderboardService,
+                                 ActivityTypeService activityTypeService,
+                                 PercentileProperties properties,
+                                 ObjectMapper objectMapper) {
+        this.leaderboardService = leaderboardService;
+        this.activityTypeService = activityTypeService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        restorePeers();
+        refresh();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${fitness.percentiles.refresh-interval-ms:30000}", initialDelayString = "${fitness.percentiles.refresh-interval-ms:30000}")
+    public void refresh() {
+        Map<DigestKey, TDigest> digests = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            LocalDate periodStart = period.startOf(today);
+            List<String> activityTypes = new ArrayList<>(leaderboardService.getActivityTypes(period));
+            activityTypes.add(null);
+            for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+                for (String activityType : activityTypes) {
+                    long[] scores = leaderboardService.getScores(period, metric, activityType);
+                    if (scores.length == 0) {
+                        continue;
+                    }
+                    TDigest digest = new TDigest(properties.compression());
+                    for (long score : scores) {
+                        digest.add(score);
+                    }
+                    digest.compress();
+                    digests.put(new DigestKey(period, periodStart, metric, activityType), digest);
+                }
+            }
+        }
+        localDigests = digests;
+        mergedDigests.clear();
+    }
+
+    @Override
+    public PercentileResponse getUserPercentile(Long userId, LeaderboardPeriod period, LeaderboardMetric metric, String activityType) {
+        LocalDate periodStart = period.startOf(LocalDate.now());
+        long value = leaderboardService.getRank(userId, period, metric, activityType).score();
+        TDigest digest = digest(period, periodStart, metric, activityType);
+        if (digest == null) {
+            return new PercentileResponse(userId, period, metric, activityType, periodStart, value, 0, 0);
+        }
+        double percentile = value == 0 ? 0 : Math.round(digest.cdf(value) * 1000) / 10.0;
+        return new PercentileResponse(userId, period, metric, activityType, periodStart, value, percentile, digest.size());
+    }
+
+    @Override
+    public PercentileDistributionResponse getDistribution(LeaderboardPeriod period, LeaderboardMetric metric, String activityType) {
+        LocalDate periodStart = period.startOf(LocalDate.now());
+        TDigest digest = digest(period, periodStart, metric, activityType);
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        if (digest != null) {
+            for (double q : QUANTILES) {
+                quantiles.put("p" + Math.round(q * 100), digest.quantile(q));
+            }
+        }
+        return new PercentileDistributionResponse(period, metric, activityType, periodStart,
+                digest == null ? 0 : digest.size(), quantiles);
+    }
+
+    @Override
+    public PercentileSnapshot exportSnapshot() {
+        return toSnapshot(properties.nodeId(), localDigests);
+    }
+
+    @Override
+    public void mergeSnapshot(PercentileSnapshot snapshot) {
+        if (!properties.mergePeers()) {
+            throw new CustomException(HttpStatus.CONFLICT, "Merging peer snapshots is disabled, this node shares "
+                    + "its database with its peers");
+        }
+        if (snapshot.nodeId() == null || snapshot.nodeId().isBlank()) {
+            throw new IllegalArgumentException("Snapshot node id is required");
+        }
+        if (snapshot.nodeId().equals(properties.nodeId())) {
+            throw new IllegalArgumentException("Snapshot of this node cannot be merged into itself");
+        }
+        // A node's latest snapshot replaces its previous one, so its users are never counted twice
+        peerDigests.put(snapshot.nodeId(), fromSnapshot(snapshot));
+        mergedDigests.clear();
+        log.info("Merged percentile snapshot of node '{}' with '{}' digests", snapshot.nodeId(), snapshot.digests().size());
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${fitness.percentiles.persist-interval-ms:300000}", initialDelayString = "${fitness.percentiles.persist-interval-ms:300000}")
+    public void persist() {
+        List<PercentileSnapshot> snapshots = new ArrayList<>();
+        snapshots.add(exportSnapshot());
+        peerDigests.forEach((nodeId, digests) -> snapshots.add(toSnapshot(nodeId, digests)));
+        Path file = properties.snapshotFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(temporary.toFile(), snapshots);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Unable to persist percentile snapshots to '{}'", file, e);
+        }
+    }
+
+    private void restorePeers() {
+        Path file = properties.snapshotFile();
+        if (!properties.mergePeers() || !Files.exists(file)) {
+            return;
+        }
+        try {
+            List<PercentileSnapshot> snapshots = objectMapper.readValue(file.toFile(), new TypeReference<>() {});
+            for (PercentileSnapshot snapshot : snapshots) {
+                // This node's own digests are rebuilt from its leaderboards
+                if (!properties.nodeId().equals(snapshot.nodeId())) {
+                    peerDigests.put(snapshot.nodeId(), fromSnapshot(snapshot));
+                }
+            }
+            log.info("Restored percentile snapshots of '{}' peer nodes", peerDigests.size());
+        } catch (IOException e) {
+            log.error("Unable to restore percentile snapshots from '{}'", file, e);
+        }
+    }
+
+    // Digests are keyed by canonical type names, a query for a type never logged has no digest
+    private TDigest digest(LeaderboardPeriod period, LocalDate periodStart, LeaderboardMetric metric, String activityType) {
+        String name = null;
+        if (activityType != null && !activityType.isBlank()) {
+            name = activityTypeService.findName(activityType);
+            if (name == null) {
+                return null;
+            }
+        }
+        return digest(new DigestKey(period, periodStart, metric, name));
+    }
+
+    private TDigest digest(DigestKey key) {
+        TDigest cached = mergedDigests.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        TDigest merged = new TDigest(properties.compression());
+        TDigest local = localDigests.get(key);
+        if (local != null) {
+            merged.merge(local);
+        }
+        for (Map<DigestKey, TDigest> peer : peerDigests.values()) {
+            TDigest remote = peer.get(key);
+            if (remote != null) {
+                merged.merge(remote);
+            }
+        }
+        merged.compress();
+        if (merged.size() == 0) {
+            return null;
+        }
+        mergedDigests.put(key, merged);
+        return merged;
+    }
+
+    private PercentileSnapshot toSnapshot(String nodeId, Map<DigestKey, TDigest> digests) {
+        List<PercentileSnapshot.Digest> entries = new ArrayList<>(digests.size());
+        digests.forEach((key, digest) -> entries.add(new PercentileSnapshot.Digest(key.period(), key.periodStart(),
+                key.metric(), key.activityType(), digest.getMin(), digest.getMax(), digest.getMeans(), digest.getWeights())));
+        return new PercentileSnapshot(nodeId, LocalDateTime.now(), entries);
+    }
+
+    private Map<DigestKey, TDigest> fromSnapshot(PercentileSnapshot snapshot) {
+        Map<DigestKey, TDigest> digests = new HashMap<>();
+        for (PercentileSnapshot.Digest entry : snapshot.digests()) {
+            DigestKey key = new DigestKey(entry.period(), entry.periodStart(), entry.metric(), normalize(entry.activityType()));
+            TDigest digest = TDigest.fromCentroids(properties.compression(), entry.means(), entry.weights(),
+                    entry.min(), entry.max());
+            if (digests.put(key, digest) != null) {
+                throw new IllegalArgumentException("Snapshot contains the digest for " + key + " twice");
+            }
+        }
+        return digests;
+    }
+
+    private static String normalize(String activityType) {
+        return activityType == null || activityType.isBlank() ? null : activityType;
+    }
+}
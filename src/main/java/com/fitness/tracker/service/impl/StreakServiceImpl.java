@@ -0,0 +1,121 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.dto.response.StreakResponse;
+import com.fitness.tracker.entity.UserStreak;
+import com.fitness.tracker.enums.ActivityLogEventType;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.repository.UserStreakRepository;
+import com.fitness.tracker.service.StreakService;
+import com.fitness.tracker.utils.DayBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Service
+public class StreakServiceImpl implements StreakService {
+
+    private final Logger log = LoggerFactory.getLogger(StreakServiceImpl.class);
+
+    private final UserStreakRepository userStreakRepository;
+    private final ActivityLogRepository activityLogRepository;
+    private final UserRepository userRepository;
+
+    public StreakServiceImpl(UserStreakRepository userStreakRepository,
+                             ActivityLogRepository activityLogRepository,
+                             UserRepository userRepository) {
+        this.userStreakRepository = userStreakRepository;
+        this.activityLogRepository = activityLogRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Runs in the mutating transaction. The activity log version bump has already write-locked the user's row,
+    // so two first logs of the same user cannot both insert a streak row.
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onActivityLogEvent(ActivityLogEvent event) {
+        // Updates never move a log to another day or user
+        if (event.type() == ActivityLogEventType.UPDATED) {
+            return;
+        }
+        Long userId = event.userId();
+        LocalDate day = event.current().createdDate().toLocalDate();
+        UserStreak streak = userStreakRepository.findForUpdate(userId).orElseGet(() -> {
+            UserStreak created = new UserStreak();
+            created.setUserId(userId);
+            return created;
+        });
+        DayBitmap activeDays = new DayBitmap(streak.getBitmapStart(), streak.getActiveDays());
+
+        if (event.type() == ActivityLogEventType.CREATED) {
+            markActive(streak, activeDays, day);
+        } else if (activeDays.isSet(day) && !hasLogsOn(userId, day)) {
+            markInactive(streak, activeDays, day);
+        }
+
+        streak.setBitmapStart(activeDays.getStart());
+        streak.setActiveDays(activeDays.getBits());
+        userStreakRepository.save(streak);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StreakResponse getStreak(Long userId) {
+        UserStreak streak = userStreakRepository.findById(userId).orElse(null);
+        if (streak == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new CustomException(HttpStatus.NOT_FOUND, "User not found");
+            }
+            return new StreakResponse(userId, 0, 0, null, 0);
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate lastActive = streak.getLastActiveDate();
+        // A streak survives until the end of the day after its last active day
+        boolean current = lastActive != null && !lastActive.isBefore(today.minusDays(1));
+        DayBitmap activeDays = new DayBitmap(streak.getBitmapStart(), streak.getActiveDays());
+        int activeThisMonth = activeDays.count(today.withDayOfMonth(1), today.withDayOfMonth(today.lengthOfMonth()));
+        return new StreakResponse(userId, current ? streak.getCurrentStreak() : 0, streak.getBestStreak(),
+                lastActive, activeThisMonth);
+    }
+
+    private void markActive(UserStreak streak, DayBitmap activeDays, LocalDate day) {
+        if (activeDays.isSet(day)) {
+            return;
+        }
+        activeDays.set(day);
+        // Backfilled days can join two runs, only the run through the new day can beat the best
+        streak.setBestStreak(Math.max(streak.getBestStreak(), activeDays.runThrough(day)));
+        if (streak.getLastActiveDate() == null || day.isAfter(streak.getLastActiveDate())) {
+            streak.setLastActiveDate(day);
+        }
+        streak.setCurrentStreak(activeDays.runEndingAt(streak.getLastActiveDate()));
+    }
+
+    private void markInactive(UserStreak streak, DayBitmap activeDays, LocalDate day) {
+        int brokenRun = activeDays.runThrough(day);
+        activeDays.clear(day);
+        // Only a broken run as long as the best can lower it, then a full scan finds the new best
+        if (brokenRun >= streak.getBestStreak()) {
+            streak.setBestStreak(activeDays.longestRun());
+        }
+        if (day.equals(streak.getLastActiveDate())) {
+            streak.setLastActiveDate(activeDays.previousSet(day));
+        }
+        streak.setCurrentStreak(streak.getLastActiveDate() == null ? 0 : activeDays.runEndingAt(streak.getLastActiveDate()));
+        log.debug("Day '{}' is no longer active for user '{}'", day, streak.getUserId());
+    }
+
+    private boolean hasLogsOn(Long userId, LocalDate day) {
+        return activityLogRepository.existsByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(
+                userId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+}
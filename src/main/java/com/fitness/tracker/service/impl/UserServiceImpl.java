@@ -1,32 +1,73 @@
 package com.fitness.tracker.service.impl;
 
+import com.fitness.tracker.dto.UserFilter;
+import com.fitness.tracker.dto.response.PageResponse;
+import com.fitness.tracker.dto.response.UserResponse;
+import com.fitness.tracker.entity.ActivityLog;
 import com.fitness.tracker.entity.User;
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.UserSortField;
+import com.fitness.tracker.enums.WorkoutPlanEventType;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.event.WorkoutPlanEvent;
 import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.mapper.ActivityLogMapper;
+import com.fitness.tracker.repository.ActivityLogRepository;
 import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.repository.UserStreakRepository;
+import com.fitness.tracker.repository.WorkoutPlanAdherenceRepository;
+import com.fitness.tracker.repository.WorkoutPlanRepository;
 import com.fitness.tracker.service.UserService;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final WorkoutPlanRepository workoutPlanRepository;
+    private final ActivityLogRepository activityLogRepository;
+    private final WorkoutPlanAdherenceRepository adherenceRepository;
+    private final UserStreakRepository userStreakRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final PasswordEncoder passwordEncoder;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository,
+                           WorkoutPlanRepository workoutPlanRepository,
+                           ActivityLogRepository activityLogRepository,
+                           WorkoutPlanAdherenceRepository adherenceRepository,
+                           UserStreakRepository userStreakRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
+        this.workoutPlanRepository = workoutPlanRepository;
+        this.activityLogRepository = activityLogRepository;
+        this.adherenceRepository = adherenceRepository;
+        this.userStreakRepository = userStreakRepository;
+        this.eventPublisher = eventPublisher;
         this.passwordEncoder = passwordEncoder;
     }
 
     @Override
+    @Transactional
     public User createUser(User user) {
         log.debug("Creating user '{}' having email '{}'", user.getName(), user.getEmail());
         user.setPassword(passwordEncoder.encode(user.getPassword()));
@@ -36,6 +77,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public User updateUser(Long id, User user) {
         log.debug("Updating user having id '{}'", id);
         User existing = userRepository.findById(id)
@@ -52,16 +94,54 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         log.debug("Deleting user having id '{}'", id);
-        if (!userRepository.existsById(id)) {
-            throw new CustomException(HttpStatus.NOT_FOUND, "User not found");
+        User existing = userRepository.findById(id)
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "User not found"));
+
+        // Deleting a user cascades to their plans and logs, including logs other users attached to those plans.
+        // Everything is rendered before the delete, the events go out after it like a plan delete's, so listeners
+        // querying the remaining logs see the removal.
+        List<WorkoutPlan> workoutPlans = workoutPlanRepository.findByUserId(id);
+        List<ActivityLog> activityLogs = new ArrayList<>(activityLogRepository.findByUserId(id));
+        List<ActivityLog> otherUsersLogs = activityLogRepository.findByWorkoutPlanUserIdAndUserIdNot(id, id);
+        activityLogs.addAll(otherUsersLogs);
+        List<ActivityLogEvent> activityLogEvents = activityLogs.stream()
+                .map(activityLog -> ActivityLogEvent.deleted(ActivityLogMapper.toResponse(activityLog)))
+                .toList();
+        Map<Long, Set<Long>> activityLogUserIdsByPlan = new HashMap<>();
+        for (WorkoutPlan workoutPlan : workoutPlans) {
+            activityLogUserIdsByPlan.put(workoutPlan.getId(), new HashSet<>(Set.of(id)));
+        }
+        for (ActivityLog activityLog : otherUsersLogs) {
+            activityLogUserIdsByPlan.get(activityLog.getWorkoutPlan().getId()).add(activityLog.getUser().getId());
+        }
+        List<WorkoutPlanEvent> workoutPlanEvents = workoutPlans.stream()
+                .map(workoutPlan -> WorkoutPlanEvent.of(WorkoutPlanEventType.DELETED, workoutPlan,
+                        activityLogUserIdsByPlan.get(workoutPlan.getId())))
+                .toList();
+
+        userRepository.delete(existing);
+        userRepository.flush();
+        // The adherence rows of the user's plans have no foreign key to cascade through
+        adherenceRepository.deleteByUserId(id);
+        Set<Long> otherUserIds = new HashSet<>();
+        otherUsersLogs.forEach(activityLog -> otherUserIds.add(activityLog.getUser().getId()));
+        if (!otherUserIds.isEmpty()) {
+            userRepository.incrementActivityLogsVersion(otherUserIds);
         }
-        userRepository.deleteById(id);
-        log.info("User deleted successfully");
+
+        activityLogEvents.forEach(eventPublisher::publishEvent);
+        workoutPlanEvents.forEach(eventPublisher::publishEvent);
+        // Last, the streak listener has just updated the row for the deleted logs
+        userStreakRepository.deleteById(id);
+        log.info("User deleted successfully along with '{}' workout plans and '{}' activity logs",
+                workoutPlans.size(), activityLogs.size());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getUser(Long id) {
         log.debug("Fetching user having id '{}'", id);
         Optional<User> userOptional = userRepository.findById(id);
@@ -74,10 +154,28 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<User> getAllUsers() {
-        log.info("Fetching all the users...");
-        List<User> users = userRepository.findAll();
-        log.info("'{}' users fetched successfully.", users.size());
-        return users;
+    @Transactional(readOnly = true)
+    public PageResponse<UserResponse> getUsers(UserFilter filter, UserSortField sort, Sort.Direction direction,
+                                               int page, int size, boolean count) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0 || (long) page * size >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("page is out of range");
+        }
+        if (filter.createdFrom() != null && filter.createdTo() != null && filter.createdFrom().isAfter(filter.createdTo())) {
+            throw new IllegalArgumentException("createdFrom must not be after createdTo");
+        }
+
+        log.debug("Fetching page '{}' of users matching '{}'", page, filter);
+        // One extra row tells whether a next page exists without counting
+        List<UserResponse> users = userRepository.findUsers(filter, sort, direction, page * size, size + 1);
+        boolean hasNext = users.size() > size;
+        if (hasNext) {
+            users = users.subList(0, size);
+        }
+        Long total = count ? userRepository.countUsers(filter) : null;
+        log.info("'{}' users fetched successfully", users.size());
+        return new PageResponse<>(users, page, size, hasNext, total);
     }
 }
@@ -0,0 +1,125 @@
+package com.fitness.tracker.service.impl;
+
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.WorkoutPlanEventType;
+import com.fitness.tracker.event.WorkoutPlanEvent;
+import com.fitness.tracker.repository.WorkoutPlanRepository;
+import com.fitness.tracker.service.WorkoutPlanSearchService;
+import com.fitness.tracker.utils.InvertedIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// One inverted index per user, so a user's search never scans other users' postings. The admin scope searches
+// every user's index and merges the hits. Indexes follow committed plan changes and are rebuilt at startup.
+@Service
+public class WorkoutPlanSearchServiceImpl implements WorkoutPlanSearchService, SmartInitializingSingleton {
+
+    private final Logger log = LoggerFactory.getLogger(WorkoutPlanSearchServiceImpl.class);
+
+    private static final int MAX_LIMIT = 50;
+    private static final int MAX_QUERY_TERMS = 10;
+
+    private record UserHit(Long userId, InvertedIndex.Hit hit) {}
+
+    private final WorkoutPlanRepository workoutPlanRepository;
+    private final Map<Long, InvertedIndex> indexes = new ConcurrentHashMap<>();
+
+    public WorkoutPlanSearchServiceImpl(WorkoutPlanRepository workoutPlanRepository) {
+        this.workoutPlanRepository = workoutPlanRepository;
+    }
+
+    // Runs before the web server starts, so no plan can change while the indexes are filled
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        indexes.clear();
+        List<WorkoutPlanRepository.SearchDocument> documents = workoutPlanRepository.findSearchDocuments();
+        for (WorkoutPlanRepository.SearchDocument document : documents) {
+            index(document.getUserId()).put(document.getId(), document.getTitle(), document.getDescription());
+        }
+        log.info("Workout plan search indexes rebuilt, '{}' plans of '{}' users indexed", documents.size(), indexes.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWorkoutPlanEvent(WorkoutPlanEvent event) {
+        if (event.type() == WorkoutPlanEventType.DELETED) {
+            InvertedIndex index = indexes.get(event.userId());
+            if (index != null) {
+                index.remove(event.workoutPlanId());
+            }
+        } else {
+            index(event.userId()).put(event.workoutPlanId(), event.title(), event.description());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkoutPlan> searchWorkoutPlans(Long userId, String query, int limit) {
+        List<String> terms = parse(query, limit);
+        InvertedIndex index = indexes.get(userId);
+        if (index == null) {
+            return List.of();
+        }
+        return load(index.search(terms, limit).stream().map(InvertedIndex.Hit::id).toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkoutPlan> searchAllWorkoutPlans(String query, int limit) {
+        List<String> terms = parse(query, limit);
+        List<UserHit> hits = new ArrayList<>();
+        indexes.forEach((userId, index) -> index.search(terms, limit).forEach(hit -> hits.add(new UserHit(userId, hit))));
+        return load(hits.stream()
+                .sorted(Comparator.comparingInt((UserHit userHit) -> userHit.hit().score()).reversed()
+                        .thenComparing(Comparator.comparingLong((UserHit userHit) -> userHit.hit().id()).reversed()))
+                .limit(limit)
+                .map(userHit -> userHit.hit().id())
+                .toList());
+    }
+
+    private InvertedIndex index(Long userId) {
+        return indexes.computeIfAbsent(userId, id -> new InvertedIndex());
+    }
+
+    private static List<String> parse(String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<String> terms = InvertedIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one letter or digit");
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            throw new IllegalArgumentException("Search query must contain at most " + MAX_QUERY_TERMS + " words");
+        }
+        return terms;
+    }
+
+    // Plans in hit order, a plan deleted since it was found is skipped
+    private List<WorkoutPlan> load(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, WorkoutPlan> plans = workoutPlanRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(WorkoutPlan::getId, Function.identity()));
+        return ids.stream().map(plans::get).filter(Objects::nonNull).toList();
+    }
+}
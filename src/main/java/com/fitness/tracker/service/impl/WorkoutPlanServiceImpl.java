@@ -1,43 +1,88 @@
 package com.fitness.tracker.service.impl;
 
+import com.fitness.tracker.entity.ActivityLog;
 import com.fitness.tracker.entity.User;
 import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.entity.WorkoutPlanAdherence;
+import com.fitness.tracker.enums.WorkoutPlanEventType;
+import com.fitness.tracker.enums.WorkoutPlanField;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.event.WorkoutPlanEvent;
 import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.mapper.ActivityLogMapper;
 import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.repository.WorkoutPlanAdherenceRepository;
 import com.fitness.tracker.repository.WorkoutPlanRepository;
 import com.fitness.tracker.service.WorkoutPlanService;
+import com.fitness.tracker.utils.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class WorkoutPlanServiceImpl implements WorkoutPlanService {
 
     private final Logger log = LoggerFactory.getLogger(WorkoutPlanServiceImpl.class);
 
+    private static final int MAX_BATCH_SIZE = 200;
+
     private final WorkoutPlanRepository workoutPlanRepository;
     private final UserRepository userRepository;
-
-    public WorkoutPlanServiceImpl(WorkoutPlanRepository workoutPlanRepository, UserRepository userRepository) {
+    private final WorkoutPlanAdherenceRepository adherenceRepository;
+    private final SingleFlight singleFlight;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public WorkoutPlanServiceImpl(WorkoutPlanRepository workoutPlanRepository, UserRepository userRepository,
+                                  WorkoutPlanAdherenceRepository adherenceRepository,
+                                  SingleFlight singleFlight,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
         this.workoutPlanRepository = workoutPlanRepository;
         this.userRepository = userRepository;
+        this.adherenceRepository = adherenceRepository;
+        this.singleFlight = singleFlight;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     @Override
+    @Transactional
     public WorkoutPlan createWorkoutPlan(Long userId, WorkoutPlan workoutPlan) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "User not found"));
 
         workoutPlan.setUser(user);
         WorkoutPlan savedPlan = workoutPlanRepository.save(workoutPlan);
+        // Created with the plan so concurrent first sessions only ever lock it
+        WorkoutPlanAdherence adherence = new WorkoutPlanAdherence();
+        adherence.setWorkoutPlanId(savedPlan.getId());
+        adherence.setUserId(userId);
+        adherenceRepository.save(adherence);
+        userRepository.incrementWorkoutPlansVersion(userId);
+        eventPublisher.publishEvent(WorkoutPlanEvent.of(WorkoutPlanEventType.CREATED, savedPlan));
         log.info("Workout plan '{}' created for user '{}'", savedPlan.getTitle(), user.getEmail());
         return savedPlan;
     }
 
     @Override
+    @Transactional
     public WorkoutPlan updateWorkoutPlan(Long id, Long userId, WorkoutPlan workoutPlan) {
         WorkoutPlan existing = workoutPlanRepository.findById(id)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "Workout plan not found"));
@@ -51,11 +96,17 @@ public class WorkoutPlanServiceImpl implements WorkoutPlanService {
         existing.setDuration(workoutPlan.getDuration());
 
         WorkoutPlan updated = workoutPlanRepository.save(existing);
+        // Activity log responses carry the plan title, so the collections of everyone logging against it change too
+        Set<Long> activityLogUserIds = activityLogUserIds(id, userId);
+        userRepository.incrementWorkoutPlansVersion(userId);
+        userRepository.incrementActivityLogsVersion(activityLogUserIds);
+        eventPublisher.publishEvent(WorkoutPlanEvent.of(WorkoutPlanEventType.UPDATED, updated, activityLogUserIds));
         log.info("Workout plan '{}' updated for user '{}'", updated.getTitle(), existing.getUser().getEmail());
         return updated;
     }
 
     @Override
+    @Transactional
     public void deleteWorkoutPlan(Long id, Long userId) {
         WorkoutPlan existing = workoutPlanRepository.findById(id)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "Workout plan not found"));
@@ -64,11 +115,35 @@ public class WorkoutPlanServiceImpl implements WorkoutPlanService {
             throw new CustomException(HttpStatus.FORBIDDEN, "Not authorized to delete this workout plan");
         }
 
+        // Read before the delete cascades to the activity logs
+        Set<Long> activityLogUserIds = activityLogUserIds(id, userId);
         workoutPlanRepository.delete(existing);
+        adherenceRepository.deleteByWorkoutPlanId(id);
+        userRepository.incrementWorkoutPlansVersion(userId);
+        userRepository.incrementActivityLogsVersion(activityLogUserIds);
+        // Listeners keeping derived state (streaks, leaderboards, outbox) must see the cascaded deletes too
+        for (ActivityLog activityLog : existing.getActivityLogs()) {
+            eventPublisher.publishEvent(ActivityLogEvent.deleted(ActivityLogMapper.toResponse(activityLog)));
+        }
+        eventPublisher.publishEvent(WorkoutPlanEvent.of(WorkoutPlanEventType.DELETED, existing, activityLogUserIds));
         log.info("Workout plan '{}' deleted for user '{}'", existing.getTitle(), existing.getUser().getEmail());
     }
 
+    // Plan changes show in the activity logs of everyone logging against it, forget drops every read of a user
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWorkoutPlanEvent(WorkoutPlanEvent event) {
+        singleFlight.forget(event.userId());
+        event.activityLogUserIds().forEach(singleFlight::forget);
+    }
+
+    private Set<Long> activityLogUserIds(Long workoutPlanId, Long ownerId) {
+        Set<Long> userIds = new HashSet<>(workoutPlanRepository.findActivityLogUserIds(workoutPlanId));
+        userIds.add(ownerId);
+        return userIds;
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public WorkoutPlan getWorkoutPlan(Long id, Long userId) {
         WorkoutPlan plan = workoutPlanRepository.findById(id)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "Workout plan not found"));
@@ -81,10 +156,46 @@ public class WorkoutPlanServiceImpl implements WorkoutPlanService {
     }
 
     @Override
-    public List<WorkoutPlan> getAllWorkoutPlans(Long userId) {
-        User user = userRepository.findById(userId)
+    @Transactional(readOnly = true)
+    public Map<Long, WorkoutPlan> getWorkoutPlans(List<Long> ids, Long userId) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("ids must contain between 1 and " + MAX_BATCH_SIZE + " ids");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain blanks");
+        }
+
+        // Plans of other users are left out like missing ones, a batch does not tell which ids exist
+        return workoutPlanRepository.findByUserIdAndIdIn(userId, Set.copyOf(ids)).stream()
+                .collect(Collectors.toMap(WorkoutPlan::getId, Function.identity()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getWorkoutPlansETag(Long userId) {
+        UserRepository.Versions versions = userRepository.findVersionsById(userId)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "User not found"));
 
-        return user.getWorkoutPlans();
+        // The user version covers the owner name embedded in every plan response
+        return "wp-" + userId + "-" + versions.getVersion() + "-" + versions.getWorkoutPlansVersion();
+    }
+
+    // Not transactional so callers waiting on an identical read in flight hold no connection. Keyed by the version
+    // the ETag is built from, reading it also fails an unknown user.
+    @Override
+    public List<WorkoutPlan> getAllWorkoutPlans(Long userId) {
+        String version = readOnlyTransactionTemplate.execute(status -> getWorkoutPlansETag(userId));
+        return singleFlight.execute("workout-plans", userId, version, () -> readOnlyTransactionTemplate.execute(
+                status -> workoutPlanRepository.findByUserId(userId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getWorkoutPlanFields(Long userId, Set<WorkoutPlanField> fields) {
+        if (!userRepository.existsById(userId)) {
+            throw new CustomException(HttpStatus.NOT_FOUND, "User not found");
+        }
+
+        return workoutPlanRepository.findFieldsByUserId(userId, fields);
     }
 }
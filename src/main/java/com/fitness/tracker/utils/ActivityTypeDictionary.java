@@ -0,0 +1,62 @@
+package com.fitness.tracker.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Immutable snapshot of the activity type dictionary. Lookups go through a key ignoring case and repeated
+// whitespace, names and aliases share one key space. Changes produce a new snapshot.
+public final class ActivityTypeDictionary {
+
+    public static final ActivityTypeDictionary EMPTY = new ActivityTypeDictionary(Map.of(), Map.of(), Map.of());
+
+    private final Map<Short, String> names;
+    private final Map<String, Short> codes;
+    private final Map<Short, List<String>> aliases;
+
+    private ActivityTypeDictionary(Map<Short, String> names, Map<String, Short> codes, Map<Short, List<String>> aliases) {
+        this.names = names;
+        this.codes = codes;
+        this.aliases = aliases;
+    }
+
+    public static String key(String activityType) {
+        return activityType.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public Short code(String activityType) {
+        return codes.get(key(activityType));
+    }
+
+    public String name(Short code) {
+        return names.get(code);
+    }
+
+    public Map<Short, String> names() {
+        return names;
+    }
+
+    public List<String> aliases(Short code) {
+        return aliases.getOrDefault(code, List.of());
+    }
+
+    public ActivityTypeDictionary withType(Short code, String name) {
+        Map<Short, String> newNames = new HashMap<>(names);
+        newNames.put(code, name);
+        Map<String, Short> newCodes = new HashMap<>(codes);
+        newCodes.put(key(name), code);
+        return new ActivityTypeDictionary(Map.copyOf(newNames), Map.copyOf(newCodes), aliases);
+    }
+
+    public ActivityTypeDictionary withAlias(Short code, String alias) {
+        Map<String, Short> newCodes = new HashMap<>(codes);
+        newCodes.put(key(alias), code);
+        Map<Short, List<String>> newAliases = new HashMap<>(aliases);
+        List<String> codeAliases = new ArrayList<>(aliases(code));
+        codeAliases.add(key(alias));
+        newAliases.put(code, List.copyOf(codeAliases));
+        return new ActivityTypeDictionary(names, Map.copyOf(newCodes), Map.copyOf(newAliases));
+    }
+}
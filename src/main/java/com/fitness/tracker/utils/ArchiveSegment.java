@@ -0,0 +1,186 @@
+package com.fitness.tracker.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+// Columnar file of archived activity logs. Every column is stored whole, ids, timestamps and workout plan ids as
+// deltas of the previous row, and all values as zigzag varints, so the deflated body of a sorted segment is a
+// fraction of the row size. Readers memory-map the file and inflate straight from the mapping.
+public final class ArchiveSegment {
+
+    private static final int MAGIC = 0x46544153;
+    private static final byte FORMAT_VERSION = 1;
+
+    // Activity type code and workout plan id are 0 when absent
+    public record Row(long id, long workoutPlanId, short activityTypeCode, int caloriesBurned, int duration,
+                      LocalDateTime createdDate) {}
+
+    private ArchiveSegment() {}
+
+    // Written to a temporary file first, so a segment is either complete or missing
+    public static void write(Path file, List<Row> rows) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(rows.size() * 16);
+        long previous = 0;
+        for (Row row : rows) {
+            writeVarLong(raw, row.id() - previous);
+            previous = row.id();
+        }
+        previous = 0;
+        for (Row row : rows) {
+            long micros = toMicros(row.createdDate());
+            writeVarLong(raw, micros - previous);
+            previous = micros;
+        }
+        previous = 0;
+        for (Row row : rows) {
+            writeVarLong(raw, row.workoutPlanId() - previous);
+            previous = row.workoutPlanId();
+        }
+        for (Row row : rows) {
+            writeVarLong(raw, row.activityTypeCode());
+        }
+        for (Row row : rows) {
+            writeVarLong(raw, row.caloriesBurned());
+        }
+        for (Row row : rows) {
+            writeVarLong(raw, row.duration());
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(raw.size() / 4 + 64);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflating = new DeflaterOutputStream(body, deflater)) {
+            raw.writeTo(deflating);
+        } finally {
+            deflater.end();
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporary))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(rows.size());
+            out.writeInt(raw.size());
+            body.writeTo(out);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static List<Row> read(Path file) throws IOException {
+        byte[] raw;
+        int count;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.remaining() < 13 || mapped.getInt() != MAGIC || mapped.get() != FORMAT_VERSION) {
+                throw new IOException("Not an archive segment: " + file);
+            }
+            count = mapped.getInt();
+            raw = new byte[mapped.getInt()];
+            inflate(mapped, raw, file);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        try {
+            long[] ids = readDeltas(buffer, count);
+            long[] createdMicros = readDeltas(buffer, count);
+            long[] workoutPlanIds = readDeltas(buffer, count);
+            long[] activityTypeCodes = readValues(buffer, count);
+            long[] caloriesBurned = readValues(buffer, count);
+            long[] durations = readValues(buffer, count);
+
+            List<Row> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(new Row(ids[i], workoutPlanIds[i], (short) activityTypeCodes[i], (int) caloriesBurned[i],
+                        (int) durations[i], fromMicros(createdMicros[i])));
+            }
+            return rows;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated archive segment: " + file, e);
+        }
+    }
+
+    private static void inflate(ByteBuffer input, byte[] output, Path file) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            int length = 0;
+            while (length < output.length) {
+                int inflated = inflater.inflate(output, length, output.length - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated archive segment: " + file);
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive segment: " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long[] readDeltas(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readVarLong(buffer);
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static long[] readValues(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = readVarLong(buffer);
+        }
+        return values;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long zigzag = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte next = buffer.get();
+            zigzag |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                break;
+            }
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    // Local timestamps, the offset only serves as a fixed epoch
+    private static long toMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), dateTime);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(micros, ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,137 @@
+package com.fitness.tracker.utils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// One bit per calendar day, bit i is the day start + i. The start is kept on a multiple of 8 epoch days so the
+// bitmap can grow in either direction by whole bytes. Ten years of history fit in under 500 bytes.
+public final class DayBitmap {
+
+    private long startEpochDay;
+    private byte[] bits;
+
+    public DayBitmap(LocalDate start, byte[] bits) {
+        if (start != null && start.toEpochDay() % 8 != 0) {
+            throw new IllegalArgumentException("Bitmap start must be aligned to 8 days");
+        }
+        this.startEpochDay = start == null ? 0 : start.toEpochDay();
+        this.bits = bits == null ? new byte[0] : bits;
+    }
+
+    public LocalDate getStart() {
+        return bits.length == 0 ? null : LocalDate.ofEpochDay(startEpochDay);
+    }
+
+    public byte[] getBits() {
+        return bits;
+    }
+
+    public boolean isSet(LocalDate day) {
+        return isSet(day.toEpochDay());
+    }
+
+    public void set(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        ensureCovers(epochDay);
+        int index = (int) (epochDay - startEpochDay);
+        bits[index >> 3] |= (byte) (1 << (index & 7));
+    }
+
+    public void clear(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        if (isSet(epochDay)) {
+            int index = (int) (epochDay - startEpochDay);
+            bits[index >> 3] &= (byte) ~(1 << (index & 7));
+        }
+    }
+
+    // Consecutive active days ending on the given day, 0 if that day is not active
+    public int runEndingAt(LocalDate day) {
+        int run = 0;
+        for (long epochDay = day.toEpochDay(); isSet(epochDay); epochDay--) {
+            run++;
+        }
+        return run;
+    }
+
+    // Length of the run of active days the given day belongs to, 0 if that day is not active
+    public int runThrough(LocalDate day) {
+        if (!isSet(day)) {
+            return 0;
+        }
+        int run = runEndingAt(day);
+        for (long epochDay = day.toEpochDay() + 1; isSet(epochDay); epochDay++) {
+            run++;
+        }
+        return run;
+    }
+
+    // Latest active day strictly before the given day, null if there is none
+    public LocalDate previousSet(LocalDate day) {
+        for (long epochDay = Math.min(day.toEpochDay() - 1, startEpochDay + bits.length * 8L - 1);
+             epochDay >= startEpochDay; epochDay--) {
+            if (isSet(epochDay)) {
+                return LocalDate.ofEpochDay(epochDay);
+            }
+        }
+        return null;
+    }
+
+    public int longestRun() {
+        int longest = 0;
+        int run = 0;
+        for (byte value : bits) {
+            if (value == (byte) 0xFF) {
+                run += 8;
+                continue;
+            }
+            for (int bit = 0; bit < 8; bit++) {
+                if ((value & (1 << bit)) != 0) {
+                    run++;
+                } else {
+                    longest = Math.max(longest, run);
+                    run = 0;
+                }
+            }
+        }
+        return Math.max(longest, run);
+    }
+
+    // Active days in [from, to], both inclusive
+    public int count(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (long epochDay = from.toEpochDay(); epochDay <= to.toEpochDay(); epochDay++) {
+            if (isSet(epochDay)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isSet(long epochDay) {
+        long index = epochDay - startEpochDay;
+        if (index < 0 || index >= bits.length * 8L) {
+            return false;
+        }
+        return (bits[(int) (index >> 3)] & (1 << (index & 7))) != 0;
+    }
+
+    private void ensureCovers(long epochDay) {
+        if (bits.length == 0) {
+            startEpochDay = Math.floorDiv(epochDay, 8) * 8;
+            bits = new byte[1];
+        }
+        if (epochDay < startEpochDay) {
+            long newStart = Math.floorDiv(epochDay, 8) * 8;
+            int shift = (int) ((startEpochDay - newStart) / 8);
+            byte[] grown = new byte[bits.length + shift];
+            System.arraycopy(bits, 0, grown, shift, bits.length);
+            bits = grown;
+            startEpochDay = newStart;
+        }
+        long requiredBytes = (epochDay - startEpochDay) / 8 + 1;
+        if (requiredBytes > bits.length) {
+            bits = Arrays.copyOf(bits, (int) requiredBytes);
+        }
+    }
+}
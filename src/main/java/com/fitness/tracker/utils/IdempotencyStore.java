@@ -0,0 +1,116 @@
+package com.fitness.tracker.utils;
+
+import com.fitness.tracker.configuration.IdempotencyProperties;
+import com.fitness.tracker.exception.CustomException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Bounded, TTL-evicted record of idempotency keys and their results. The first caller for a key runs the
+// action, concurrent callers with the same key wait for that result instead of running it again. Only finished
+// entries are evicted to make room, forgetting one still running would let a retry run the action twice.
+@Component
+public class IdempotencyStore {
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(IdempotencyProperties properties) {
+        this.ttlNanos = properties.ttl().toNanos();
+        this.maxEntries = properties.maxEntries();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String fingerprint, Supplier<T> action) {
+        long now = System.nanoTime();
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            evictExpired(now);
+            entry = entries.get(key);
+            if (entry == null) {
+                if (entries.size() >= maxEntries && !evictOldestFinished()) {
+                    throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Too many idempotent requests in progress, please retry later");
+                }
+                entry = new Entry(fingerprint, now);
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw new CustomException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency key has already been used for a different request");
+        }
+
+        if (owner) {
+            try {
+                T result = action.get();
+                entry.result().complete(result);
+                return result;
+            } catch (Throwable e) {
+                // Failed attempts are not remembered so the client can retry with the same key. Errors too, an
+                // entry left in progress could never be evicted and would hold its key for good
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                entry.result().completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        log.debug("Replaying stored result for idempotency key '{}'", key);
+        try {
+            return (T) entry.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private void evictExpired(long now) {
+        // Entries are kept in insertion order, so expired ones are always at the head
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().createdNanos() < ttlNanos) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private boolean evictOldestFinished() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().result().isDone()) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Entry(String fingerprint, long createdNanos, CompletableFuture<Object> result) {
+
+        Entry(String fingerprint, long createdNanos) {
+            this(fingerprint, createdNanos, new CompletableFuture<>());
+        }
+    }
+}
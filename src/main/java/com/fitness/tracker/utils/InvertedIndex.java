@@ -0,0 +1,114 @@
+package com.fitness.tracker.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// Term to document id postings in a sorted map, so every query term is also matched as a prefix through one
+// range scan. Writers are serialised, readers run concurrently and see each posting list as it is updated.
+public class InvertedIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Each query term must match a document term, a whole term scores higher than a prefix
+    private static final int EXACT_SCORE = 2;
+    private static final int PREFIX_SCORE = 1;
+
+    public record Hit(long id, int score) {}
+
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> documents = new ConcurrentHashMap<>();
+
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return List.copyOf(tokens);
+    }
+
+    public synchronized void put(long id, String... texts) {
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            terms.addAll(tokenize(text));
+        }
+        Set<String> previous = documents.put(id, terms);
+        if (previous != null) {
+            for (String term : previous) {
+                if (!terms.contains(term)) {
+                    removePosting(term, id);
+                }
+            }
+        }
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Set<String> terms = documents.remove(id);
+        if (terms != null) {
+            terms.forEach(term -> removePosting(term, id));
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // Documents matching every term, best first and newest first among equal scores
+    public List<Hit> search(List<String> terms, int limit) {
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            for (Map.Entry<String, Set<Long>> posting : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                int score = posting.getKey().equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+                for (Long id : posting.getValue()) {
+                    if (scores == null || scores.containsKey(id)) {
+                        termScores.merge(id, score, Math::max);
+                    }
+                }
+            }
+            if (scores != null) {
+                Map<Long, Integer> previous = scores;
+                termScores.replaceAll((id, score) -> score + previous.get(id));
+            }
+            scores = termScores;
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (scores == null) {
+            return List.of();
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+        hits.sort(Comparator.comparingInt(Hit::score).reversed().thenComparing(Comparator.comparingLong(Hit::id).reversed()));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    private void removePosting(String term, long id) {
+        Set<Long> ids = postings.get(term);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
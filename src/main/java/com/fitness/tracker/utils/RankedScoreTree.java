@@ -0,0 +1,166 @@
+package com.fitness.tracker.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Order-statistic treap of user scores, ordered by score descending then user id ascending. Every node keeps
+// its subtree size, so adding to a score, looking up a user's rank and reading the top k are all O(log n)
+// (plus k for the top). Methods are synchronized, a board is small enough that one lock is not contended.
+public class RankedScoreTree {
+
+    public record Entry(long userId, long score) {}
+
+    private static final class Node {
+        final long userId;
+        final long score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long userId, long score, int priority) {
+            this.userId = userId;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<Long, Long> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    // Adds delta to the user's score, a user whose score drops to zero or below leaves the board
+    public synchronized void add(long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        Long current = scores.get(userId);
+        long updated = (current == null ? 0 : current) + delta;
+        if (current != null) {
+            root = remove(root, current, userId);
+        }
+        if (updated > 0) {
+            scores.put(userId, updated);
+            Node[] parts = split(root, updated, userId);
+            root = merge(merge(parts[0], new Node(userId, updated, random.nextInt())), parts[1]);
+        } else {
+            scores.remove(userId);
+        }
+    }
+
+    // 1-based rank of the user, -1 when the user is not on the board
+    public synchronized int rank(long userId) {
+        Long score = scores.get(userId);
+        if (score == null) {
+            return -1;
+        }
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = compare(score, userId, node.score, node.userId);
+            if (comparison < 0) {
+                node = node.left;
+            } else if (comparison > 0) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                before += size(node.left);
+                break;
+            }
+        }
+        return before + 1;
+    }
+
+    public synchronized long score(long userId) {
+        return scores.getOrDefault(userId, 0L);
+    }
+
+    public synchronized List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(Math.min(limit, scores.size()));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !stack.isEmpty()) && entries.size() < limit) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            entries.add(new Entry(node.userId, node.score));
+            node = node.right;
+        }
+        return entries;
+    }
+
+    public synchronized long[] scores() {
+        return scores.values().stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public synchronized int size() {
+        return scores.size();
+    }
+
+    private static int compare(long score, long userId, long otherScore, long otherUserId) {
+        int comparison = Long.compare(otherScore, score);
+        return comparison != 0 ? comparison : Long.compare(userId, otherUserId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    // Splits into nodes ordered before (score, userId) and the rest
+    private static Node[] split(Node node, long score, long userId) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (compare(node.score, node.userId, score, userId) < 0) {
+            Node[] parts = split(node.right, score, userId);
+            node.right = parts[0];
+            return new Node[] {update(node), parts[1]};
+        }
+        Node[] parts = split(node.left, score, userId);
+        node.left = parts[1];
+        return new Node[] {parts[0], update(node)};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static Node remove(Node node, long score, long userId) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(score, userId, node.score, node.userId);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            node.left = remove(node.left, score, userId);
+        } else {
+            node.right = remove(node.right, score, userId);
+        }
+        return update(node);
+    }
+}
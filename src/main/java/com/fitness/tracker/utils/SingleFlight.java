@@ -0,0 +1,110 @@
+package com.fitness.tracker.utils;
+
+import com.fitness.tracker.configuration.ReadWriteRoutingDataSource;
+import com.fitness.tracker.configuration.SingleFlightProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Identical reads of a user arriving while one is in flight wait for its result instead of running the query again.
+// Unlike the idempotency store nothing is kept: the entry goes away as soon as the call returns or throws, and the
+// next caller starts a fresh one. Results are shared between callers, so they must only be read. Callers put the
+// version of what they read into the arguments, so a read never joins one that started before a write it has seen.
+@Component
+public class SingleFlight {
+
+    private final boolean enabled;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    private record Key(String name, Long userId, Object arguments) {}
+
+    private record Meters(Counter executed, Counter coalesced) {}
+
+    // The routing data source only exists with a replica configured
+    public SingleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry,
+                        ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+        this.enabled = properties.enabled();
+        this.routingDataSource = routingDataSource.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("single_flight.in_flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    public <T> T execute(String name, Long userId, Supplier<T> call) {
+        return execute(name, userId, null, call);
+    }
+
+    // Arguments beyond the user take part in the key and need value equality, e.g. a List of the parameters
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Long userId, Object arguments, Supplier<T> call) {
+        // Inside a transaction the caller may see its own uncommitted writes, a shared result would hide them. So
+        // could a shared replica read from a user whose recent writes keep their reads on the primary.
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()
+                || (routingDataSource != null && routingDataSource.routesReadsToPrimary())) {
+            return call.get();
+        }
+
+        Key key = new Key(name, userId, arguments);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            meters(name).coalesced().increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+
+        meters(name).executed().increment();
+        try {
+            T result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Conditional, forget may already have made room for a newer call under the same key
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // Later reads of the user start a fresh call, called once a write of the user has committed. Calls already in
+    // flight keep their waiters, whose versions predate the write.
+    public void forget(Long userId) {
+        inFlight.keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    private Meters meters(String name) {
+        return meters.computeIfAbsent(name, ignored -> {
+            Counter executed = meterRegistry.counter("single_flight.executed", "name", name);
+            Counter coalesced = meterRegistry.counter("single_flight.coalesced", "name", name);
+            // Share of callers served by another caller's query since startup
+            Gauge.builder("single_flight.coalescing.ratio", () -> {
+                        double total = executed.count() + coalesced.count();
+                        return total == 0 ? 0 : coalesced.count() / total;
+                    })
+                    .tag("name", name)
+                    .register(meterRegistry);
+            return new Meters(executed, coalesced);
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package com.fitness.tracker.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Append-only journal split into segments. Every appended line carries a sequence number, and a sealed
+// segment is deleted once everything up to its last sequence has been released (i.e. committed elsewhere).
+public class SpillJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".jsonl";
+
+    private final Path directory;
+    private final boolean syncOnAppend;
+    private final Deque<Segment> sealed = new ArrayDeque<>();
+    private Segment active;
+
+    public SpillJournal(Path directory) {
+        this(directory, false);
+    }
+
+    public SpillJournal(Path directory, boolean syncOnAppend) {
+        this.directory = directory;
+        this.syncOnAppend = syncOnAppend;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create spill directory " + directory, e);
+        }
+    }
+
+    // Lines left behind by a previous process, in the order they were appended
+    public synchronized List<String> recover() {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+            List<String> lines = new ArrayList<>();
+            for (Path segment : segments) {
+                lines.addAll(Files.readAllLines(segment, StandardCharsets.UTF_8));
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read spill directory " + directory, e);
+        }
+    }
+
+    // Deletes every segment file, used once recovered lines have been committed
+    public synchronized void clear() {
+        closeActive();
+        sealed.clear();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path segment : files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)).toList()) {
+                Files.deleteIfExists(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to clear spill directory " + directory, e);
+        }
+    }
+
+    public synchronized void append(long sequence, String line) {
+        try {
+            if (active == null) {
+                active = Segment.open(directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX)));
+            }
+            active.writer().write(line);
+            active.writer().newLine();
+            // Hand the line to the OS so it survives a process crash, surviving an OS crash takes a sync
+            active.writer().flush();
+            if (syncOnAppend) {
+                active.output().getChannel().force(false);
+            }
+            active.lastSequence = sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to spill journal", e);
+        }
+    }
+
+    // Seals the active segment so it can be released independently of lines appended afterwards
+    public synchronized void rotate() {
+        if (active == null) {
+            return;
+        }
+        try {
+            active.output().getChannel().force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to sync spill journal", e);
+        }
+        sealed.addLast(active);
+        closeActive();
+    }
+
+    public synchronized void release(long committedSequence) {
+        while (!sealed.isEmpty() && sealed.peekFirst().lastSequence <= committedSequence) {
+            Segment segment = sealed.pollFirst();
+            try {
+                Files.deleteIfExists(segment.path());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to delete spill segment " + segment.path(), e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (active != null) {
+            sealed.addLast(active);
+        }
+        closeActive();
+    }
+
+    private void closeActive() {
+        if (active == null) {
+            return;
+        }
+        try {
+            active.writer().close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close spill segment " + active.path(), e);
+        } finally {
+            active = null;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final FileOutputStream output;
+        private final BufferedWriter writer;
+        private long lastSequence;
+
+        private Segment(Path path, FileOutputStream output) {
+            this.path = path;
+            this.output = output;
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        }
+
+        static Segment open(Path path) throws IOException {
+            return new Segment(path, new FileOutputStream(path.toFile(), true));
+        }
+
+        Path path() {
+            return path;
+        }
+
+        FileOutputStream output() {
+            return output;
+        }
+
+        BufferedWriter writer() {
+            return writer;
+        }
+    }
+}
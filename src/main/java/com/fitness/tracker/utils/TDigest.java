@@ -0,0 +1,217 @@
+package com.fitness.tracker.utils;
+
+import java.util.Arrays;
+
+// Merging t-digest (Dunning) with the arcsine scale function: a few hundred centroids summarise any number of
+// values, with the best accuracy in the tails. Digests of the same compression merge by adding centroids, which
+// is how snapshots from other nodes are combined. Not thread safe, build a digest then publish it read only.
+public class TDigest {
+
+    private final double compression;
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    private final double[] bufferMeans;
+    private final double[] bufferWeights;
+    private int bufferSize;
+
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("compression must be at least 10");
+        }
+        this.compression = compression;
+        this.bufferMeans = new double[(int) (5 * compression)];
+        this.bufferWeights = new double[bufferMeans.length];
+    }
+
+    public static TDigest fromCentroids(double compression, double[] means, double[] weights, double min, double max) {
+        if (means.length != weights.length) {
+            throw new IllegalArgumentException("Centroid means and weights differ in length");
+        }
+        TDigest digest = new TDigest(compression);
+        for (int i = 0; i < means.length; i++) {
+            digest.add(means[i], weights[i]);
+        }
+        if (means.length > 0) {
+            digest.min = min;
+            digest.max = max;
+        }
+        digest.compress();
+        return digest;
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void add(double value, double weight) {
+        if (bufferSize == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[bufferSize] = value;
+        bufferWeights[bufferSize] = weight;
+        bufferSize++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.means.length; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        if (other.means.length > 0) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    // Fraction of the values strictly below x, interpolated between centroids
+    public double cdf(double x) {
+        compress();
+        int count = means.length;
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (x < min) {
+            return 0;
+        }
+        if (x >= max) {
+            return 1;
+        }
+        if (count == 1) {
+            return (x - min) / (max - min);
+        }
+        if (x < means[0]) {
+            return weights[0] / 2 * (x - min) / (means[0] - min) / totalWeight;
+        }
+        double before = 0;
+        for (int i = 0; i < count - 1; i++) {
+            if (x < means[i + 1]) {
+                double left = before + weights[i] / 2;
+                double right = before + weights[i] + weights[i + 1] / 2;
+                return (left + (right - left) * (x - means[i]) / (means[i + 1] - means[i])) / totalWeight;
+            }
+            before += weights[i];
+        }
+        int last = count - 1;
+        double left = totalWeight - weights[last] / 2;
+        return (left + weights[last] / 2 * (x - means[last]) / (max - means[last])) / totalWeight;
+    }
+
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("q must be between 0 and 1");
+        }
+        compress();
+        int count = means.length;
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count == 1) {
+            return means[0];
+        }
+        double target = q * totalWeight;
+        if (target < weights[0] / 2) {
+            return min + (means[0] - min) * target / (weights[0] / 2);
+        }
+        double before = 0;
+        for (int i = 0; i < count - 1; i++) {
+            double left = before + weights[i] / 2;
+            double right = before + weights[i] + weights[i + 1] / 2;
+            if (target < right) {
+                return means[i] + (means[i + 1] - means[i]) * (target - left) / (right - left);
+            }
+            before += weights[i];
+        }
+        int last = count - 1;
+        double left = totalWeight - weights[last] / 2;
+        return means[last] + (max - means[last]) * Math.min(1, (target - left) / (weights[last] / 2));
+    }
+
+    public double getCompression() {
+        return compression;
+    }
+
+    public long size() {
+        compress();
+        return Math.round(totalWeight);
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double[] getMeans() {
+        compress();
+        return means.clone();
+    }
+
+    public double[] getWeights() {
+        compress();
+        return weights.clone();
+    }
+
+    // Folds buffered values into the centroids, reads do it too, so a digest shared between threads is
+    // compressed before it is published
+    public void compress() {
+        if (bufferSize == 0) {
+            return;
+        }
+        int count = means.length + bufferSize;
+        double[][] centroids = new double[count][];
+        for (int i = 0; i < means.length; i++) {
+            centroids[i] = new double[] {means[i], weights[i]};
+        }
+        for (int i = 0; i < bufferSize; i++) {
+            centroids[means.length + i] = new double[] {bufferMeans[i], bufferWeights[i]};
+        }
+        bufferSize = 0;
+        Arrays.sort(centroids, (a, b) -> Double.compare(a[0], b[0]));
+
+        double total = 0;
+        for (double[] centroid : centroids) {
+            total += centroid[1];
+        }
+
+        double[] mergedMeans = new double[count];
+        double[] mergedWeights = new double[count];
+        int merged = 0;
+        double mean = centroids[0][0];
+        double weight = centroids[0][1];
+        double weightBefore = 0;
+        for (int i = 1; i < count; i++) {
+            double proposed = weight + centroids[i][1];
+            // A centroid may grow while it spans at most one unit of the scale function
+            if (scale((weightBefore + proposed) / total) - scale(weightBefore / total) <= 1) {
+                mean += (centroids[i][0] - mean) * centroids[i][1] / proposed;
+                weight = proposed;
+            } else {
+                mergedMeans[merged] = mean;
+                mergedWeights[merged] = weight;
+                merged++;
+                weightBefore += weight;
+                mean = centroids[i][0];
+                weight = centroids[i][1];
+            }
+        }
+        mergedMeans[merged] = mean;
+        mergedWeights[merged] = weight;
+        merged++;
+
+        means = Arrays.copyOf(mergedMeans, merged);
+        weights = Arrays.copyOf(mergedWeights, merged);
+        totalWeight = total;
+    }
+
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+}
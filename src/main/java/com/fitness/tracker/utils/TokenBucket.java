@@ -0,0 +1,45 @@
+package com.fitness.tracker.utils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket implemented as a generic cell rate algorithm: the whole state is a single
+// "theoretical arrival time" that is advanced with CAS, so consuming a token never blocks.
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(int capacity, Duration period, long nowNanos) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Token bucket capacity must be greater than 0");
+        }
+        if (period == null || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Token bucket period must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, period.toNanos() / capacity);
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    // Returns 0 if a token was taken, otherwise the nanoseconds until the next token is available
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A bucket is idle once it has been completely refilled for at least the given time
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrivalTime.get() >= idleNanos;
+    }
+}
@@ -0,0 +1,106 @@
+-- Schema of the postgres profile, Hibernate only validates it
+
+create table users (
+    id bigint generated by default as identity primary key,
+    name varchar(255),
+    email varchar(255) not null unique,
+    password varchar(255),
+    role varchar(255),
+    created_date timestamp(6),
+    version bigint default 0,
+    workout_plans_version bigint default 0 not null,
+    activity_logs_version bigint default 0 not null
+);
+
+-- Also serves lookups by role alone
+create index idx_users_role_created_date on users (role, created_date);
+create index idx_users_created_date on users (created_date);
+
+create table workout_plans (
+    id bigint generated by default as identity primary key,
+    title varchar(255),
+    description varchar(255),
+    duration integer not null,
+    created_date timestamp(6),
+    version bigint default 0,
+    user_id bigint not null references users (id)
+);
+
+create index idx_workout_plans_user on workout_plans (user_id);
+
+-- Partitioned by month, the partition key has to be part of the primary key. Ids stay unique through the
+-- identity column
+create table activity_logs (
+    id bigint generated by default as identity,
+    activity_type_code smallint,
+    calories_burned integer not null,
+    duration integer not null,
+    created_date timestamp(6) not null,
+    version bigint default 0,
+    user_id bigint not null references users (id),
+    workout_plan_id bigint references workout_plans (id),
+    primary key (id, created_date)
+) partition by range (created_date);
+
+-- Catches rows outside the monthly partitions kept ahead of time
+create table activity_logs_default partition of activity_logs default;
+
+create index idx_activity_logs_user_created_date on activity_logs (user_id, created_date);
+create index idx_activity_logs_workout_plan on activity_logs (workout_plan_id);
+create index idx_activity_logs_created_date on activity_logs (created_date, user_id);
+create index idx_activity_logs_activity_type on activity_logs (activity_type_code, created_date);
+
+create table activity_types (
+    code smallint generated by default as identity primary key,
+    name varchar(50) not null,
+    name_key varchar(50) not null unique
+);
+
+create table activity_type_aliases (
+    alias varchar(50) primary key,
+    code smallint not null
+);
+
+create table outbox_events (
+    id bigint generated by default as identity primary key,
+    activity_log_id bigint not null,
+    user_id bigint not null,
+    event_type varchar(255) not null,
+    payload varchar(4000) not null,
+    created_date timestamp(6),
+    published_date timestamp(6)
+);
+
+create index idx_outbox_events_published_date on outbox_events (published_date, id);
+
+create table user_streaks (
+    user_id bigint primary key,
+    last_active_date date,
+    current_streak integer not null,
+    best_streak integer not null,
+    bitmap_start date,
+    active_days bytea,
+    version bigint
+);
+
+create table workout_plan_adherence (
+    workout_plan_id bigint primary key,
+    user_id bigint not null,
+    sessions bigint not null,
+    total_duration bigint not null,
+    last_session_date timestamp(6)
+);
+
+create index idx_workout_plan_adherence_user on workout_plan_adherence (user_id);
+
+create table activity_log_archive_segments (
+    id bigint generated by default as identity primary key,
+    user_id bigint not null,
+    from_date timestamp(6) not null,
+    to_date timestamp(6) not null,
+    file_name varchar(255) not null unique,
+    row_count integer not null,
+    created_date timestamp(6)
+);
+
+create index idx_activity_log_archive_segments_user on activity_log_archive_segments (user_id, from_date);
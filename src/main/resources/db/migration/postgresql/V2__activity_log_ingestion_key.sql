@@ -0,0 +1,4 @@
+-- Key of the write-behind ingestion a log came from, so logs replayed from the spill journal are not inserted twice
+alter table activity_logs add column ingestion_key varchar(36);
+
+create index idx_activity_logs_ingestion_key on activity_logs (ingestion_key, created_date);
@@ -225,4 +225,27 @@ class ActivityLogIntegrationTest {
             .andExpect(jsonPath("$.message").value("Activity logs fetched successfully"))
             .andExpect(jsonPath("$.data[0].activityType").value("Rowing"));
     }
+
+    @Test
+    void getFieldsByUserSuccess() throws Exception {
+        activityLogRepository.deleteAll();
+
+        ActivityLog log = new ActivityLog();
+        log.setActivityType("Hiking");
+        log.setCaloriesBurned(400);
+        log.setDuration(90);
+        log.setUser(userRepository.findById(userId).orElseThrow());
+        log.setWorkoutPlan(workoutPlanRepository.findById(workoutPlanId).orElseThrow());
+        activityLogRepository.save(log);
+
+        mockMvc.perform(get("/api/activity-logs/by-user")
+                .header("Authorization", "Bearer " + jwtToken)
+                .param("userId", userId.toString())
+                .param("fields", "id,activityType,workoutPlanTitle"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].activityType").value("Hiking"))
+            .andExpect(jsonPath("$.data[0].workoutPlanTitle").value("Cardio Plan"))
+            .andExpect(jsonPath("$.data[0].caloriesBurned").doesNotExist())
+            .andExpect(jsonPath("$.data[0].userName").doesNotExist());
+    }
 }
@@ -0,0 +1,124 @@
+package com.fitness.tracker.integration.postgres;
+
+import com.fitness.tracker.dto.ActivityLogPartition;
+import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.entity.User;
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.repository.ActivityLogPartitionManager;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.repository.WorkoutPlanRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the prod profile against an embedded PostgreSQL, real server binaries unpacked from a Maven artifact, so
+// the Flyway migrations, partitioning and pool settings are checked without Docker
+@SpringBootTest(properties = "spring.profiles.active=prod")
+class PostgresProfileIntegrationTest {
+
+    // Stopped by its own shutdown hook
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ActivityLogPartitionManager partitionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Test
+    void migrationCreatesExplicitIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select indexname from pg_indexes where tablename in ('users', 'workout_plans', 'activity_logs')", String.class);
+
+        assertThat(indexes).contains("idx_activity_logs_user_created_date", "idx_activity_logs_workout_plan",
+                "idx_workout_plans_user", "idx_users_role_created_date");
+    }
+
+    @Test
+    void partitionsAreCreatedAheadAtStartup() {
+        assertThat(partitionManager.findPartitions())
+                .filteredOn(ActivityLogPartition::attached)
+                .extracting(ActivityLogPartition::month)
+                .contains(YearMonth.now(), YearMonth.now().plusMonths(3));
+    }
+
+    @Test
+    void createdDateRangeReadsOnlyItsPartition() {
+        User user = userRepository.save(new User(null, "Pat", "pat@postgres.test", "Secret@123", UserRole.USER, null, null, null));
+        WorkoutPlan plan = new WorkoutPlan();
+        plan.setTitle("Intervals");
+        plan.setDuration(30);
+        plan.setUser(user);
+        workoutPlanRepository.save(plan);
+        ActivityLog activityLog = new ActivityLog();
+        activityLog.setActivityType("Running");
+        activityLog.setCaloriesBurned(250);
+        activityLog.setDuration(30);
+        activityLog.setUser(user);
+        activityLog.setWorkoutPlan(plan);
+        activityLogRepository.save(activityLog);
+
+        YearMonth month = YearMonth.now();
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        assertThat(activityLogRepository.findByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(user.getId(), from, to))
+                .hasSize(1);
+
+        String queryPlan = String.join("\n", jdbcTemplate.queryForList("explain select * from activity_logs where user_id = "
+                + user.getId() + " and created_date >= '" + from + "' and created_date < '" + to + "'", String.class));
+        assertThat(queryPlan).contains(ActivityLogPartitionManager.tableName(month)).doesNotContain("activity_logs_default");
+    }
+
+    @Test
+    void poolUsesProductionSettings() {
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+
+        assertThat(hikari.getPoolName()).isEqualTo("fitness-primary");
+        assertThat(hikari.isAutoCommit()).isFalse();
+        assertThat(hikari.getMinimumIdle()).isEqualTo(hikari.getMaximumPoolSize());
+        assertThat(hikari.getDataSourceProperties()).containsEntry("prepareThreshold", "3");
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -166,4 +166,17 @@ class UserIntegrationTest {
             .andExpect(status().isNotFound())
             .andExpect(jsonPath("$.message").value("User not found"));
     }
+
+    @Test
+    void getUsersByRoleAndEmailPrefix() throws Exception {
+        mockMvc.perform(get("/api/users")
+                .header("Authorization", "Bearer " + jwtToken)
+                .param("role", "ADMIN")
+                .param("emailPrefix", "admin@")
+                .param("count", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.content[0].email").value("admin@test.com"))
+            .andExpect(jsonPath("$.data.hasNext").value(false))
+            .andExpect(jsonPath("$.data.totalElements").value(1));
+    }
 }
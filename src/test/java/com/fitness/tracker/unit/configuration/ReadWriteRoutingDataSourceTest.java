@@ -0,0 +1,123 @@
+package com.fitness.tracker.unit.configuration;
+
+import com.fitness.tracker.configuration.ReadWriteRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(Duration.ofSeconds(5));
+        signIn("ana@example.com");
+
+        assertThat(inTransaction(routing, true, false)).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void writeTransactionGoesToPrimary() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(Duration.ofSeconds(5));
+        signIn("ana@example.com");
+
+        assertThat(inTransaction(routing, false, false)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readsOfWriterStayOnPrimaryWithinWindow() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(Duration.ofMinutes(1));
+        signIn("ana@example.com");
+        inTransaction(routing, false, true);
+
+        assertThat(inTransaction(routing, true, false)).isSameAs(primaryConnection);
+        assertThat(routing.routesReadsToPrimary()).isTrue();
+
+        signIn("ben@example.com");
+        assertThat(inTransaction(routing, true, false)).isSameAs(replicaConnection);
+        assertThat(routing.routesReadsToPrimary()).isFalse();
+    }
+
+    @Test
+    void readsGoBackToReplicaOnceWindowHasPassed() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(Duration.ZERO);
+        signIn("ana@example.com");
+        inTransaction(routing, false, true);
+
+        assertThat(inTransaction(routing, true, false)).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinReads() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(Duration.ofMinutes(1));
+        signIn("ana@example.com");
+        inTransaction(routing, false, false);
+
+        assertThat(inTransaction(routing, true, false)).isSameAs(replicaConnection);
+    }
+
+    private ReadWriteRoutingDataSource routing(Duration window) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, window);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private void signIn(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    // Fetches a connection the way a transaction manager would, then commits or rolls back
+    private Connection inTransaction(ReadWriteRoutingDataSource routing, boolean readOnly, boolean commit)
+            throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            Connection connection = routing.getConnection();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            return connection;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+}
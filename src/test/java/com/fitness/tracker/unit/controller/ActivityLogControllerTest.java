@@ -2,14 +2,20 @@ package com.fitness.tracker.unit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fitness.tracker.controller.ActivityLogController;
+import com.fitness.tracker.dto.ActivityLogExportRow;
 import com.fitness.tracker.dto.request.ActivityLogRequest;
+import com.fitness.tracker.dto.response.ActivityLogColumnarResponse;
 import com.fitness.tracker.dto.response.ActivityLogResponse;
 import com.fitness.tracker.entity.ActivityLog;
 import com.fitness.tracker.entity.User;
 import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.ActivityLogField;
 import com.fitness.tracker.enums.UserRole;
 import com.fitness.tracker.exception.GlobalExceptionHandler;
 import com.fitness.tracker.mapper.ActivityLogMapper;
+import com.fitness.tracker.service.ActivityFeedService;
+import com.fitness.tracker.service.ActivityLogArchiveService;
+import com.fitness.tracker.service.ActivityLogIngestionService;
 import com.fitness.tracker.service.ActivityLogService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,11 +26,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +50,15 @@ class ActivityLogControllerTest {
     @Mock
     private ActivityLogService activityLogService;
 
+    @Mock
+    private ActivityLogIngestionService activityLogIngestionService;
+
+    @Mock
+    private ActivityFeedService activityFeedService;
+
+    @Mock
+    private ActivityLogArchiveService activityLogArchiveService;
+
     @InjectMocks
     private ActivityLogController activityLogController;
 
@@ -75,7 +98,7 @@ class ActivityLogControllerTest {
 
     @Test
     void createActivityLogSuccess() throws Exception {
-        when(activityLogService.createActivityLog(eq(1L), eq(10L), any(ActivityLog.class)))
+        when(activityLogService.createActivityLog(eq(1L), eq(10L), any(ActivityLog.class), isNull()))
                 .thenReturn(validEntity);
 
         mockMvc.perform(post("/api/activity-logs")
@@ -88,6 +111,21 @@ class ActivityLogControllerTest {
                 .andExpect(jsonPath("$.data.activityType").value("Running"));
     }
 
+    @Test
+    void createActivityLogPassesIdempotencyKey() throws Exception {
+        when(activityLogService.createActivityLog(eq(1L), eq(10L), any(ActivityLog.class), eq("retry-1")))
+                .thenReturn(validEntity);
+
+        mockMvc.perform(post("/api/activity-logs")
+                        .header("Idempotency-Key", "retry-1")
+                        .param("userId", "1")
+                        .param("workoutPlanId", "10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(100));
+    }
+
     @Test
     void createActivityLogValidationFailure() throws Exception {
         ActivityLogRequest invalid = new ActivityLogRequest("", 0, 0);
@@ -101,6 +139,19 @@ class ActivityLogControllerTest {
                 .andExpect(jsonPath("$.message").exists());
     }
 
+    @Test
+    void ingestActivityLogAccepted() throws Exception {
+        mockMvc.perform(post("/api/activity-logs/ingest")
+                        .param("userId", "1")
+                        .param("workoutPlanId", "10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value("Activity log accepted for ingestion"));
+
+        verify(activityLogIngestionService).accept(eq(1L), eq(10L), any(ActivityLog.class));
+    }
+
     @Test
     void updateActivityLogSuccess() throws Exception {
         when(activityLogService.updateActivityLog(eq(100L), eq(1L), eq(10L), any(ActivityLog.class)))
@@ -135,17 +186,115 @@ class ActivityLogControllerTest {
                 .andExpect(jsonPath("$.data.activityType").value("Running"));
     }
 
+    @Test
+    void getActivityLogsInRequestOrderWithNotFoundMarkers() throws Exception {
+        when(activityLogService.getActivityLogs(List.of(7L, 100L), 1L)).thenReturn(Map.of(100L, validEntity));
+
+        mockMvc.perform(get("/api/activity-logs/batch")
+                        .param("userId", "1")
+                        .param("ids", "7,100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Activity logs fetched successfully"))
+                .andExpect(jsonPath("$.data[0].id").value(7))
+                .andExpect(jsonPath("$.data[0].found").value(false))
+                .andExpect(jsonPath("$.data[0].data").doesNotExist())
+                .andExpect(jsonPath("$.data[1].id").value(100))
+                .andExpect(jsonPath("$.data[1].found").value(true))
+                .andExpect(jsonPath("$.data[1].data.activityType").value("Running"));
+    }
+
+    @Test
+    void getActivityLogsRejectsTooManyIds() throws Exception {
+        when(activityLogService.getActivityLogs(any(), eq(1L)))
+                .thenThrow(new IllegalArgumentException("ids must contain between 1 and 200 ids"));
+
+        mockMvc.perform(get("/api/activity-logs/batch")
+                        .param("userId", "1")
+                        .param("ids", "1,2"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAllByUserSuccess() throws Exception {
-        when(activityLogService.getAllActivityLogsByUser(1L)).thenReturn(List.of(validEntity));
+        when(activityLogService.getActivityLogsETag(1L)).thenReturn("al-1-0-7");
+        when(activityLogService.getActivityLogsByUser(1L, null, null)).thenReturn(List.of(validEntity));
 
         mockMvc.perform(get("/api/activity-logs/by-user")
                         .param("userId", "1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"al-1-0-7\""))
                 .andExpect(jsonPath("$.message").value("Activity logs fetched successfully"))
                 .andExpect(jsonPath("$.data[0].activityType").value("Running"));
     }
 
+    @Test
+    void getAllByUserAsCborHasItsOwnETag() throws Exception {
+        when(activityLogService.getActivityLogsETag(1L)).thenReturn("al-1-0-7");
+        when(activityLogService.getActivityLogsByUser(1L, null, null)).thenReturn(List.of(validEntity));
+
+        mockMvc.perform(get("/api/activity-logs/by-user")
+                        .param("userId", "1")
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/cbor"))
+                .andExpect(header().string("ETag", "\"al-1-0-7-cbor\""));
+    }
+
+    @Test
+    void getAllByUserNotModified() throws Exception {
+        when(activityLogService.getActivityLogsETag(1L)).thenReturn("al-1-0-7");
+
+        mockMvc.perform(get("/api/activity-logs/by-user")
+                        .param("userId", "1")
+                        .header("If-None-Match", "\"al-1-0-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(activityLogService, never()).getActivityLogsByUser(any(), any(), any());
+    }
+
+    @Test
+    void getAllByUserInDateRange() throws Exception {
+        when(activityLogService.getActivityLogsETag(1L)).thenReturn("al-1-0-7");
+        when(activityLogService.getActivityLogsByUser(1L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)))
+                .thenReturn(List.of(validEntity));
+
+        mockMvc.perform(get("/api/activity-logs/by-user")
+                        .param("userId", "1")
+                        .param("from", "2025-03-01")
+                        .param("to", "2025-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].activityType").value("Running"));
+    }
+
+    @Test
+    void getAllByUserInvalidDateRange() throws Exception {
+        when(activityLogService.getActivityLogsETag(1L)).thenReturn("al-1-0-7");
+        when(activityLogService.getActivityLogsByUser(1L, LocalDate.of(2025, 3, 1), null))
+                .thenThrow(new IllegalArgumentException("from and to must be given together"));
+
+        mockMvc.perform(get("/api/activity-logs/by-user")
+                        .param("userId", "1")
+                        .param("from", "2025-03-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("from and to must be given together"));
+    }
+
+    @Test
+    void exportByUserWritesCsv() throws Exception {
+        when(activityLogArchiveService.exportActivityLogs(1L, null, null)).thenReturn(List.of(
+                new ActivityLogExportRow(5L, LocalDateTime.of(2024, 1, 2, 7, 30), "Running, trail", 300, 40, null, true),
+                new ActivityLogExportRow(100L, LocalDateTime.of(2025, 3, 1, 18, 0), "Running", 200, 30, 10L, false)));
+
+        mockMvc.perform(get("/api/activity-logs/export")
+                        .param("userId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"activity-logs-1.csv\""))
+                .andExpect(content().string("id,createdDate,activityType,caloriesBurned,duration,workoutPlanId,archived\n"
+                        + "5,2024-01-02T07:30,\"Running, trail\",300,40,,true\n"
+                        + "100,2025-03-01T18:00,Running,200,30,10,false\n"));
+    }
+
     @Test
     void getAllByWorkoutPlanSuccess() throws Exception {
         when(activityLogService.getAllActivityLogsByWorkoutPlan(10L)).thenReturn(List.of(validEntity));
@@ -156,4 +305,81 @@ class ActivityLogControllerTest {
                 .andExpect(jsonPath("$.message").value("Activity logs fetched successfully"))
                 .andExpect(jsonPath("$.data[0].workoutPlanTitle").value("Cardio Plan"));
     }
+
+    @Test
+    void getAllByWorkoutPlanColumnarDictionaryEncodesRepeatedFields() throws Exception {
+        ActivityLog second = ActivityLogMapper.toEntity(new ActivityLogRequest("Cycling", 300, 45));
+        second.setId(101L);
+        second.setUser(validEntity.getUser());
+        second.setWorkoutPlan(validEntity.getWorkoutPlan());
+        second.setCreatedDate(LocalDateTime.now());
+        when(activityLogService.getAllActivityLogsByWorkoutPlan(10L)).thenReturn(List.of(validEntity, second));
+
+        mockMvc.perform(get("/api/activity-logs/by-workout")
+                        .param("workoutPlanId", "10")
+                        .accept(ActivityLogColumnarResponse.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ActivityLogColumnarResponse.MEDIA_TYPE))
+                .andExpect(jsonPath("$.data.count").value(2))
+                .andExpect(jsonPath("$.data.users.length()").value(1))
+                .andExpect(jsonPath("$.data.users[0].name").value("John"))
+                .andExpect(jsonPath("$.data.workoutPlans.length()").value(1))
+                .andExpect(jsonPath("$.data.activityTypes[1]").value("Cycling"))
+                .andExpect(jsonPath("$.data.id[1]").value(101))
+                .andExpect(jsonPath("$.data.user[1]").value(0))
+                .andExpect(jsonPath("$.data.workoutPlan[1]").value(0));
+    }
+
+    @Test
+    void getAllByWorkoutPlanDefaultsToJson() throws Exception {
+        when(activityLogService.getAllActivityLogsByWorkoutPlan(10L)).thenReturn(List.of(validEntity));
+
+        mockMvc.perform(get("/api/activity-logs/by-workout")
+                        .param("workoutPlanId", "10")
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data[0].workoutPlanTitle").value("Cardio Plan"));
+    }
+
+    @Test
+    void getAllByWorkoutPlanAsCbor() throws Exception {
+        when(activityLogService.getAllActivityLogsByWorkoutPlan(10L)).thenReturn(List.of(validEntity));
+
+        mockMvc.perform(get("/api/activity-logs/by-workout")
+                        .param("workoutPlanId", "10")
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/cbor"));
+    }
+
+    @Test
+    void getFieldsByUserSelectsRequestedFields() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 100L);
+        row.put("caloriesBurned", 200);
+        when(activityLogService.getActivityLogsETag(1L)).thenReturn("al-1-0-7");
+        when(activityLogService.getActivityLogFieldsByUser(1L,
+                EnumSet.of(ActivityLogField.ID, ActivityLogField.CALORIES_BURNED))).thenReturn(List.of(row));
+
+        mockMvc.perform(get("/api/activity-logs/by-user")
+                        .param("userId", "1")
+                        .param("fields", "caloriesBurned, id"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"al-1-0-7-fields-5\""))
+                .andExpect(jsonPath("$.data[0].id").value(100))
+                .andExpect(jsonPath("$.data[0].caloriesBurned").value(200))
+                .andExpect(jsonPath("$.data[0].activityType").doesNotExist());
+
+        verify(activityLogService, never()).getActivityLogsByUser(any(), any(), any());
+    }
+
+    @Test
+    void getFieldsByUserUnknownField() throws Exception {
+        mockMvc.perform(get("/api/activity-logs/by-user")
+                        .param("userId", "1")
+                        .param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Unknown field 'password'")));
+    }
 }
@@ -0,0 +1,66 @@
+package com.fitness.tracker.unit.controller;
+
+import com.fitness.tracker.controller.AdherenceController;
+import com.fitness.tracker.dto.response.PageResponse;
+import com.fitness.tracker.dto.response.WorkoutPlanAdherenceResponse;
+import com.fitness.tracker.exception.GlobalExceptionHandler;
+import com.fitness.tracker.service.AdherenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class AdherenceControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private AdherenceService adherenceService;
+
+    @InjectMocks
+    private AdherenceController adherenceController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(adherenceController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getRankedWorkoutPlansSuccess() throws Exception {
+        when(adherenceService.getRankedWorkoutPlans(1L, 0, 5)).thenReturn(new PageResponse<>(
+                List.of(new WorkoutPlanAdherenceResponse(2L, 1L, "Plan B", 30, 4, 132, 33.0, 1.1, null)),
+                0, 5, false, 1L));
+
+        mockMvc.perform(get("/api/adherence/workout-plans")
+                        .param("userId", "1")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Workout plans ranked successfully"))
+                .andExpect(jsonPath("$.data.content[0].workoutPlanId").value(2))
+                .andExpect(jsonPath("$.data.content[0].adherence").value(1.1))
+                .andExpect(jsonPath("$.data.totalElements").value(1));
+    }
+
+    @Test
+    void getRankedWorkoutPlansInvalidSize() throws Exception {
+        when(adherenceService.getRankedWorkoutPlans(null, 0, 500))
+                .thenThrow(new IllegalArgumentException("size must be between 1 and 100"));
+
+        mockMvc.perform(get("/api/adherence/workout-plans").param("size", "500"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("size must be between 1 and 100"));
+    }
+}
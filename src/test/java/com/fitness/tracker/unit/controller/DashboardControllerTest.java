@@ -0,0 +1,74 @@
+package com.fitness.tracker.unit.controller;
+
+import com.fitness.tracker.controller.DashboardController;
+import com.fitness.tracker.dto.response.DashboardResponse;
+import com.fitness.tracker.dto.response.DashboardSectionResponse;
+import com.fitness.tracker.dto.response.StreakResponse;
+import com.fitness.tracker.dto.response.UserResponse;
+import com.fitness.tracker.dto.response.WeeklyTotalsResponse;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.exception.GlobalExceptionHandler;
+import com.fitness.tracker.service.DashboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class DashboardControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @InjectMocks
+    private DashboardController dashboardController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(dashboardController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getDashboardWithTimedOutSection() throws Exception {
+        when(dashboardService.getDashboard(1L)).thenReturn(new DashboardResponse(1L,
+                DashboardSectionResponse.ok(new UserResponse(1L, "John Doe", "john@example.com", UserRole.USER)),
+                DashboardSectionResponse.ok(List.of()),
+                DashboardSectionResponse.ok(List.of()),
+                DashboardSectionResponse.ok(new WeeklyTotalsResponse(LocalDate.of(2025, 3, 10), 3, 900, 120)),
+                DashboardSectionResponse.<StreakResponse>timedOut()));
+
+        mockMvc.perform(get("/api/dashboard/user/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Dashboard fetched successfully"))
+                .andExpect(jsonPath("$.data.profile.status").value("OK"))
+                .andExpect(jsonPath("$.data.profile.data.name").value("John Doe"))
+                .andExpect(jsonPath("$.data.weeklyTotals.data.caloriesBurned").value(900))
+                .andExpect(jsonPath("$.data.streak.status").value("TIMED_OUT"))
+                .andExpect(jsonPath("$.data.streak.data").doesNotExist());
+    }
+
+    @Test
+    void getDashboardUserNotFound() throws Exception {
+        when(dashboardService.getDashboard(1L)).thenThrow(new CustomException(HttpStatus.NOT_FOUND, "User not found"));
+
+        mockMvc.perform(get("/api/dashboard/user/1"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,85 @@
+package com.fitness.tracker.unit.controller;
+
+import com.fitness.tracker.controller.LeaderboardController;
+import com.fitness.tracker.dto.response.LeaderboardEntryResponse;
+import com.fitness.tracker.dto.response.LeaderboardRankResponse;
+import com.fitness.tracker.dto.response.LeaderboardResponse;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import com.fitness.tracker.exception.GlobalExceptionHandler;
+import com.fitness.tracker.service.LeaderboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class LeaderboardControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @InjectMocks
+    private LeaderboardController leaderboardController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(leaderboardController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getLeaderboardSuccess() throws Exception {
+        LocalDate start = LocalDate.of(2025, 3, 3);
+        when(leaderboardService.getLeaderboard(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, "Running", 5))
+                .thenReturn(new LeaderboardResponse(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, "Running", start, 1,
+                        List.of(new LeaderboardEntryResponse(1, 1L, "John", 900))));
+
+        mockMvc.perform(get("/api/leaderboards")
+                        .param("period", "WEEKLY")
+                        .param("metric", "CALORIES")
+                        .param("activityType", "Running")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Leaderboard fetched successfully"))
+                .andExpect(jsonPath("$.data.entries[0].userName").value("John"))
+                .andExpect(jsonPath("$.data.entries[0].score").value(900));
+    }
+
+    @Test
+    void getRankSuccess() throws Exception {
+        when(leaderboardService.getRank(1L, LeaderboardPeriod.MONTHLY, LeaderboardMetric.DURATION, null))
+                .thenReturn(new LeaderboardRankResponse(1L, LeaderboardPeriod.MONTHLY, LeaderboardMetric.DURATION, null,
+                        LocalDate.of(2025, 3, 1), 3, 120, 10));
+
+        mockMvc.perform(get("/api/leaderboards/user/1")
+                        .param("period", "MONTHLY")
+                        .param("metric", "DURATION"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.rank").value(3))
+                .andExpect(jsonPath("$.data.totalUsers").value(10));
+    }
+
+    @Test
+    void getLeaderboardInvalidPeriod() throws Exception {
+        mockMvc.perform(get("/api/leaderboards")
+                        .param("period", "DAILY")
+                        .param("metric", "CALORIES"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'DAILY' for parameter 'period'"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.fitness.tracker.unit.controller;
+
+import com.fitness.tracker.controller.PercentileController;
+import com.fitness.tracker.dto.PercentileSnapshot;
+import com.fitness.tracker.dto.response.PercentileResponse;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import com.fitness.tracker.exception.GlobalExceptionHandler;
+import com.fitness.tracker.service.PercentileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PercentileControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private PercentileService percentileService;
+
+    @InjectMocks
+    private PercentileController percentileController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(percentileController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getUserPercentileSuccess() throws Exception {
+        when(percentileService.getUserPercentile(1L, LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null))
+                .thenReturn(new PercentileResponse(1L, LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null,
+                        LocalDate.of(2025, 3, 3), 750, 74.9, 1000));
+
+        mockMvc.perform(get("/api/percentiles/user/1")
+                        .param("period", "WEEKLY")
+                        .param("metric", "CALORIES"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Percentile fetched successfully"))
+                .andExpect(jsonPath("$.data.percentile").value(74.9))
+                .andExpect(jsonPath("$.data.activeUsers").value(1000));
+    }
+
+    @Test
+    void mergeOwnSnapshotBadRequest() throws Exception {
+        doThrow(new IllegalArgumentException("Snapshot of this node cannot be merged into itself"))
+                .when(percentileService).mergeSnapshot(any(PercentileSnapshot.class));
+
+        mockMvc.perform(post("/api/percentiles/snapshot")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nodeId\":\"local\",\"digests\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Snapshot of this node cannot be merged into itself"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.fitness.tracker.unit.controller;
+
+import com.fitness.tracker.controller.StreakController;
+import com.fitness.tracker.dto.response.StreakResponse;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.exception.GlobalExceptionHandler;
+import com.fitness.tracker.service.StreakService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class StreakControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private StreakService streakService;
+
+    @InjectMocks
+    private StreakController streakController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(streakController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getStreakSuccess() throws Exception {
+        when(streakService.getStreak(1L)).thenReturn(new StreakResponse(1L, 4, 9, LocalDate.of(2025, 3, 10), 12));
+
+        mockMvc.perform(get("/api/streaks/user/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Streak fetched successfully"))
+                .andExpect(jsonPath("$.data.currentStreak").value(4))
+                .andExpect(jsonPath("$.data.bestStreak").value(9))
+                .andExpect(jsonPath("$.data.activeDaysThisMonth").value(12));
+    }
+
+    @Test
+    void getStreakUserNotFound() throws Exception {
+        when(streakService.getStreak(1L)).thenThrow(new CustomException(HttpStatus.NOT_FOUND, "User not found"));
+
+        mockMvc.perform(get("/api/streaks/user/1"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("User not found"));
+    }
+}
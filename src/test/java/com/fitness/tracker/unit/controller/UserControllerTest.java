@@ -2,10 +2,13 @@ package com.fitness.tracker.unit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fitness.tracker.controller.UserController;
+import com.fitness.tracker.dto.UserFilter;
 import com.fitness.tracker.dto.request.UserRequest;
+import com.fitness.tracker.dto.response.PageResponse;
 import com.fitness.tracker.dto.response.UserResponse;
 import com.fitness.tracker.entity.User;
 import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.enums.UserSortField;
 import com.fitness.tracker.exception.GlobalExceptionHandler;
 import com.fitness.tracker.mapper.UserMapper;
 import com.fitness.tracker.service.UserService;
@@ -14,9 +17,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.List;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
@@ -177,15 +182,31 @@ class UserControllerTest {
     }
 
     @Test
-    void getAllUsersSuccess() throws Exception {
-        User userEntity = UserMapper.toEntity(validRequest);
-        userEntity.setId(1L);
-
-        when(userService.getAllUsers()).thenReturn(List.of(userEntity));
-
-        mockMvc.perform(get("/api/users"))
+    void getUsersSuccess() throws Exception {
+        UserFilter filter = new UserFilter(UserRole.USER, LocalDate.of(2025, 1, 1), null, "john");
+        when(userService.getUsers(filter, UserSortField.CREATED_DATE, Sort.Direction.DESC, 0, 10, true))
+                .thenReturn(new PageResponse<>(List.of(new UserResponse(1L, "John Doe", "john@example.com", UserRole.USER)),
+                        0, 10, false, 1L));
+
+        mockMvc.perform(get("/api/users")
+                        .param("role", "USER")
+                        .param("createdFrom", "2025-01-01")
+                        .param("emailPrefix", "john")
+                        .param("sort", "CREATED_DATE")
+                        .param("direction", "DESC")
+                        .param("size", "10")
+                        .param("count", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Users fetched successfully"))
-                .andExpect(jsonPath("$.data[0].email").value("john@example.com"));
+                .andExpect(jsonPath("$.data.content[0].email").value("john@example.com"))
+                .andExpect(jsonPath("$.data.hasNext").value(false))
+                .andExpect(jsonPath("$.data.totalElements").value(1));
+    }
+
+    @Test
+    void getUsersInvalidSort() throws Exception {
+        mockMvc.perform(get("/api/users").param("sort", "PASSWORD"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'PASSWORD' for parameter 'sort'"));
     }
 }
@@ -7,8 +7,10 @@ import com.fitness.tracker.dto.response.WorkoutPlanResponse;
 import com.fitness.tracker.entity.User;
 import com.fitness.tracker.entity.WorkoutPlan;
 import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.enums.WorkoutPlanField;
 import com.fitness.tracker.exception.GlobalExceptionHandler;
 import com.fitness.tracker.mapper.WorkoutPlanMapper;
+import com.fitness.tracker.service.WorkoutPlanSearchService;
 import com.fitness.tracker.service.WorkoutPlanService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,10 +22,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,6 +41,9 @@ class WorkoutPlanControllerTest {
     @Mock
     private WorkoutPlanService workoutPlanService;
 
+    @Mock
+    private WorkoutPlanSearchService workoutPlanSearchService;
+
     @InjectMocks
     private WorkoutPlanController workoutPlanController;
 
@@ -134,14 +143,84 @@ class WorkoutPlanControllerTest {
                 .andExpect(jsonPath("$.data.title").value("Plan A"));
     }
 
+    @Test
+    void getWorkoutPlansInRequestOrderWithNotFoundMarkers() throws Exception {
+        WorkoutPlan planEntity = createEntity(1L);
+        when(workoutPlanService.getWorkoutPlans(List.of(1L, 5L), 1L)).thenReturn(Map.of(1L, planEntity));
+
+        mockMvc.perform(get("/api/workout-plans/user/1/batch").param("ids", "1,5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Workout plans fetched successfully"))
+                .andExpect(jsonPath("$.data[0].found").value(true))
+                .andExpect(jsonPath("$.data[0].data.title").value("Plan A"))
+                .andExpect(jsonPath("$.data[1].id").value(5))
+                .andExpect(jsonPath("$.data[1].found").value(false));
+    }
+
     @Test
     void getAllWorkoutPlansSuccess() throws Exception {
         WorkoutPlan planEntity = createEntity(1L);
+        when(workoutPlanService.getWorkoutPlansETag(1L)).thenReturn("wp-1-0-3");
         when(workoutPlanService.getAllWorkoutPlans(1L)).thenReturn(List.of(planEntity));
 
         mockMvc.perform(get("/api/workout-plans/user/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"wp-1-0-3\""))
                 .andExpect(jsonPath("$.message").value("Workout plans fetched successfully"))
                 .andExpect(jsonPath("$.data[0].title").value("Plan A"));
     }
+
+    @Test
+    void getAllWorkoutPlansNotModified() throws Exception {
+        when(workoutPlanService.getWorkoutPlansETag(1L)).thenReturn("wp-1-0-3");
+
+        mockMvc.perform(get("/api/workout-plans/user/1")
+                        .header("If-None-Match", "\"wp-1-0-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(workoutPlanService, never()).getAllWorkoutPlans(1L);
+    }
+
+    @Test
+    void getWorkoutPlanFieldsSuccess() throws Exception {
+        when(workoutPlanService.getWorkoutPlansETag(1L)).thenReturn("wp-1-0-3");
+        when(workoutPlanService.getWorkoutPlanFields(1L, EnumSet.of(WorkoutPlanField.ID, WorkoutPlanField.TITLE)))
+                .thenReturn(List.of(Map.of("id", 1L, "title", "Plan A")));
+
+        mockMvc.perform(get("/api/workout-plans/user/1").param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].title").value("Plan A"))
+                .andExpect(jsonPath("$.data[0].description").doesNotExist());
+
+        verify(workoutPlanService, never()).getAllWorkoutPlans(1L);
+    }
+
+    @Test
+    void searchWorkoutPlansSuccess() throws Exception {
+        when(workoutPlanSearchService.searchWorkoutPlans(1L, "stren", 20)).thenReturn(List.of(createEntity(1L)));
+
+        mockMvc.perform(get("/api/workout-plans/user/1/search").param("q", "stren"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Workout plans searched successfully"))
+                .andExpect(jsonPath("$.data[0].title").value("Plan A"));
+    }
+
+    @Test
+    void searchWorkoutPlansInvalidLimit() throws Exception {
+        when(workoutPlanSearchService.searchWorkoutPlans(1L, "plan", 0))
+                .thenThrow(new IllegalArgumentException("limit must be between 1 and 50"));
+
+        mockMvc.perform(get("/api/workout-plans/user/1/search").param("q", "plan").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchAllWorkoutPlansSuccess() throws Exception {
+        when(workoutPlanSearchService.searchAllWorkoutPlans("plan a", 5)).thenReturn(List.of(createEntity(2L)));
+
+        mockMvc.perform(get("/api/workout-plans/search").param("q", "plan a").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(2));
+    }
 }
@@ -0,0 +1,139 @@
+package com.fitness.tracker.unit.event;
+
+import com.fitness.tracker.configuration.OutboxProperties;
+import com.fitness.tracker.entity.OutboxEvent;
+import com.fitness.tracker.enums.ActivityLogEventType;
+import com.fitness.tracker.event.InProcessEventPublisher;
+import com.fitness.tracker.event.OutboxRelay;
+import com.fitness.tracker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final InProcessEventPublisher eventPublisher = new InProcessEventPublisher();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        relay = newRelay(Duration.ZERO);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(outboxEventRepository.findFirstByPublishedDateIsNullOrderByIdAsc()).thenReturn(Optional.empty());
+        when(outboxEventRepository.findFirstByIdLessThanOrderByIdDesc(anyLong())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void relayPublishesInOrderAndMarksPublished() {
+        when(outboxEventRepository.findByPublishedDateIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(event(1L, 7L), event(2L, 7L)), List.of(event(3L, 8L)));
+        List<Long> received = new ArrayList<>();
+        eventPublisher.subscribe(message -> received.add(message.id()));
+
+        relay.relay();
+
+        assertThat(received).containsExactly(1L, 2L, 3L);
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).markPublished(eq(List.of(3L)), any(LocalDateTime.class));
+        assertThat(meterRegistry.timer("outbox.publish.lag").count()).isEqualTo(3);
+    }
+
+    @Test
+    void failedPublishIsNotMarkedAndIsRetried() {
+        when(outboxEventRepository.findByPublishedDateIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(event(1L, 7L)));
+        eventPublisher.subscribe(message -> {
+            throw new IllegalStateException("consumer down");
+        });
+
+        relay.relay();
+
+        verify(outboxEventRepository, never()).markPublished(anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void relayBacksOffWhileOlderEventsAreClaimedElsewhere() {
+        when(outboxEventRepository.findByPublishedDateIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(event(3L, 7L)));
+        when(outboxEventRepository.existsByPublishedDateIsNullAndIdLessThan(3L)).thenReturn(true);
+        List<Long> received = new ArrayList<>();
+        eventPublisher.subscribe(message -> received.add(message.id()));
+
+        relay.relay();
+
+        assertThat(received).isEmpty();
+        verify(outboxEventRepository, never()).markPublished(anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void missingIdHoldsBackLaterEventsUntilItSettles() {
+        OutboxRelay settling = newRelay(Duration.ofMinutes(1));
+        when(outboxEventRepository.findByPublishedDateIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of(event(1L, 7L), event(3L, 7L)));
+        List<Long> received = new ArrayList<>();
+        eventPublisher.subscribe(message -> received.add(message.id()));
+
+        settling.relay();
+
+        assertThat(received).containsExactly(1L);
+        verify(outboxEventRepository).markPublished(eq(List.of(1L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void lagGaugesReflectPendingEvents() {
+        when(outboxEventRepository.findByPublishedDateIsNullOrderByIdAsc(any(Pageable.class)))
+                .thenReturn(List.of());
+        when(outboxEventRepository.countByPublishedDateIsNull()).thenReturn(4L);
+        OutboxEvent oldest = event(1L, 7L);
+        oldest.setCreatedDate(LocalDateTime.now().minusSeconds(10));
+        when(outboxEventRepository.findFirstByPublishedDateIsNullOrderByIdAsc()).thenReturn(Optional.of(oldest));
+
+        relay.relay();
+
+        assertThat(meterRegistry.get("outbox.pending").gauge().value()).isEqualTo(4);
+        assertThat(meterRegistry.get("outbox.oldest.pending.age").gauge().value()).isGreaterThanOrEqualTo(10_000);
+    }
+
+    private OutboxRelay newRelay(Duration settleDelay) {
+        OutboxProperties properties = new OutboxProperties("in-process", Path.of("unused"), 2,
+                settleDelay, Duration.ofDays(7));
+        return new OutboxRelay(outboxEventRepository, eventPublisher, properties, meterRegistry, transactionManager);
+    }
+
+    private OutboxEvent event(Long id, Long userId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setActivityLogId(100L + id);
+        event.setUserId(userId);
+        event.setEventType(ActivityLogEventType.CREATED);
+        event.setPayload("{}");
+        return event;
+    }
+}
@@ -0,0 +1,139 @@
+package com.fitness.tracker.unit.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.tracker.configuration.RateLimitProperties;
+import com.fitness.tracker.enums.RateLimitKeyType;
+import com.fitness.tracker.filter.RateLimitingFilter;
+import com.fitness.tracker.utils.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitingFilterTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = filter(1000);
+    }
+
+    @Test
+    void requestsWithinCapacityPassThrough() throws Exception {
+        assertThat(perform(login("10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(perform(login("10.0.0.1")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void requestsOverCapacityAreRejectedWithRetryAfter() throws Exception {
+        perform(login("10.0.0.1"));
+        perform(login("10.0.0.1"));
+
+        MockHttpServletResponse response = perform(login("10.0.0.1"));
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(response.getContentAsString()).contains("Too many requests");
+    }
+
+    @Test
+    void bucketsAreKeyedPerClientIp() throws Exception {
+        perform(login("10.0.0.1"));
+        perform(login("10.0.0.1"));
+
+        assertThat(perform(login("10.0.0.2")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void bucketsAreKeyedPerUser() throws Exception {
+        assertThat(perform(activityLog("1")).getStatus()).isEqualTo(200);
+        assertThat(perform(activityLog("1")).getStatus()).isEqualTo(429);
+        assertThat(perform(activityLog("2")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void userIdParameterDoesNotPickTheBucket() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/api/activity-logs");
+        first.setParameter("userId", "1");
+        MockHttpServletRequest second = new MockHttpServletRequest("POST", "/api/activity-logs");
+        second.setParameter("userId", "2");
+
+        assertThat(perform(first).getStatus()).isEqualTo(200);
+        assertThat(perform(second).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void forgedTokensFallBackToTheClientIp() throws Exception {
+        String forged = new JwtUtil().generateToken("user1@example.com", List.of("USER"));
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/api/activity-logs");
+        first.addHeader("Authorization", "Bearer " + forged);
+        MockHttpServletRequest second = new MockHttpServletRequest("POST", "/api/activity-logs");
+        second.addHeader("Authorization", "Bearer not-a-token");
+
+        assertThat(perform(first).getStatus()).isEqualTo(200);
+        assertThat(perform(second).getStatus()).isEqualTo(429);
+        assertThat(perform(activityLog("1")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void overflowBucketsAreSharedByHashedClientIp() throws Exception {
+        filter = filter(1);
+        perform(activityLog("1"));
+
+        assertThat(perform(login("10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(perform(login("10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(perform(login("10.0.0.1")).getStatus()).isEqualTo(429);
+        assertThat(perform(login("10.0.0.2")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void unlimitedEndpointsAreNotThrottled() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/activity-logs/by-user");
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform(request).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void evictionKeepsBucketsThatAreStillRefilling() throws Exception {
+        perform(activityLog("1"));
+
+        filter.evictIdleBuckets();
+
+        assertThat(perform(activityLog("1")).getStatus()).isEqualTo(429);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest login(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private MockHttpServletRequest activityLog(String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/activity-logs");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("user" + userId + "@example.com", List.of("USER")));
+        return request;
+    }
+
+    private RateLimitingFilter filter(int maxBuckets) {
+        RateLimitProperties properties = new RateLimitProperties(true, Duration.ofMinutes(10), maxBuckets, List.of(
+                new RateLimitProperties.Rule("POST", "/api/auth/login", 2, Duration.ofMinutes(1), RateLimitKeyType.IP),
+                new RateLimitProperties.Rule("POST", "/api/activity-logs", 1, Duration.ofMinutes(1), RateLimitKeyType.USER)
+        ));
+        return new RateLimitingFilter(properties, jwtUtil, new ObjectMapper());
+    }
+}
@@ -0,0 +1,135 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.configuration.FeedProperties;
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.service.impl.ActivityFeedServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ActivityFeedServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ActivityFeedServiceImpl feedService;
+
+    @AfterEach
+    void tearDown() {
+        if (feedService != null) {
+            feedService.shutdown();
+        }
+    }
+
+    @Test
+    void subscribeReturnsEmitterWithConfiguredTimeout() {
+        feedService = new ActivityFeedServiceImpl(properties(10), meterRegistry);
+
+        SseEmitter emitter = feedService.subscribe(1L);
+
+        assertThat(emitter.getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        assertThat(feedService.getSubscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("activity_feed.subscribers").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void subscribeRejectsWhenSubscriberLimitReached() {
+        feedService = new ActivityFeedServiceImpl(properties(2), meterRegistry);
+        feedService.subscribe(1L);
+        feedService.subscribe(1L);
+
+        assertThatThrownBy(() -> feedService.subscribe(2L))
+                .isInstanceOf(CustomException.class)
+                .extracting("statusCode")
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(feedService.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void eventsAndHeartbeatsAreBufferedWithoutBlockingThePublisher() {
+        feedService = new ActivityFeedServiceImpl(properties(10), meterRegistry);
+        feedService.subscribe(1L);
+
+        assertThatCode(() -> {
+            feedService.onActivityLogEvent(ActivityLogEvent.created(response(1L)));
+            feedService.onActivityLogEvent(ActivityLogEvent.created(response(2L)));
+            feedService.sendHeartbeats();
+        }).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("activity_feed.subscribers.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void stalledSendIsInterruptedAndDoesNotHoldUpOtherSubscribers() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        feedService = new ActivityFeedServiceImpl(properties(10), meterRegistry) {
+            private int connections;
+
+            // The first connection never accepts a write, the second one records it
+            @Override
+            protected SseEmitter newEmitter(long timeout) {
+                return connections++ == 0 ? blockingEmitter(stalled) : new SseEmitter(timeout) {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        delivered.countDown();
+                    }
+                };
+            }
+        };
+        feedService.subscribe(1L);
+        feedService.subscribe(2L);
+
+        // One dispatch thread, user 2's event queues behind the stalled send to user 1
+        feedService.onActivityLogEvent(ActivityLogEvent.created(response(1L)));
+        assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+        feedService.onActivityLogEvent(ActivityLogEvent.created(response(2L)));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (feedService.getSubscriberCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            feedService.evictStalledSubscribers();
+        }
+
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(feedService.getSubscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("activity_feed.subscribers.dropped").counter().count()).isEqualTo(1);
+    }
+
+    private SseEmitter blockingEmitter(CountDownLatch stalled) {
+        return new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                stalled.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("Write interrupted");
+                }
+            }
+        };
+    }
+
+    private FeedProperties properties(int maxSubscribers) {
+        return new FeedProperties(16, maxSubscribers, 1, Duration.ofMinutes(30), Duration.ofMillis(50));
+    }
+
+    private ActivityLogResponse response(Long userId) {
+        return new ActivityLogResponse(10L, "Running", 200, 30, LocalDateTime.now(),
+                userId, "john", UserRole.USER, 5L, "Plan");
+    }
+}
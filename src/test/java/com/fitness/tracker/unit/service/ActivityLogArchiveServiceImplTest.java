@@ -0,0 +1,151 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.configuration.ArchiveProperties;
+import com.fitness.tracker.dto.ActivityLogExportRow;
+import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.entity.ActivityLogArchiveSegment;
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.repository.ActivityLogArchiveSegmentRepository;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.service.ActivityTypeService;
+import com.fitness.tracker.service.impl.ActivityLogArchiveServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ActivityLogArchiveServiceImplTest {
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private ActivityLogArchiveSegmentRepository segmentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ActivityTypeService activityTypeService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private final LocalDateTime january = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(activityTypeService.getCode("Running")).thenReturn((short) 1);
+        when(activityTypeService.getName((short) 1)).thenReturn("Running");
+    }
+
+    @Test
+    void archivesUserMonthIntoIndexedSegment() {
+        ActivityLogRepository.ArchiveCandidate candidate = mock(ActivityLogRepository.ArchiveCandidate.class);
+        when(candidate.getUserId()).thenReturn(1L);
+        when(candidate.getCreatedYear()).thenReturn(2024);
+        when(candidate.getCreatedMonth()).thenReturn(1);
+        when(activityLogRepository.findArchiveCandidates(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(candidate));
+        when(activityLogRepository.findForArchive(1L, january, january.plusMonths(1)))
+                .thenReturn(List.of(log(7L, january.plusDays(3)), log(9L, january.plusDays(10))));
+
+        service(true).archiveActivityLogs();
+
+        ArgumentCaptor<ActivityLogArchiveSegment> segment = ArgumentCaptor.forClass(ActivityLogArchiveSegment.class);
+        verify(segmentRepository, times(1)).save(segment.capture());
+        assertThat(segment.getValue().getFileName()).isEqualTo("user-1/2024-01-9.seg");
+        assertThat(segment.getValue().getRowCount()).isEqualTo(2);
+        assertThat(segment.getValue().getFromDate()).isEqualTo(january);
+        assertThat(Files.exists(directory.resolve("user-1/2024-01-9.seg"))).isTrue();
+        verify(activityLogRepository, times(1)).deleteByIdIn(List.of(7L, 9L));
+        verify(userRepository, times(1)).incrementActivityLogsVersion(List.of(1L));
+    }
+
+    @Test
+    void disabledArchiveDoesNothing() {
+        service(false).archiveActivityLogs();
+
+        verifyNoInteractions(activityLogRepository, segmentRepository);
+    }
+
+    @Test
+    void exportMergesTableAndArchiveInCreationOrder() {
+        ActivityLogRepository.ArchiveCandidate candidate = mock(ActivityLogRepository.ArchiveCandidate.class);
+        when(candidate.getUserId()).thenReturn(1L);
+        when(candidate.getCreatedYear()).thenReturn(2024);
+        when(candidate.getCreatedMonth()).thenReturn(1);
+        when(activityLogRepository.findArchiveCandidates(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(candidate));
+        when(activityLogRepository.findForArchive(1L, january, january.plusMonths(1)))
+                .thenReturn(List.of(log(7L, january.plusDays(3)), log(9L, january.plusDays(10))));
+        ActivityLogArchiveServiceImpl archiveService = service(true);
+        archiveService.archiveActivityLogs();
+
+        ArgumentCaptor<ActivityLogArchiveSegment> segment = ArgumentCaptor.forClass(ActivityLogArchiveSegment.class);
+        verify(segmentRepository).save(segment.capture());
+        when(activityLogRepository.findByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(
+                1L, january.plusDays(5), LocalDateTime.of(2025, 1, 1, 0, 0)))
+                .thenReturn(List.of(log(100L, LocalDateTime.of(2024, 6, 1, 8, 0))));
+        when(segmentRepository.findByUserIdAndFromDateLessThanAndToDateGreaterThanOrderByFromDateAsc(
+                1L, LocalDateTime.of(2025, 1, 1, 0, 0), january.plusDays(5)))
+                .thenReturn(List.of(segment.getValue()));
+
+        List<ActivityLogExportRow> rows = archiveService.exportActivityLogs(1L, LocalDate.of(2024, 1, 6), LocalDate.of(2024, 12, 31));
+
+        assertThat(rows).extracting(ActivityLogExportRow::id).containsExactly(9L, 100L);
+        assertThat(rows.get(0).archived()).isTrue();
+        assertThat(rows.get(0).activityType()).isEqualTo("Running");
+        assertThat(rows.get(0).workoutPlanId()).isEqualTo(10L);
+        assertThat(rows.get(1).archived()).isFalse();
+    }
+
+    @Test
+    void exportRejectsHalfOpenRange() {
+        assertThatThrownBy(() -> service(true).exportActivityLogs(1L, null, LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("from and to must be given together");
+    }
+
+    private ActivityLogArchiveServiceImpl service(boolean enabled) {
+        return new ActivityLogArchiveServiceImpl(activityLogRepository, segmentRepository, userRepository,
+                activityTypeService, new ArchiveProperties(enabled, Duration.ofDays(365), directory, 100),
+                transactionManager);
+    }
+
+    private static ActivityLog log(Long id, LocalDateTime createdDate) {
+        WorkoutPlan plan = new WorkoutPlan();
+        plan.setId(10L);
+        ActivityLog activityLog = new ActivityLog();
+        activityLog.setId(id);
+        activityLog.setActivityType("Running");
+        activityLog.setCaloriesBurned(200);
+        activityLog.setDuration(30);
+        activityLog.setCreatedDate(createdDate);
+        activityLog.setWorkoutPlan(plan);
+        return activityLog;
+    }
+}
@@ -0,0 +1,201 @@
+package com.fitness.tracker.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fitness.tracker.configuration.IngestionProperties;
+import com.fitness.tracker.dto.ActivityLogIngestion;
+import com.fitness.tracker.entity.ActivityLog;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.service.ActivityLogService;
+import com.fitness.tracker.service.impl.ActivityLogIngestionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ActivityLogIngestionServiceImplTest {
+
+    @Mock
+    private ActivityLogService activityLogService;
+
+    @TempDir
+    Path spillDirectory;
+
+    @TempDir
+    Path deadLetterDirectory;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ActivityLogIngestionServiceImpl ingestionService;
+    private ActivityLog activityLog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        activityLog = new ActivityLog();
+        activityLog.setActivityType("Running");
+        activityLog.setCaloriesBurned(200);
+        activityLog.setDuration(30);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (ingestionService != null) {
+            ingestionService.stop();
+        }
+    }
+
+    @Test
+    void acceptedLogsAreFlushedInBatches() throws Exception {
+        when(activityLogService.createActivityLogs(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        ingestionService = start(true, 100, 3);
+
+        for (int i = 0; i < 3; i++) {
+            ingestionService.accept(1L, 10L, activityLog);
+        }
+
+        verify(activityLogService, timeout(2000)).createActivityLogs(argThat(batch -> batch.size() == 3));
+    }
+
+    @Test
+    void fullQueueRejectsLogs() {
+        // Block the writer so nothing leaves the queue
+        CountDownLatch release = new CountDownLatch(1);
+        when(activityLogService.createActivityLogs(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+        ingestionService = start(true, 1, 1);
+
+        try {
+            ingestionService.accept(1L, 10L, activityLog);
+            verify(activityLogService, timeout(2000)).createActivityLogs(anyList());
+            ingestionService.accept(1L, 10L, activityLog);
+
+            assertThatThrownBy(() -> ingestionService.accept(1L, 10L, activityLog))
+                    .isInstanceOf(CustomException.class)
+                    .hasMessage("Ingestion queue is full, please retry later");
+            assertThat(meterRegistry.counter("activity_logs.ingestion.rejected").count()).isEqualTo(1);
+            assertThat(meterRegistry.get("activity_logs.ingestion.queue.depth").gauge().value()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void disabledIngestionRejectsLogs() {
+        ingestionService = start(false, 10, 10);
+
+        assertThatThrownBy(() -> ingestionService.accept(1L, 10L, activityLog))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("Asynchronous ingestion is disabled");
+    }
+
+    @Test
+    void spilledLogsAreReplayedOnStartup() throws Exception {
+        ActivityLogIngestion spilled = new ActivityLogIngestion(1, "spilled-1", 1L, 10L, "Cycling", 150, 25, LocalDateTime.now());
+        Files.writeString(spillDirectory.resolve("segment-00000000000000000001.jsonl"),
+                objectMapper.writeValueAsString(spilled) + System.lineSeparator());
+
+        ingestionService = start(true, 10, 10);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ActivityLogIngestion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(activityLogService).createActivityLogs(captor.capture());
+        assertThat(captor.getValue()).extracting(ActivityLogIngestion::activityType).containsExactly("Cycling");
+        try (var files = Files.list(spillDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void logsThatKeepFailingAreDeadLettered() throws Exception {
+        when(activityLogService.createActivityLogs(anyList())).thenAnswer(invocation -> {
+            List<ActivityLogIngestion> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(ingestion -> ingestion.duration() < 0)) {
+                throw new DataIntegrityViolationException("Duration must not be negative");
+            }
+            return batch.size();
+        });
+        ingestionService = start(true, 10, 2);
+        ActivityLog broken = new ActivityLog();
+        broken.setActivityType("Cycling");
+        broken.setDuration(-1);
+
+        ingestionService.accept(1L, 10L, broken);
+        ingestionService.accept(1L, 10L, activityLog);
+
+        verify(activityLogService, timeout(5000)).createActivityLogs(argThat(batch -> batch.size() == 1
+                && batch.get(0).activityType().equals("Running")));
+        verify(activityLogService, timeout(5000).times(1)).createActivityLogs(argThat(batch -> batch.size() == 1
+                && batch.get(0).activityType().equals("Cycling")));
+        ingestionService.stop();
+        ingestionService = null;
+        try (var files = Files.list(deadLetterDirectory)) {
+            assertThat(files.flatMap(ActivityLogIngestionServiceImplTest::lines)).singleElement()
+                    .satisfies(line -> assertThat(line).contains("Cycling"));
+        }
+        try (var files = Files.list(spillDirectory)) {
+            assertThat(files).isEmpty();
+        }
+        assertThat(meterRegistry.counter("activity_logs.ingestion.dead_lettered").count()).isEqualTo(1);
+    }
+
+    @Test
+    void transientFailuresAreRetriedWithoutDeadLettering() throws Exception {
+        when(activityLogService.createActivityLogs(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(1);
+        ingestionService = start(true, 10, 1);
+
+        ingestionService.accept(1L, 10L, activityLog);
+
+        verify(activityLogService, timeout(5000).times(3)).createActivityLogs(anyList());
+        assertThat(meterRegistry.counter("activity_logs.ingestion.dead_lettered").count()).isZero();
+        try (var files = Files.list(deadLetterDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private static Stream<String> lines(Path file) {
+        try {
+            return Files.readAllLines(file).stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ActivityLogIngestionServiceImpl start(boolean enabled, int queueCapacity, int batchSize) {
+        IngestionProperties properties = new IngestionProperties(enabled, queueCapacity, batchSize,
+                Duration.ofMillis(100), spillDirectory, false, 1, deadLetterDirectory);
+        ActivityLogIngestionServiceImpl service =
+                new ActivityLogIngestionServiceImpl(properties, activityLogService, objectMapper, meterRegistry);
+        service.start();
+        return service;
+    }
+}
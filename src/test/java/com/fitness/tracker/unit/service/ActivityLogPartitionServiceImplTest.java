@@ -0,0 +1,89 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.configuration.PartitioningProperties;
+import com.fitness.tracker.dto.ActivityLogPartition;
+import com.fitness.tracker.repository.ActivityLogPartitionManager;
+import com.fitness.tracker.service.impl.ActivityLogPartitionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ActivityLogPartitionServiceImplTest {
+
+    @Mock
+    private ActivityLogPartitionManager partitionManager;
+
+    private final YearMonth current = YearMonth.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void createsMissingMonthsAhead() {
+        when(partitionManager.findPartitions()).thenReturn(List.of(attached(current), attached(current.plusMonths(1))));
+
+        new ActivityLogPartitionServiceImpl(partitionManager, new PartitioningProperties("postgres", 3, 0))
+                .maintainPartitions();
+
+        verify(partitionManager, never()).createPartition(current);
+        verify(partitionManager, never()).createPartition(current.plusMonths(1));
+        verify(partitionManager, times(1)).createPartition(current.plusMonths(2));
+        verify(partitionManager, times(1)).createPartition(current.plusMonths(3));
+        verify(partitionManager, never()).detachPartition(any());
+    }
+
+    @Test
+    void detachesMonthsBeforeRetentionOldestFirst() {
+        when(partitionManager.findPartitions()).thenReturn(List.of(
+                attached(current.minusMonths(14)),
+                attached(current.minusMonths(13)),
+                attached(current.minusMonths(12)),
+                new ActivityLogPartition(ActivityLogPartitionManager.tableName(current.minusMonths(20)),
+                        current.minusMonths(20), false),
+                attached(current)));
+
+        new ActivityLogPartitionServiceImpl(partitionManager, new PartitioningProperties("postgres", 0, 12))
+                .maintainPartitions();
+
+        InOrder inOrder = inOrder(partitionManager);
+        inOrder.verify(partitionManager).detachPartition(current.minusMonths(14));
+        inOrder.verify(partitionManager).detachPartition(current.minusMonths(13));
+        verify(partitionManager, never()).detachPartition(current.minusMonths(12));
+        verify(partitionManager, never()).detachPartition(current.minusMonths(20));
+    }
+
+    @Test
+    void failedMonthDoesNotStopOthers() {
+        when(partitionManager.findPartitions()).thenReturn(List.of());
+        doThrow(new DataAccessResourceFailureException("default partition overlaps"))
+                .when(partitionManager).createPartition(current);
+
+        new ActivityLogPartitionServiceImpl(partitionManager, new PartitioningProperties("postgres", 1, 0))
+                .maintainPartitions();
+
+        verify(partitionManager, times(1)).createPartition(current.plusMonths(1));
+    }
+
+    @Test
+    void tableNamesRoundTrip() {
+        assertThat(ActivityLogPartitionManager.tableName(YearMonth.of(2025, 3))).isEqualTo("activity_logs_y2025m03");
+        assertThat(ActivityLogPartitionManager.parseMonth("ACTIVITY_LOGS_Y2025M03")).isEqualTo(YearMonth.of(2025, 3));
+        assertThat(ActivityLogPartitionManager.parseMonth("activity_logs")).isNull();
+    }
+
+    private static ActivityLogPartition attached(YearMonth month) {
+        return new ActivityLogPartition(ActivityLogPartitionManager.tableName(month), month, true);
+    }
+}
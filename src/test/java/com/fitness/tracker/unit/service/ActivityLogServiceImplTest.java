@@ -3,21 +3,43 @@ package com.fitness.tracker.unit.service;
 import com.fitness.tracker.entity.ActivityLog;
 import com.fitness.tracker.entity.User;
 import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.ActivityLogEventType;
 import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.event.ActivityLogEvent;
 import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.mapper.ActivityLogMapper;
 import com.fitness.tracker.repository.ActivityLogRepository;
 import com.fitness.tracker.repository.UserRepository;
 import com.fitness.tracker.repository.WorkoutPlanRepository;
+import com.fitness.tracker.configuration.IdempotencyProperties;
+import com.fitness.tracker.configuration.ReadWriteRoutingDataSource;
+import com.fitness.tracker.configuration.SingleFlightProperties;
+import com.fitness.tracker.dto.ActivityLogIngestion;
+import com.fitness.tracker.service.ActivityTypeService;
 import com.fitness.tracker.service.impl.ActivityLogServiceImpl;
+import com.fitness.tracker.utils.IdempotencyStore;
+import com.fitness.tracker.utils.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -36,6 +58,22 @@ class ActivityLogServiceImplTest {
     @Mock
     private WorkoutPlanRepository workoutPlanRepository;
 
+    @Mock
+    private ActivityTypeService activityTypeService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(new IdempotencyProperties(Duration.ofHours(1), 100));
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties(true), new SimpleMeterRegistry(),
+            new StaticListableBeanFactory().getBeanProvider(ReadWriteRoutingDataSource.class));
+
     @InjectMocks
     private ActivityLogServiceImpl activityLogService;
 
@@ -46,6 +84,7 @@ class ActivityLogServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(activityTypeService.normalize(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
 
         user = new User();
         user.setId(1L);
@@ -68,7 +107,7 @@ class ActivityLogServiceImplTest {
     @Test
     void createActivityLogSuccess() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(workoutPlanRepository.findById(10L)).thenReturn(Optional.of(workoutPlan));
+        when(workoutPlanRepository.findShallowById(10L)).thenReturn(Optional.of(workoutPlan));
         when(activityLogRepository.save(any(ActivityLog.class))).thenReturn(activityLog);
 
         ActivityLog saved = activityLogService.createActivityLog(1L, 10L, activityLog);
@@ -78,6 +117,21 @@ class ActivityLogServiceImplTest {
         verify(activityLogRepository, times(1)).save(activityLog);
     }
 
+    @Test
+    void createActivityLogPublishesEvent() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(workoutPlanRepository.findShallowById(10L)).thenReturn(Optional.of(workoutPlan));
+        when(activityLogRepository.save(any(ActivityLog.class))).thenReturn(activityLog);
+
+        activityLogService.createActivityLog(1L, 10L, activityLog);
+
+        ArgumentCaptor<ActivityLogEvent> captor = ArgumentCaptor.forClass(ActivityLogEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().type()).isEqualTo(ActivityLogEventType.CREATED);
+        assertThat(captor.getValue().before()).isNull();
+        assertThat(captor.getValue().after().id()).isEqualTo(100L);
+    }
+
     @Test
     void createActivityLogUserNotFound() {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
@@ -90,17 +144,105 @@ class ActivityLogServiceImplTest {
     @Test
     void createActivityLogWorkoutPlanNotFound() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(workoutPlanRepository.findById(10L)).thenReturn(Optional.empty());
+        when(workoutPlanRepository.findShallowById(10L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> activityLogService.createActivityLog(1L, 10L, activityLog))
                 .isInstanceOf(CustomException.class)
                 .hasMessage("Workout plan not found");
     }
 
+    @Test
+    void createActivityLogWithSameIdempotencyKeyInsertsOnce() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(workoutPlanRepository.findShallowById(10L)).thenReturn(Optional.of(workoutPlan));
+        when(activityLogRepository.save(any(ActivityLog.class))).thenReturn(activityLog);
+
+        ActivityLog first = activityLogService.createActivityLog(1L, 10L, activityLog, "key-1");
+        ActivityLog replayed = activityLogService.createActivityLog(1L, 10L, activityLog, "key-1");
+
+        assertThat(replayed).isSameAs(first);
+        verify(activityLogRepository, times(1)).save(any(ActivityLog.class));
+    }
+
+    @Test
+    void createActivityLogIdempotencyKeysAreScopedPerUser() {
+        User otherUser = new User();
+        otherUser.setId(2L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(otherUser));
+        when(workoutPlanRepository.findShallowById(10L)).thenReturn(Optional.of(workoutPlan));
+        when(activityLogRepository.save(any(ActivityLog.class))).thenReturn(activityLog);
+
+        activityLogService.createActivityLog(1L, 10L, activityLog, "key-1");
+        activityLogService.createActivityLog(2L, 10L, activityLog, "key-1");
+
+        verify(activityLogRepository, times(2)).save(any(ActivityLog.class));
+    }
+
+    @Test
+    void createActivityLogIdempotencyKeyReusedWithDifferentPayload() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(workoutPlanRepository.findShallowById(10L)).thenReturn(Optional.of(workoutPlan));
+        when(activityLogRepository.save(any(ActivityLog.class))).thenReturn(activityLog);
+
+        activityLogService.createActivityLog(1L, 10L, activityLog, "key-1");
+
+        ActivityLog different = new ActivityLog();
+        different.setActivityType("Swimming");
+        different.setCaloriesBurned(300);
+        different.setDuration(45);
+
+        assertThatThrownBy(() -> activityLogService.createActivityLog(1L, 10L, different, "key-1"))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("Idempotency key has already been used for a different request");
+    }
+
+    @Test
+    void createActivityLogFailureIsNotRemembered() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty()).thenReturn(Optional.of(user));
+        when(workoutPlanRepository.findShallowById(10L)).thenReturn(Optional.of(workoutPlan));
+        when(activityLogRepository.save(any(ActivityLog.class))).thenReturn(activityLog);
+
+        assertThatThrownBy(() -> activityLogService.createActivityLog(1L, 10L, activityLog, "key-1"))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("User not found");
+
+        ActivityLog saved = activityLogService.createActivityLog(1L, 10L, activityLog, "key-1");
+        assertThat(saved.getId()).isEqualTo(100L);
+    }
+
+    @Test
+    void createActivityLogsDropsUnknownReferences() {
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(workoutPlanRepository.findAllById(any())).thenReturn(List.of(workoutPlan));
+
+        int saved = activityLogService.createActivityLogs(List.of(
+                new ActivityLogIngestion(1, "ingestion-1", 1L, 10L, "Running", 200, 30, LocalDateTime.now()),
+                new ActivityLogIngestion(2, "ingestion-2", 99L, 10L, "Running", 200, 30, LocalDateTime.now())
+        ));
+
+        assertThat(saved).isEqualTo(1);
+        verify(activityLogRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void createActivityLogsSkipsIngestionsAlreadyStored() {
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(workoutPlanRepository.findAllById(any())).thenReturn(List.of(workoutPlan));
+        when(activityLogRepository.findIngestionKeys(any(), any(), any())).thenReturn(Set.of("ingestion-1"));
+
+        int saved = activityLogService.createActivityLogs(List.of(
+                new ActivityLogIngestion(1, "ingestion-1", 1L, 10L, "Running", 200, 30, LocalDateTime.now()),
+                new ActivityLogIngestion(2, "ingestion-2", 1L, 10L, "Running", 200, 30, LocalDateTime.now())
+        ));
+
+        assertThat(saved).isEqualTo(1);
+    }
+
     @Test
     void updateActivityLogSuccess() {
         when(activityLogRepository.findById(100L)).thenReturn(Optional.of(activityLog));
-        when(workoutPlanRepository.findById(10L)).thenReturn(Optional.of(workoutPlan));
+        when(workoutPlanRepository.findShallowById(10L)).thenReturn(Optional.of(workoutPlan));
         when(activityLogRepository.save(any(ActivityLog.class))).thenReturn(activityLog);
 
         activityLog.setActivityType("Jogging");
@@ -139,6 +281,10 @@ class ActivityLogServiceImplTest {
         activityLogService.deleteActivityLog(100L, 1L);
 
         verify(activityLogRepository, times(1)).delete(activityLog);
+        ArgumentCaptor<ActivityLogEvent> captor = ArgumentCaptor.forClass(ActivityLogEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().type()).isEqualTo(ActivityLogEventType.DELETED);
+        assertThat(captor.getValue().userId()).isEqualTo(1L);
     }
 
     @Test
@@ -195,6 +341,29 @@ class ActivityLogServiceImplTest {
                 .hasMessage("Activity log does not belong to this user");
     }
 
+    @Test
+    void getActivityLogsKeyedByIdInOneQuery() {
+        when(activityLogRepository.findByUserIdAndIdIn(eq(1L), any())).thenReturn(List.of(activityLog));
+
+        Map<Long, ActivityLog> found = activityLogService.getActivityLogs(List.of(100L, 7L, 100L), 1L);
+
+        assertThat(found).containsOnlyKeys(100L);
+        verify(activityLogRepository, times(1)).findByUserIdAndIdIn(1L, Set.of(100L, 7L));
+    }
+
+    @Test
+    void getActivityLogsRejectsOversizedBatch() {
+        List<Long> ids = LongStream.rangeClosed(1, 201).boxed().toList();
+
+        assertThatThrownBy(() -> activityLogService.getActivityLogs(ids, 1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ids must contain between 1 and 200 ids");
+        assertThatThrownBy(() -> activityLogService.getActivityLogs(List.of(), 1L))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(activityLogRepository, never()).findByUserIdAndIdIn(any(), any());
+    }
+
     @Test
     void getAllByUserSuccess() {
         when(activityLogRepository.findByUserId(1L)).thenReturn(List.of(activityLog));
@@ -205,6 +374,54 @@ class ActivityLogServiceImplTest {
         assertThat(logs.get(0).getActivityType()).isEqualTo("Running");
     }
 
+    @Test
+    void getActivityLogsByUserBoundsCreatedDate() {
+        when(activityLogRepository.findByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(
+                1L, LocalDate.of(2025, 3, 1).atStartOfDay(), LocalDate.of(2025, 4, 1).atStartOfDay()))
+                .thenReturn(List.of(activityLog));
+
+        List<ActivityLog> logs = activityLogService.getActivityLogsByUser(1L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        assertThat(logs).hasSize(1);
+        verify(activityLogRepository, never()).findByUserId(1L);
+    }
+
+    @Test
+    void getActivityLogsByUserWithoutRangeReturnsAll() {
+        when(activityLogRepository.findByUserId(1L)).thenReturn(List.of(activityLog));
+
+        assertThat(activityLogService.getActivityLogsByUser(1L, null, null)).hasSize(1);
+    }
+
+    @Test
+    void getActivityLogsByUserCoalescesOnTheCollectionVersion() {
+        when(activityLogRepository.findByUserId(1L)).thenReturn(List.of(activityLog));
+
+        activityLogService.getAllActivityLogsByUser(1L);
+        activityLogService.getActivityLogsByUser(1L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        verify(singleFlight).execute(eq("activity-logs"), eq(1L), eq("al-1-0-0"), any());
+        verify(singleFlight).execute(eq("activity-logs-range"), eq(1L),
+                eq(List.of(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), "al-1-0-0")), any());
+    }
+
+    @Test
+    void activityLogEventForgetsInFlightReadsOfTheUser() {
+        activityLogService.onActivityLogEvent(ActivityLogEvent.deleted(ActivityLogMapper.toResponse(activityLog)));
+
+        verify(singleFlight).forget(1L);
+    }
+
+    @Test
+    void getActivityLogsByUserInvalidRange() {
+        assertThatThrownBy(() -> activityLogService.getActivityLogsByUser(1L, LocalDate.of(2025, 3, 1), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("from and to must be given together");
+        assertThatThrownBy(() -> activityLogService.getActivityLogsByUser(1L, LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("from must not be after to");
+    }
+
     @Test
     void getAllByWorkoutPlanSuccess() {
         when(activityLogRepository.findByWorkoutPlanId(10L)).thenReturn(List.of(activityLog));
@@ -0,0 +1,161 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.configuration.ActivityTypeProperties;
+import com.fitness.tracker.dto.response.ActivityTypeResponse;
+import com.fitness.tracker.entity.ActivityType;
+import com.fitness.tracker.entity.ActivityTypeAlias;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityTypeAliasRepository;
+import com.fitness.tracker.repository.ActivityTypeRepository;
+import com.fitness.tracker.service.impl.ActivityTypeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ActivityTypeServiceImplTest {
+
+    @Mock
+    private ActivityTypeRepository activityTypeRepository;
+
+    @Mock
+    private ActivityTypeAliasRepository activityTypeAliasRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ActivityTypeServiceImpl activityTypeService;
+
+    // Stand-ins for the tables
+    private final List<ActivityType> types = new ArrayList<>();
+    private final List<ActivityTypeAlias> aliases = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(activityTypeRepository.count()).thenAnswer(invocation -> (long) types.size());
+        when(activityTypeRepository.findAll()).thenAnswer(invocation -> List.copyOf(types));
+        when(activityTypeRepository.findByNameKey(any())).thenAnswer(invocation -> types.stream()
+                .filter(type -> type.getNameKey().equals(invocation.getArgument(0)))
+                .findFirst());
+        when(activityTypeAliasRepository.findAll()).thenAnswer(invocation -> List.copyOf(aliases));
+        when(activityTypeRepository.save(any(ActivityType.class))).thenAnswer(invocation -> {
+            ActivityType type = invocation.getArgument(0);
+            type.setCode((short) (types.size() + 1));
+            types.add(type);
+            return type;
+        });
+        when(activityTypeAliasRepository.save(any(ActivityTypeAlias.class))).thenAnswer(invocation -> {
+            aliases.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        activityTypeService = newService(100);
+    }
+
+    @Test
+    void seedsDefaultTypesOnce() {
+        int seeded = types.size();
+        assertThat(seeded).isGreaterThan(0);
+
+        activityTypeService.load();
+
+        assertThat(types).hasSize(seeded);
+        assertThat(activityTypeService.getActivityTypes()).extracting(ActivityTypeResponse::name).contains("Running", "Cycling");
+    }
+
+    @Test
+    void normalizesCaseWhitespaceAndSynonyms() {
+        assertThat(activityTypeService.normalize("  running ")).isEqualTo("Running");
+        assertThat(activityTypeService.normalize("Jogging")).isEqualTo("Running");
+        assertThat(activityTypeService.normalize("strength   training")).isEqualTo("Strength Training");
+        assertThat(activityTypeService.getCode("jog")).isEqualTo(activityTypeService.getCode("Running"));
+        assertThat(activityTypeService.normalize(null)).isNull();
+    }
+
+    @Test
+    void registersUnknownTypeOnce() {
+        int seeded = types.size();
+
+        String name = activityTypeService.normalize("Rock  Climbing");
+        Short code = activityTypeService.getCode("rock climbing");
+
+        assertThat(name).isEqualTo("Rock Climbing");
+        assertThat(types).hasSize(seeded + 1);
+        assertThat(activityTypeService.getName(code)).isEqualTo("Rock Climbing");
+        // Only the startup load reads the whole dictionary
+        verify(activityTypeRepository, times(1)).findAll();
+    }
+
+    @Test
+    void typeRegisteredByAnotherNodeIsReused() {
+        ActivityType climbing = new ActivityType();
+        climbing.setCode((short) 99);
+        climbing.setName("Rock Climbing");
+        climbing.setNameKey("rock climbing");
+        types.add(climbing);
+
+        assertThat(activityTypeService.getCode("rock climbing")).isEqualTo((short) 99);
+        verify(activityTypeRepository, never()).save(climbing);
+    }
+
+    @Test
+    void registrationStopsAtTheCap() {
+        int seeded = types.size();
+        ActivityTypeServiceImpl capped = newService(seeded);
+
+        assertThatThrownBy(() -> capped.getCode("Skydiving"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(types).hasSize(seeded);
+        assertThat(capped.getCode("jog")).isEqualTo(capped.getCode("Running"));
+    }
+
+    @Test
+    void findNameDoesNotRegisterUnknownTypes() {
+        int seeded = types.size();
+
+        assertThat(activityTypeService.findName("jogging")).isEqualTo("Running");
+        assertThat(activityTypeService.findName("Skydiving")).isNull();
+        assertThat(types).hasSize(seeded);
+    }
+
+    @Test
+    void addAliasResolvesToType() {
+        Short yoga = activityTypeService.getCode("Yoga");
+
+        ActivityTypeResponse response = activityTypeService.addAlias(yoga, "Pilates Flow");
+
+        assertThat(response.aliases()).contains("pilates flow");
+        assertThat(activityTypeService.normalize("PILATES FLOW")).isEqualTo("Yoga");
+    }
+
+    @Test
+    void addAliasOfOtherTypeConflicts() {
+        Short yoga = activityTypeService.getCode("Yoga");
+
+        assertThatThrownBy(() -> activityTypeService.addAlias(yoga, "jog"))
+                .isInstanceOf(CustomException.class)
+                .extracting("statusCode")
+                .isEqualTo(HttpStatus.CONFLICT);
+        verify(activityTypeAliasRepository, never()).save(argThat(alias -> "jog".equals(alias.getAlias()) && yoga.equals(alias.getCode())));
+    }
+
+    private ActivityTypeServiceImpl newService(int maxTypes) {
+        ActivityTypeServiceImpl service = new ActivityTypeServiceImpl(activityTypeRepository, activityTypeAliasRepository,
+                new ActivityTypeProperties(maxTypes), transactionManager);
+        service.load();
+        return service;
+    }
+}
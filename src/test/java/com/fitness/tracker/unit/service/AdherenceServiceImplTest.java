@@ -0,0 +1,217 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.dto.response.WorkoutPlanAdherenceResponse;
+import com.fitness.tracker.entity.User;
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.entity.WorkoutPlanAdherence;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.repository.WorkoutPlanAdherenceRepository;
+import com.fitness.tracker.repository.WorkoutPlanRepository;
+import com.fitness.tracker.service.impl.AdherenceServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AdherenceServiceImplTest {
+
+    @Mock
+    private WorkoutPlanAdherenceRepository adherenceRepository;
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private AdherenceServiceImpl adherenceService;
+
+    private WorkoutPlanAdherence planA;
+    private WorkoutPlanAdherence planB;
+    private final LocalDateTime now = LocalDateTime.of(2025, 3, 10, 18, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        planA = adherence(1L);
+        planB = adherence(2L);
+        when(adherenceRepository.findForUpdate(1L)).thenReturn(Optional.of(planA));
+        when(adherenceRepository.findForUpdate(2L)).thenReturn(Optional.of(planB));
+    }
+
+    @Test
+    void sessionsAccumulatePerPlan() {
+        adherenceService.onActivityLogEvent(ActivityLogEvent.created(log(10L, 1L, 30, now.minusDays(1))));
+        adherenceService.onActivityLogEvent(ActivityLogEvent.created(log(11L, 1L, 45, now)));
+
+        assertThat(planA.getSessions()).isEqualTo(2);
+        assertThat(planA.getTotalDuration()).isEqualTo(75);
+        assertThat(planA.getLastSessionDate()).isEqualTo(now);
+    }
+
+    @Test
+    void durationEditAdjustsTotalOnly() {
+        adherenceService.onActivityLogEvent(ActivityLogEvent.created(log(10L, 1L, 30, now)));
+
+        adherenceService.onActivityLogEvent(ActivityLogEvent.updated(log(10L, 1L, 30, now), log(10L, 1L, 50, now)));
+
+        assertThat(planA.getSessions()).isEqualTo(1);
+        assertThat(planA.getTotalDuration()).isEqualTo(50);
+    }
+
+    @Test
+    void movingSessionToAnotherPlanTransfersIt() {
+        adherenceService.onActivityLogEvent(ActivityLogEvent.created(log(10L, 1L, 30, now)));
+        when(activityLogRepository.findLastCreatedDateByWorkoutPlanId(1L)).thenReturn(null);
+
+        adherenceService.onActivityLogEvent(ActivityLogEvent.updated(log(10L, 1L, 30, now), log(10L, 2L, 30, now)));
+
+        assertThat(planA.getSessions()).isZero();
+        assertThat(planA.getTotalDuration()).isZero();
+        assertThat(planA.getLastSessionDate()).isNull();
+        assertThat(planB.getSessions()).isEqualTo(1);
+        assertThat(planB.getLastSessionDate()).isEqualTo(now);
+    }
+
+    @Test
+    void deletingLatestSessionRestoresPreviousDate() {
+        adherenceService.onActivityLogEvent(ActivityLogEvent.created(log(10L, 1L, 30, now.minusDays(2))));
+        adherenceService.onActivityLogEvent(ActivityLogEvent.created(log(11L, 1L, 30, now)));
+        when(activityLogRepository.findLastCreatedDateByWorkoutPlanId(1L)).thenReturn(now.minusDays(2));
+
+        adherenceService.onActivityLogEvent(ActivityLogEvent.deleted(log(11L, 1L, 30, now)));
+
+        assertThat(planA.getSessions()).isEqualTo(1);
+        assertThat(planA.getLastSessionDate()).isEqualTo(now.minusDays(2));
+    }
+
+    @Test
+    void deletedPlanIsIgnored() {
+        when(adherenceRepository.findForUpdate(3L)).thenReturn(Optional.empty());
+        when(workoutPlanRepository.findForUpdate(List.of(3L))).thenReturn(List.of());
+
+        adherenceService.onActivityLogEvent(ActivityLogEvent.deleted(log(12L, 3L, 30, now)));
+
+        verify(adherenceRepository, never()).save(any(WorkoutPlanAdherence.class));
+    }
+
+    @Test
+    void missingRowIsRebuiltUnderThePlanLock() {
+        when(adherenceRepository.findForUpdate(3L)).thenReturn(Optional.empty());
+        when(workoutPlanRepository.findForUpdate(List.of(3L))).thenReturn(List.of(plan(3L)));
+        ActivityLogRepository.WorkoutPlanTotals totals = mock(ActivityLogRepository.WorkoutPlanTotals.class);
+        when(totals.getSessions()).thenReturn(4L);
+        when(totals.getTotalDuration()).thenReturn(120L);
+        when(activityLogRepository.sumByWorkoutPlanIds(List.of(3L))).thenReturn(List.of(totals));
+
+        adherenceService.onActivityLogEvent(ActivityLogEvent.created(log(12L, 3L, 30, now)));
+
+        verify(adherenceRepository).save(argThat(adherence -> adherence.getWorkoutPlanId() == 3L
+                && adherence.getSessions() == 4 && adherence.getTotalDuration() == 120));
+    }
+
+    @Test
+    void rowCreatedByConcurrentSessionGetsTheDelta() {
+        WorkoutPlanAdherence planC = adherence(3L);
+        planC.setSessions(4);
+        when(adherenceRepository.findForUpdate(3L)).thenReturn(Optional.empty(), Optional.of(planC));
+        when(workoutPlanRepository.findForUpdate(List.of(3L))).thenReturn(List.of(plan(3L)));
+
+        adherenceService.onActivityLogEvent(ActivityLogEvent.created(log(12L, 3L, 30, now)));
+
+        assertThat(planC.getSessions()).isEqualTo(5);
+        verify(activityLogRepository, never()).sumByWorkoutPlanIds(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfillSkipsRowsCreatedSinceThePlansWereListed() {
+        WorkoutPlanAdherenceRepository.MissingPlan missingA = missingPlan(3L);
+        WorkoutPlanAdherenceRepository.MissingPlan missingB = missingPlan(4L);
+        when(adherenceRepository.findPlansWithoutAdherence()).thenReturn(List.of(missingA, missingB));
+        when(adherenceRepository.findAllById(List.of(3L, 4L))).thenReturn(List.of(adherence(3L)));
+
+        adherenceService.backfill();
+
+        verify(workoutPlanRepository).findForUpdate(List.of(3L, 4L));
+        ArgumentCaptor<List<WorkoutPlanAdherence>> rows = ArgumentCaptor.forClass(List.class);
+        verify(adherenceRepository).saveAll(rows.capture());
+        assertThat(rows.getValue()).extracting(WorkoutPlanAdherence::getWorkoutPlanId).containsExactly(4L);
+    }
+
+    @Test
+    void getWorkoutPlanAdherenceComputesRatio() {
+        WorkoutPlanAdherenceRepository.PlanAdherence adherence = mock(WorkoutPlanAdherenceRepository.PlanAdherence.class);
+        when(adherence.getWorkoutPlanId()).thenReturn(1L);
+        when(adherence.getUserId()).thenReturn(1L);
+        when(adherence.getPlannedDuration()).thenReturn(40);
+        when(adherence.getSessions()).thenReturn(3L);
+        when(adherence.getTotalDuration()).thenReturn(100L);
+        when(adherenceRepository.findPlanAdherence(1L)).thenReturn(Optional.of(adherence));
+
+        WorkoutPlanAdherenceResponse response = adherenceService.getWorkoutPlanAdherence(1L, 1L);
+
+        assertThat(response.averageDuration()).isEqualTo(33.3);
+        assertThat(response.adherence()).isEqualTo(0.833);
+        assertThatThrownBy(() -> adherenceService.getWorkoutPlanAdherence(1L, 2L))
+                .isInstanceOf(CustomException.class)
+                .extracting("statusCode")
+                .isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void getRankedWorkoutPlansRejectsOversizedPage() {
+        assertThatThrownBy(() -> adherenceService.getRankedWorkoutPlans(null, 0, 101))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static WorkoutPlan plan(Long id) {
+        User owner = new User();
+        owner.setId(1L);
+        WorkoutPlan plan = new WorkoutPlan();
+        plan.setId(id);
+        plan.setUser(owner);
+        return plan;
+    }
+
+    private static WorkoutPlanAdherenceRepository.MissingPlan missingPlan(Long workoutPlanId) {
+        WorkoutPlanAdherenceRepository.MissingPlan plan = mock(WorkoutPlanAdherenceRepository.MissingPlan.class);
+        when(plan.getWorkoutPlanId()).thenReturn(workoutPlanId);
+        when(plan.getUserId()).thenReturn(1L);
+        return plan;
+    }
+
+    private static WorkoutPlanAdherence adherence(Long workoutPlanId) {
+        WorkoutPlanAdherence adherence = new WorkoutPlanAdherence();
+        adherence.setWorkoutPlanId(workoutPlanId);
+        adherence.setUserId(1L);
+        return adherence;
+    }
+
+    private static ActivityLogResponse log(Long id, Long workoutPlanId, int duration, LocalDateTime createdDate) {
+        return new ActivityLogResponse(id, "Running", 300, duration, createdDate, 1L, "John", UserRole.USER,
+                workoutPlanId, "Plan");
+    }
+}
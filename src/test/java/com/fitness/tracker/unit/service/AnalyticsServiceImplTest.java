@@ -0,0 +1,146 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.configuration.AnalyticsProperties;
+import com.fitness.tracker.dto.response.AnalyticsSummaryResponse;
+import com.fitness.tracker.dto.response.DailyStatsResponse;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.service.impl.AnalyticsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceImplTest {
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AnalyticsServiceImpl analyticsService;
+
+    private final LocalDate from = LocalDate.of(2025, 3, 1);
+    private final LocalDate to = LocalDate.of(2025, 3, 31);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        UserRepository.IdRange idRange = mock(UserRepository.IdRange.class);
+        when(idRange.getMinId()).thenReturn(1L);
+        when(idRange.getMaxId()).thenReturn(8L);
+        when(userRepository.findIdRange()).thenReturn(idRange);
+        analyticsService = newService(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyticsService.shutdown();
+    }
+
+    @Test
+    void summaryAddsUpUserPartitions() {
+        ActivityLogRepository.ActivityTypeTotals runningLow = activityType("Running", 3, 2, 900, 90);
+        ActivityLogRepository.ActivityTypeTotals runningHigh = activityType("Running", 3, 1, 600, 60);
+        ActivityLogRepository.ActivityTypeTotals yogaHigh = activityType("Yoga", 2, 2, 200, 120);
+        when(activityLogRepository.countActiveUsers(any(), any(), eq(1L), eq(4L))).thenReturn(2L);
+        when(activityLogRepository.countActiveUsers(any(), any(), eq(5L), eq(8L))).thenReturn(3L);
+        when(activityLogRepository.sumByActivityTypeForUsers(any(), any(), eq(1L), eq(4L)))
+                .thenReturn(List.of(runningLow));
+        when(activityLogRepository.sumByActivityTypeForUsers(any(), any(), eq(5L), eq(8L)))
+                .thenReturn(List.of(runningHigh, yogaHigh));
+
+        AnalyticsSummaryResponse response = analyticsService.getSummary(from, to);
+
+        assertThat(response.activeUsers()).isEqualTo(5);
+        assertThat(response.sessions()).isEqualTo(8);
+        assertThat(response.totalCalories()).isEqualTo(1700);
+        assertThat(response.activityTypes()).hasSize(2);
+        assertThat(response.activityTypes().get(0).activityType()).isEqualTo("Running");
+        assertThat(response.activityTypes().get(0).activeUsers()).isEqualTo(3);
+        assertThat(response.activityTypes().get(0).share()).isEqualTo(75.0);
+    }
+
+    @Test
+    void dailyStatsAreSortedAcrossTimePartitions() {
+        ActivityLogRepository.DailyTotals early = daily(from, 4);
+        ActivityLogRepository.DailyTotals late = daily(to, 6);
+        when(activityLogRepository.sumByDay(eq(from.atStartOfDay()), any())).thenReturn(List.of(early));
+        when(activityLogRepository.sumByDay(any(), eq(to.plusDays(1).atStartOfDay()))).thenReturn(List.of(late));
+
+        List<DailyStatsResponse> response = analyticsService.getDailyStats(from, to);
+
+        assertThat(response).extracting(DailyStatsResponse::date).containsExactly(from, to);
+        assertThat(response.get(1).sessions()).isEqualTo(6);
+    }
+
+    @Test
+    void slowReportTimesOut() {
+        analyticsService.shutdown();
+        analyticsService = newService(Duration.ofMillis(200));
+        when(activityLogRepository.countActiveUsers(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return 0L;
+        });
+
+        assertThatThrownBy(() -> analyticsService.getSummary(from, to))
+                .isInstanceOf(CustomException.class)
+                .extracting("statusCode")
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void rangeTooLongIsRejected() {
+        assertThatThrownBy(() -> analyticsService.getSummary(from, from.plusDays(400)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> analyticsService.getDailyStats(to, from))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AnalyticsServiceImpl newService(Duration timeout) {
+        return new AnalyticsServiceImpl(activityLogRepository, userRepository,
+                new AnalyticsProperties(2, 16, timeout, 366), transactionManager);
+    }
+
+    private static ActivityLogRepository.ActivityTypeTotals activityType(String activityType, long sessions, long activeUsers,
+                                                                        long caloriesBurned, long duration) {
+        ActivityLogRepository.ActivityTypeTotals totals = mock(ActivityLogRepository.ActivityTypeTotals.class);
+        when(totals.getActivityType()).thenReturn(activityType);
+        when(totals.getSessions()).thenReturn(sessions);
+        when(totals.getActiveUsers()).thenReturn(activeUsers);
+        when(totals.getCaloriesBurned()).thenReturn(caloriesBurned);
+        when(totals.getDuration()).thenReturn(duration);
+        return totals;
+    }
+
+    private static ActivityLogRepository.DailyTotals daily(LocalDate date, long sessions) {
+        ActivityLogRepository.DailyTotals totals = mock(ActivityLogRepository.DailyTotals.class);
+        when(totals.getDate()).thenReturn(date);
+        when(totals.getSessions()).thenReturn(sessions);
+        when(totals.getActiveUsers()).thenReturn(1L);
+        when(totals.getCaloriesBurned()).thenReturn(100L);
+        when(totals.getDuration()).thenReturn(30L);
+        return totals;
+    }
+}
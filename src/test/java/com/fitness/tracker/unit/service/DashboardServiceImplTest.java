@@ -0,0 +1,166 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.configuration.DashboardProperties;
+import com.fitness.tracker.dto.response.DashboardResponse;
+import com.fitness.tracker.dto.response.StreakResponse;
+import com.fitness.tracker.entity.User;
+import com.fitness.tracker.enums.DashboardSection;
+import com.fitness.tracker.enums.DashboardSectionStatus;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.service.ActivityLogService;
+import com.fitness.tracker.service.StreakService;
+import com.fitness.tracker.service.UserService;
+import com.fitness.tracker.service.WorkoutPlanService;
+import com.fitness.tracker.service.impl.DashboardServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceImplTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ActivityLogService activityLogService;
+
+    @Mock
+    private WorkoutPlanService workoutPlanService;
+
+    @Mock
+    private StreakService streakService;
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardServiceImpl dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        User user = new User();
+        user.setId(1L);
+        user.setName("John Doe");
+        user.setEmail("john@example.com");
+        user.setRole(UserRole.USER);
+        when(userService.getUser(1L)).thenReturn(user);
+        when(activityLogService.getRecentActivityLogs(1L, 10)).thenReturn(List.of());
+        when(workoutPlanService.getAllWorkoutPlans(1L)).thenReturn(List.of());
+        ActivityLogRepository.UserTotals totals = mock(ActivityLogRepository.UserTotals.class);
+        when(totals.getSessions()).thenReturn(3L);
+        when(totals.getCaloriesBurned()).thenReturn(900L);
+        when(totals.getDuration()).thenReturn(120L);
+        when(activityLogRepository.sumByUser(eq(1L), any(), any())).thenReturn(totals);
+        when(streakService.getStreak(1L)).thenReturn(new StreakResponse(1L, 4, 9, LocalDate.now(), 12));
+
+        dashboardService = new DashboardServiceImpl(userService, activityLogService, workoutPlanService, streakService,
+                activityLogRepository, new DashboardProperties(4, 16, Duration.ofMillis(300),
+                        Map.of(DashboardSection.PROFILE, Duration.ofSeconds(2)), 10), transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void getDashboardWithEverySection() {
+        DashboardResponse dashboard = dashboardService.getDashboard(1L);
+
+        assertThat(dashboard.profile().status()).isEqualTo(DashboardSectionStatus.OK);
+        assertThat(dashboard.profile().data().name()).isEqualTo("John Doe");
+        assertThat(dashboard.recentActivityLogs().data()).isEmpty();
+        assertThat(dashboard.workoutPlans().status()).isEqualTo(DashboardSectionStatus.OK);
+        assertThat(dashboard.weeklyTotals().data().caloriesBurned()).isEqualTo(900L);
+        assertThat(dashboard.streak().data().currentStreak()).isEqualTo(4);
+    }
+
+    @Test
+    void slowSectionTimesOutWithoutHoldingBackTheOthers() {
+        when(streakService.getStreak(1L)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        long start = System.nanoTime();
+        DashboardResponse dashboard = dashboardService.getDashboard(1L);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(dashboard.streak().status()).isEqualTo(DashboardSectionStatus.TIMED_OUT);
+        assertThat(dashboard.streak().data()).isNull();
+        assertThat(dashboard.weeklyTotals().status()).isEqualTo(DashboardSectionStatus.OK);
+    }
+
+    @Test
+    void sectionDeadlineCanBeLongerThanTheDefault() {
+        when(userService.getUser(1L)).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            User user = new User();
+            user.setId(1L);
+            user.setName("John Doe");
+            return user;
+        });
+
+        DashboardResponse dashboard = dashboardService.getDashboard(1L);
+
+        assertThat(dashboard.profile().status()).isEqualTo(DashboardSectionStatus.OK);
+    }
+
+    @Test
+    void failingSectionIsReportedAsFailed() {
+        when(activityLogRepository.sumByUser(eq(1L), any(), any())).thenThrow(new IllegalStateException("boom"));
+
+        DashboardResponse dashboard = dashboardService.getDashboard(1L);
+
+        assertThat(dashboard.weeklyTotals().status()).isEqualTo(DashboardSectionStatus.FAILED);
+        assertThat(dashboard.profile().status()).isEqualTo(DashboardSectionStatus.OK);
+    }
+
+    @Test
+    void eachSectionRunsWithItsOwnTransactionTimeout() {
+        dashboardService.getDashboard(1L);
+
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(DashboardSection.values().length)).getTransaction(definitions.capture());
+        // 2s for the profile, the 300ms default rounded up to a second for the rest
+        assertThat(definitions.getAllValues()).extracting(TransactionDefinition::getTimeout)
+                .containsExactlyInAnyOrder(2, 1, 1, 1, 1);
+    }
+
+    @Test
+    void unknownUserFailsTheDashboard() {
+        when(userService.getUser(1L)).thenThrow(new CustomException(HttpStatus.NOT_FOUND, "User not found"));
+
+        assertThatThrownBy(() -> dashboardService.getDashboard(1L))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("User not found");
+    }
+}
@@ -0,0 +1,133 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.dto.response.LeaderboardRankResponse;
+import com.fitness.tracker.dto.response.LeaderboardResponse;
+import com.fitness.tracker.entity.User;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.service.ActivityTypeService;
+import com.fitness.tracker.service.impl.LeaderboardServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardServiceImplTest {
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ActivityTypeService activityTypeService;
+
+    @InjectMocks
+    private LeaderboardServiceImpl leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        User john = new User();
+        john.setId(1L);
+        john.setName("John");
+        User jane = new User();
+        jane.setId(2L);
+        jane.setName("Jane");
+        when(userRepository.findAllById(any())).thenReturn(List.of(john, jane));
+        when(activityTypeService.findName("Running")).thenReturn("Running");
+        when(activityTypeService.findName(" running ")).thenReturn("Running");
+        when(activityTypeService.findName("Swimming")).thenReturn("Swimming");
+    }
+
+    @Test
+    void eventsUpdateGlobalAndActivityTypeBoards() {
+        leaderboardService.onActivityLogEvent(ActivityLogEvent.created(log(10L, 1L, "Running", 300)));
+        leaderboardService.onActivityLogEvent(ActivityLogEvent.created(log(11L, 2L, "Cycling", 500)));
+
+        LeaderboardResponse global = leaderboardService.getLeaderboard(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null, 10);
+        assertThat(global.totalUsers()).isEqualTo(2);
+        assertThat(global.entries().get(0).userName()).isEqualTo("Jane");
+        assertThat(global.entries().get(0).score()).isEqualTo(500);
+
+        LeaderboardResponse running = leaderboardService.getLeaderboard(LeaderboardPeriod.MONTHLY, LeaderboardMetric.CALORIES, "Running", 10);
+        assertThat(running.entries()).singleElement().extracting("userId").isEqualTo(1L);
+    }
+
+    @Test
+    void updatesAndDeletesApplyDeltas() {
+        ActivityLogResponse created = log(10L, 1L, "Running", 300);
+        leaderboardService.onActivityLogEvent(ActivityLogEvent.created(created));
+        leaderboardService.onActivityLogEvent(ActivityLogEvent.created(log(11L, 2L, "Running", 400)));
+
+        ActivityLogResponse updated = log(10L, 1L, "Running", 600);
+        leaderboardService.onActivityLogEvent(ActivityLogEvent.updated(created, updated));
+        LeaderboardRankResponse rank = leaderboardService.getRank(1L, LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null);
+        assertThat(rank.rank()).isEqualTo(1);
+        assertThat(rank.score()).isEqualTo(600);
+
+        leaderboardService.onActivityLogEvent(ActivityLogEvent.deleted(updated));
+        rank = leaderboardService.getRank(1L, LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null);
+        assertThat(rank.rank()).isNull();
+        assertThat(rank.totalUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildLoadsTotalsFromDatabase() {
+        ActivityLogRepository.ActivityTotals totals = mock(ActivityLogRepository.ActivityTotals.class);
+        when(totals.getUserId()).thenReturn(2L);
+        when(totals.getActivityType()).thenReturn("Swimming");
+        when(totals.getCaloriesBurned()).thenReturn(900L);
+        when(totals.getDuration()).thenReturn(60L);
+        when(activityLogRepository.sumByUserAndActivityType(any(), any())).thenReturn(List.of(totals));
+
+        leaderboardService.rebuild();
+
+        LeaderboardRankResponse rank = leaderboardService.getRank(2L, LeaderboardPeriod.MONTHLY, LeaderboardMetric.DURATION, "Swimming");
+        assertThat(rank.rank()).isEqualTo(1);
+        assertThat(rank.score()).isEqualTo(60);
+    }
+
+    @Test
+    void activityTypeIsResolvedThroughTheDictionary() {
+        leaderboardService.onActivityLogEvent(ActivityLogEvent.created(log(10L, 1L, "Running", 300)));
+
+        LeaderboardResponse running = leaderboardService.getLeaderboard(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, " running ", 10);
+        assertThat(running.entries()).singleElement().extracting("userId").isEqualTo(1L);
+
+        LeaderboardResponse unknown = leaderboardService.getLeaderboard(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, "Skydiving", 10);
+        assertThat(unknown.totalUsers()).isZero();
+        assertThat(unknown.entries()).isEmpty();
+        verify(activityTypeService, never()).getCode(any());
+    }
+
+    @Test
+    void limitIsBounded() {
+        assertThatThrownBy(() -> leaderboardService.getLeaderboard(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ActivityLogResponse log(Long id, Long userId, String activityType, int calories) {
+        return new ActivityLogResponse(id, activityType, calories, 30, LocalDateTime.now(),
+                userId, "User " + userId, UserRole.USER, 5L, "Plan");
+    }
+}
@@ -0,0 +1,148 @@
+package com.fitness.tracker.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fitness.tracker.configuration.PercentileProperties;
+import com.fitness.tracker.dto.PercentileSnapshot;
+import com.fitness.tracker.dto.response.LeaderboardRankResponse;
+import com.fitness.tracker.dto.response.PercentileDistributionResponse;
+import com.fitness.tracker.dto.response.PercentileResponse;
+import com.fitness.tracker.enums.LeaderboardMetric;
+import com.fitness.tracker.enums.LeaderboardPeriod;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.service.ActivityTypeService;
+import com.fitness.tracker.service.LeaderboardService;
+import com.fitness.tracker.service.impl.PercentileServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+class PercentileServiceImplTest {
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private ActivityTypeService activityTypeService;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private PercentileServiceImpl percentileService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        percentileService = newService("node-a", true);
+
+        // Weekly calories totals of 1000 users: 1, 2, ..., 1000
+        when(leaderboardService.getActivityTypes(any())).thenReturn(Set.of());
+        when(leaderboardService.getScores(any(), any(), any())).thenReturn(new long[0]);
+        when(leaderboardService.getScores(eq(LeaderboardPeriod.WEEKLY), eq(LeaderboardMetric.CALORIES), isNull()))
+                .thenReturn(LongStream.rangeClosed(1, 1000).toArray());
+        when(leaderboardService.getRank(eq(1L), eq(LeaderboardPeriod.WEEKLY), eq(LeaderboardMetric.CALORIES), isNull()))
+                .thenReturn(new LeaderboardRankResponse(1L, LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null,
+                        null, 100, 750, 1000));
+    }
+
+    @Test
+    void userPercentileComesFromDigestOfTotals() {
+        percentileService.refresh();
+
+        PercentileResponse response = percentileService.getUserPercentile(1L, LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null);
+
+        assertThat(response.value()).isEqualTo(750);
+        assertThat(response.activeUsers()).isEqualTo(1000);
+        assertThat(response.percentile()).isCloseTo(75.0, within(0.5));
+    }
+
+    @Test
+    void distributionWithoutActivityIsEmpty() {
+        percentileService.refresh();
+
+        PercentileDistributionResponse response = percentileService.getDistribution(LeaderboardPeriod.MONTHLY, LeaderboardMetric.DURATION, "Running");
+
+        assertThat(response.activeUsers()).isZero();
+        assertThat(response.quantiles()).isEmpty();
+    }
+
+    @Test
+    void activityTypeIsResolvedThroughTheDictionary() {
+        when(leaderboardService.getActivityTypes(LeaderboardPeriod.WEEKLY)).thenReturn(Set.of("Running"));
+        when(leaderboardService.getScores(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, "Running"))
+                .thenReturn(LongStream.rangeClosed(1, 10).toArray());
+        when(activityTypeService.findName("RUNNING")).thenReturn("Running");
+        percentileService.refresh();
+
+        assertThat(percentileService.getDistribution(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, "RUNNING")
+                .activeUsers()).isEqualTo(10);
+        assertThat(percentileService.getDistribution(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, "Skydiving")
+                .activeUsers()).isZero();
+    }
+
+    @Test
+    void peerSnapshotIsMergedAndPersisted() throws Exception {
+        percentileService.refresh();
+        PercentileSnapshot snapshot = percentileService.exportSnapshot();
+
+        PercentileServiceImpl other = newService("node-b", true);
+        when(leaderboardService.getScores(any(), any(), any())).thenReturn(new long[0]);
+        other.refresh();
+        other.mergeSnapshot(snapshot);
+
+        PercentileDistributionResponse response = other.getDistribution(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null);
+        assertThat(response.activeUsers()).isEqualTo(1000);
+        assertThat(response.quantiles().get("p50")).isCloseTo(500.0, within(5.0));
+
+        other.persist();
+        assertThat(Files.exists(directory.resolve("node-b.json"))).isTrue();
+        PercentileServiceImpl restarted = newService("node-b", true);
+        restarted.start();
+        assertThat(restarted.getDistribution(LeaderboardPeriod.WEEKLY, LeaderboardMetric.CALORIES, null).activeUsers())
+                .isEqualTo(1000);
+    }
+
+    @Test
+    void peerSnapshotIsRejectedWhenNodesShareTheDatabase() {
+        percentileService.refresh();
+        PercentileSnapshot snapshot = percentileService.exportSnapshot();
+        PercentileServiceImpl shared = newService("node-b", false);
+
+        assertThatThrownBy(() -> shared.mergeSnapshot(snapshot))
+                .isInstanceOf(CustomException.class)
+                .extracting("statusCode")
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void ownSnapshotIsRejected() {
+        percentileService.refresh();
+        PercentileSnapshot snapshot = percentileService.exportSnapshot();
+
+        assertThatThrownBy(() -> percentileService.mergeSnapshot(snapshot))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private PercentileServiceImpl newService(String nodeId, boolean mergePeers) {
+        return new PercentileServiceImpl(leaderboardService, activityTypeService,
+                new PercentileProperties(nodeId, 100, directory.resolve(nodeId + ".json"), mergePeers), objectMapper);
+    }
+}
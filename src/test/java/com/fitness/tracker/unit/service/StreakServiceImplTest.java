@@ -0,0 +1,132 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.dto.response.ActivityLogResponse;
+import com.fitness.tracker.dto.response.StreakResponse;
+import com.fitness.tracker.entity.UserStreak;
+import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityLogRepository;
+import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.repository.UserStreakRepository;
+import com.fitness.tracker.service.impl.StreakServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class StreakServiceImplTest {
+
+    @Mock
+    private UserStreakRepository userStreakRepository;
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private StreakServiceImpl streakService;
+
+    private UserStreak streak;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        streak = new UserStreak();
+        streak.setUserId(1L);
+        when(userStreakRepository.findForUpdate(1L)).thenReturn(Optional.of(streak));
+        when(userStreakRepository.findById(1L)).thenReturn(Optional.of(streak));
+    }
+
+    @Test
+    void consecutiveDaysBuildStreak() {
+        for (int daysAgo = 3; daysAgo >= 0; daysAgo--) {
+            streakService.onActivityLogEvent(ActivityLogEvent.created(log(today.minusDays(daysAgo))));
+        }
+        // A second log on the same day changes nothing
+        streakService.onActivityLogEvent(ActivityLogEvent.created(log(today)));
+
+        StreakResponse response = streakService.getStreak(1L);
+        assertThat(response.currentStreak()).isEqualTo(4);
+        assertThat(response.bestStreak()).isEqualTo(4);
+        assertThat(response.lastActiveDate()).isEqualTo(today);
+    }
+
+    @Test
+    void backfilledDayJoinsRuns() {
+        streakService.onActivityLogEvent(ActivityLogEvent.created(log(today.minusDays(2))));
+        streakService.onActivityLogEvent(ActivityLogEvent.created(log(today)));
+        assertThat(streakService.getStreak(1L).currentStreak()).isEqualTo(1);
+
+        streakService.onActivityLogEvent(ActivityLogEvent.created(log(today.minusDays(1))));
+
+        StreakResponse response = streakService.getStreak(1L);
+        assertThat(response.currentStreak()).isEqualTo(3);
+        assertThat(response.bestStreak()).isEqualTo(3);
+    }
+
+    @Test
+    void deletingLastLogOfDayBreaksStreak() {
+        for (int daysAgo = 4; daysAgo >= 0; daysAgo--) {
+            streakService.onActivityLogEvent(ActivityLogEvent.created(log(today.minusDays(daysAgo))));
+        }
+        when(activityLogRepository.existsByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(eq(1L), any(), any()))
+                .thenReturn(false);
+
+        streakService.onActivityLogEvent(ActivityLogEvent.deleted(log(today.minusDays(1))));
+
+        StreakResponse response = streakService.getStreak(1L);
+        assertThat(response.currentStreak()).isEqualTo(1);
+        assertThat(response.bestStreak()).isEqualTo(3);
+    }
+
+    @Test
+    void deletingOneOfSeveralLogsKeepsDayActive() {
+        streakService.onActivityLogEvent(ActivityLogEvent.created(log(today)));
+        when(activityLogRepository.existsByUserIdAndCreatedDateGreaterThanEqualAndCreatedDateLessThan(eq(1L), any(), any()))
+                .thenReturn(true);
+
+        streakService.onActivityLogEvent(ActivityLogEvent.deleted(log(today)));
+
+        assertThat(streakService.getStreak(1L).currentStreak()).isEqualTo(1);
+    }
+
+    @Test
+    void staleStreakIsNotCurrent() {
+        streakService.onActivityLogEvent(ActivityLogEvent.created(log(today.minusDays(3))));
+
+        StreakResponse response = streakService.getStreak(1L);
+        assertThat(response.currentStreak()).isZero();
+        assertThat(response.bestStreak()).isEqualTo(1);
+    }
+
+    @Test
+    void getStreakUserNotFound() {
+        when(userStreakRepository.findById(2L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        assertThatThrownBy(() -> streakService.getStreak(2L))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("User not found");
+    }
+
+    private ActivityLogResponse log(LocalDate day) {
+        return new ActivityLogResponse(10L, "Running", 200, 30, day.atTime(7, 30),
+                1L, "John", UserRole.USER, 5L, "Plan");
+    }
+}
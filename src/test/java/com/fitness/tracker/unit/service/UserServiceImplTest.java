@@ -1,19 +1,40 @@
 package com.fitness.tracker.unit.service;
 
+import com.fitness.tracker.dto.UserFilter;
+import com.fitness.tracker.dto.response.PageResponse;
+import com.fitness.tracker.dto.response.UserResponse;
+import com.fitness.tracker.entity.ActivityLog;
 import com.fitness.tracker.entity.User;
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.ActivityLogEventType;
 import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.enums.UserSortField;
+import com.fitness.tracker.enums.WorkoutPlanEventType;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.event.WorkoutPlanEvent;
 import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.repository.ActivityLogRepository;
 import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.repository.UserStreakRepository;
+import com.fitness.tracker.repository.WorkoutPlanAdherenceRepository;
+import com.fitness.tracker.repository.WorkoutPlanRepository;
 import com.fitness.tracker.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,6 +48,21 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private WorkoutPlanAdherenceRepository adherenceRepository;
+
+    @Mock
+    private UserStreakRepository userStreakRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -86,24 +122,56 @@ class UserServiceImplTest {
 
     @Test
     void deleteUserSuccess() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.deleteUser(1L);
+
+        verify(userRepository, times(1)).delete(user);
+        verify(adherenceRepository, times(1)).deleteByUserId(1L);
+        verify(userStreakRepository, times(1)).deleteById(1L);
+        verify(userRepository, never()).incrementActivityLogsVersion(any());
+    }
+
+    @Test
+    void deleteUserPublishesCascadedDeletes() {
+        User otherUser = new User();
+        otherUser.setId(2L);
+        WorkoutPlan workoutPlan = new WorkoutPlan();
+        workoutPlan.setId(10L);
+        workoutPlan.setUser(user);
+        ActivityLog ownLog = activityLog(100L, user, workoutPlan);
+        ActivityLog otherUsersLog = activityLog(101L, otherUser, workoutPlan);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(workoutPlanRepository.findByUserId(1L)).thenReturn(List.of(workoutPlan));
+        when(activityLogRepository.findByUserId(1L)).thenReturn(List.of(ownLog));
+        when(activityLogRepository.findByWorkoutPlanUserIdAndUserIdNot(1L, 1L)).thenReturn(List.of(otherUsersLog));
 
         userService.deleteUser(1L);
 
-        verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, times(1)).deleteById(1L);
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(3)).publishEvent(captor.capture());
+        List<ActivityLogEvent> activityLogEvents = captor.getAllValues().stream()
+                .filter(ActivityLogEvent.class::isInstance)
+                .map(ActivityLogEvent.class::cast)
+                .toList();
+        assertThat(activityLogEvents).extracting(ActivityLogEvent::type).containsOnly(ActivityLogEventType.DELETED);
+        assertThat(activityLogEvents).extracting(ActivityLogEvent::activityLogId).containsExactlyInAnyOrder(100L, 101L);
+        WorkoutPlanEvent planEvent = (WorkoutPlanEvent) captor.getAllValues().get(2);
+        assertThat(planEvent.type()).isEqualTo(WorkoutPlanEventType.DELETED);
+        assertThat(planEvent.activityLogUserIds()).containsExactlyInAnyOrder(1L, 2L);
+        verify(userRepository, times(1)).incrementActivityLogsVersion(Set.of(2L));
     }
 
     @Test
     void deleteUserNotFound() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.deleteUser(1L))
                 .isInstanceOf(CustomException.class)
                 .hasMessage("User not found");
 
-        verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, never()).deleteById(anyLong());
+        verify(userRepository, never()).delete(any(User.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -129,23 +197,60 @@ class UserServiceImplTest {
     }
     
     @Test
-    void getAllUsersSuccess() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
+    void getUsersReturnsPageWithoutCount() {
+        UserFilter filter = new UserFilter(UserRole.USER, null, null, "jo");
+        when(userRepository.findUsers(filter, UserSortField.CREATED_DATE, Sort.Direction.DESC, 20, 11))
+                .thenReturn(responses(11));
 
-        List<User> users = userService.getAllUsers();
+        PageResponse<UserResponse> page = userService.getUsers(filter, UserSortField.CREATED_DATE, Sort.Direction.DESC, 2, 10, false);
 
-        assertThat(users).hasSize(1);
-        assertThat(users.get(0).getEmail()).isEqualTo("john@example.com");
-        verify(userRepository, times(1)).findAll();
+        assertThat(page.content()).hasSize(10);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.totalElements()).isNull();
+        verify(userRepository, never()).countUsers(any());
     }
 
     @Test
-    void getAllUsersEmpty() {
-        when(userRepository.findAll()).thenReturn(List.of());
+    void getUsersCountsWhenRequested() {
+        UserFilter filter = new UserFilter(null, null, null, null);
+        when(userRepository.findUsers(filter, UserSortField.ID, Sort.Direction.ASC, 0, 21)).thenReturn(responses(3));
+        when(userRepository.countUsers(filter)).thenReturn(3L);
+
+        PageResponse<UserResponse> page = userService.getUsers(filter, UserSortField.ID, Sort.Direction.ASC, 0, 20, true);
 
-        List<User> users = userService.getAllUsers();
+        assertThat(page.content()).hasSize(3);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.totalElements()).isEqualTo(3L);
+    }
+
+    @Test
+    void getUsersInvalidRange() {
+        UserFilter filter = new UserFilter(null, LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 1), null);
+
+        assertThatThrownBy(() -> userService.getUsers(filter, UserSortField.ID, Sort.Direction.ASC, 0, 20, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("createdFrom must not be after createdTo");
+        assertThatThrownBy(() -> userService.getUsers(new UserFilter(null, null, null, null), UserSortField.ID,
+                Sort.Direction.ASC, 0, 101, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(userRepository, never()).findUsers(any(), any(), any(), anyInt(), anyInt());
+    }
+
+    private static List<UserResponse> responses(int count) {
+        List<UserResponse> responses = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            responses.add(new UserResponse(id, "User " + id, "user" + id + "@example.com", UserRole.USER));
+        }
+        return responses;
+    }
 
-        assertThat(users).isEmpty();
-        verify(userRepository, times(1)).findAll();
+    private static ActivityLog activityLog(Long id, User user, WorkoutPlan workoutPlan) {
+        ActivityLog activityLog = new ActivityLog();
+        activityLog.setId(id);
+        activityLog.setActivityType("Running");
+        activityLog.setCreatedDate(LocalDateTime.of(2025, 3, 1, 7, 0));
+        activityLog.setUser(user);
+        activityLog.setWorkoutPlan(workoutPlan);
+        return activityLog;
     }
 }
@@ -0,0 +1,103 @@
+package com.fitness.tracker.unit.service;
+
+import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.enums.WorkoutPlanEventType;
+import com.fitness.tracker.event.WorkoutPlanEvent;
+import com.fitness.tracker.repository.WorkoutPlanRepository;
+import com.fitness.tracker.service.impl.WorkoutPlanSearchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class WorkoutPlanSearchServiceImplTest {
+
+    @Mock
+    private WorkoutPlanRepository workoutPlanRepository;
+
+    @InjectMocks
+    private WorkoutPlanSearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        WorkoutPlanRepository.SearchDocument first = document(1L, 1L, "Strength training", "Full body");
+        WorkoutPlanRepository.SearchDocument second = document(2L, 1L, "Morning run", "Easy pace");
+        WorkoutPlanRepository.SearchDocument third = document(3L, 2L, "Strength circuit", null);
+        when(workoutPlanRepository.findSearchDocuments()).thenReturn(List.of(first, second, third));
+        when(workoutPlanRepository.findByIdIn(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(WorkoutPlanSearchServiceImplTest::plan).toList();
+        });
+        searchService.rebuild();
+    }
+
+    @Test
+    void searchWorkoutPlansOnlyInUsersIndex() {
+        List<WorkoutPlan> plans = searchService.searchWorkoutPlans(1L, "stren", 10);
+
+        assertThat(plans).extracting(WorkoutPlan::getId).containsExactly(1L);
+        verify(workoutPlanRepository, times(1)).findByIdIn(List.of(1L));
+    }
+
+    @Test
+    void searchAllWorkoutPlansMergesUsersByScore() {
+        List<WorkoutPlan> plans = searchService.searchAllWorkoutPlans("strength", 10);
+
+        assertThat(plans).extracting(WorkoutPlan::getId).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void searchUnknownUserSkipsLoading() {
+        assertThat(searchService.searchWorkoutPlans(9L, "run", 10)).isEmpty();
+        verify(workoutPlanRepository, never()).findByIdIn(anyList());
+    }
+
+    @Test
+    void eventsUpdateIndex() {
+        searchService.onWorkoutPlanEvent(
+                new WorkoutPlanEvent(WorkoutPlanEventType.UPDATED, 2L, 1L, "Evening swim", null, Set.of(1L)));
+        searchService.onWorkoutPlanEvent(
+                new WorkoutPlanEvent(WorkoutPlanEventType.CREATED, 4L, 3L, "Swim drills", null, Set.of(3L)));
+        searchService.onWorkoutPlanEvent(
+                new WorkoutPlanEvent(WorkoutPlanEventType.DELETED, 1L, 1L, "Strength training", "Full body", Set.of(1L)));
+
+        assertThat(searchService.searchWorkoutPlans(1L, "run", 10)).isEmpty();
+        assertThat(searchService.searchWorkoutPlans(1L, "strength", 10)).isEmpty();
+        assertThat(searchService.searchAllWorkoutPlans("swim", 10)).extracting(WorkoutPlan::getId).containsExactly(4L, 2L);
+    }
+
+    @Test
+    void invalidQueryOrLimit() {
+        assertThatThrownBy(() -> searchService.searchWorkoutPlans(1L, " ,. ", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.searchAllWorkoutPlans("run", 51))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("limit must be between 1 and 50");
+    }
+
+    private static WorkoutPlanRepository.SearchDocument document(Long id, Long userId, String title, String description) {
+        WorkoutPlanRepository.SearchDocument document = mock(WorkoutPlanRepository.SearchDocument.class);
+        when(document.getId()).thenReturn(id);
+        when(document.getUserId()).thenReturn(userId);
+        when(document.getTitle()).thenReturn(title);
+        when(document.getDescription()).thenReturn(description);
+        return document;
+    }
+
+    private static WorkoutPlan plan(Long id) {
+        WorkoutPlan plan = new WorkoutPlan();
+        plan.setId(id);
+        return plan;
+    }
+}
@@ -1,21 +1,39 @@
 package com.fitness.tracker.unit.service;
 
+import com.fitness.tracker.configuration.ReadWriteRoutingDataSource;
+import com.fitness.tracker.configuration.SingleFlightProperties;
+import com.fitness.tracker.entity.ActivityLog;
 import com.fitness.tracker.entity.User;
 import com.fitness.tracker.entity.WorkoutPlan;
+import com.fitness.tracker.entity.WorkoutPlanAdherence;
 import com.fitness.tracker.enums.UserRole;
+import com.fitness.tracker.enums.WorkoutPlanEventType;
+import com.fitness.tracker.event.ActivityLogEvent;
+import com.fitness.tracker.event.WorkoutPlanEvent;
 import com.fitness.tracker.exception.CustomException;
 import com.fitness.tracker.repository.UserRepository;
+import com.fitness.tracker.repository.WorkoutPlanAdherenceRepository;
 import com.fitness.tracker.repository.WorkoutPlanRepository;
 import com.fitness.tracker.service.impl.WorkoutPlanServiceImpl;
+import com.fitness.tracker.utils.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -31,6 +49,19 @@ class WorkoutPlanServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private WorkoutPlanAdherenceRepository adherenceRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties(true), new SimpleMeterRegistry(),
+            new StaticListableBeanFactory().getBeanProvider(ReadWriteRoutingDataSource.class));
+
     @InjectMocks
     private WorkoutPlanServiceImpl workoutPlanService;
 
@@ -66,6 +97,9 @@ class WorkoutPlanServiceImplTest {
         assertThat(saved.getTitle()).isEqualTo("Plan A");
         verify(userRepository, times(1)).findById(1L);
         verify(workoutPlanRepository, times(1)).save(workoutPlan);
+        verify(adherenceRepository, times(1)).save(any(WorkoutPlanAdherence.class));
+        verify(userRepository, times(1)).incrementWorkoutPlansVersion(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(WorkoutPlanEvent.class));
     }
 
     @Test
@@ -93,6 +127,20 @@ class WorkoutPlanServiceImplTest {
         verify(workoutPlanRepository, times(1)).save(workoutPlan);
     }
 
+    @Test
+    void updateWorkoutPlanBumpsActivityLogVersionsOfEveryoneLoggingAgainstIt() {
+        when(workoutPlanRepository.findById(1L)).thenReturn(Optional.of(workoutPlan));
+        when(workoutPlanRepository.save(any(WorkoutPlan.class))).thenReturn(workoutPlan);
+        when(workoutPlanRepository.findActivityLogUserIds(1L)).thenReturn(Set.of(2L, 3L));
+
+        workoutPlanService.updateWorkoutPlan(1L, 1L, workoutPlan);
+
+        verify(userRepository).incrementActivityLogsVersion(Set.of(1L, 2L, 3L));
+        ArgumentCaptor<WorkoutPlanEvent> captor = ArgumentCaptor.forClass(WorkoutPlanEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().activityLogUserIds()).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
     @Test
     void updateWorkoutPlanNotFound() {
         when(workoutPlanRepository.findById(1L)).thenReturn(Optional.empty());
@@ -129,6 +177,32 @@ class WorkoutPlanServiceImplTest {
 
         verify(workoutPlanRepository, times(1)).findById(1L);
         verify(workoutPlanRepository, times(1)).delete(workoutPlan);
+        verify(adherenceRepository, times(1)).deleteByWorkoutPlanId(1L);
+    }
+
+    @Test
+    void deleteWorkoutPlanPublishesCascadedActivityLogDeletes() {
+        ActivityLog activityLog = new ActivityLog();
+        activityLog.setId(100L);
+        activityLog.setUser(user);
+        activityLog.setWorkoutPlan(workoutPlan);
+        workoutPlan.getActivityLogs().add(activityLog);
+        when(workoutPlanRepository.findById(1L)).thenReturn(Optional.of(workoutPlan));
+
+        workoutPlanService.deleteWorkoutPlan(1L, 1L);
+
+        verify(eventPublisher, times(1)).publishEvent(any(ActivityLogEvent.class));
+        verify(userRepository, times(1)).incrementWorkoutPlansVersion(1L);
+    }
+
+    @Test
+    void deleteWorkoutPlanBumpsActivityLogVersionsOfEveryoneLoggingAgainstIt() {
+        when(workoutPlanRepository.findById(1L)).thenReturn(Optional.of(workoutPlan));
+        when(workoutPlanRepository.findActivityLogUserIds(1L)).thenReturn(Set.of(2L));
+
+        workoutPlanService.deleteWorkoutPlan(1L, 1L);
+
+        verify(userRepository).incrementActivityLogsVersion(Set.of(1L, 2L));
     }
 
     @Test
@@ -196,26 +270,78 @@ class WorkoutPlanServiceImplTest {
         verify(workoutPlanRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void getWorkoutPlansOnlyOwnedOnes() {
+        when(workoutPlanRepository.findByUserIdAndIdIn(1L, Set.of(1L, 2L))).thenReturn(List.of(workoutPlan));
+
+        Map<Long, WorkoutPlan> found = workoutPlanService.getWorkoutPlans(List.of(1L, 2L), 1L);
+
+        assertThat(found).containsOnlyKeys(1L);
+    }
+
+    @Test
+    void getWorkoutPlansRejectsBlankIds() {
+        List<Long> ids = new ArrayList<>();
+        ids.add(1L);
+        ids.add(null);
+
+        assertThatThrownBy(() -> workoutPlanService.getWorkoutPlans(ids, 1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ids must not contain blanks");
+    }
+
     @Test
     void getAllWorkoutPlansSuccess() {
-        user.setWorkoutPlans(List.of(workoutPlan));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        UserRepository.Versions versions = mock(UserRepository.Versions.class);
+        when(versions.getVersion()).thenReturn(2L);
+        when(versions.getWorkoutPlansVersion()).thenReturn(5L);
+        when(userRepository.findVersionsById(1L)).thenReturn(Optional.of(versions));
+        when(workoutPlanRepository.findByUserId(1L)).thenReturn(List.of(workoutPlan));
 
         List<WorkoutPlan> plans = workoutPlanService.getAllWorkoutPlans(1L);
 
         assertThat(plans).hasSize(1);
         assertThat(plans.get(0).getTitle()).isEqualTo("Plan A");
-        verify(userRepository, times(1)).findById(1L);
+        verify(workoutPlanRepository, times(1)).findByUserId(1L);
+        verify(singleFlight).execute(eq("workout-plans"), eq(1L), eq("wp-1-2-5"), any());
     }
 
     @Test
     void getAllWorkoutPlansUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findVersionsById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> workoutPlanService.getAllWorkoutPlans(1L))
                 .isInstanceOf(CustomException.class)
                 .hasMessage("User not found");
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(workoutPlanRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    void workoutPlanEventForgetsInFlightReadsOfEveryoneLoggingAgainstIt() {
+        workoutPlanService.onWorkoutPlanEvent(WorkoutPlanEvent.of(WorkoutPlanEventType.UPDATED, workoutPlan, Set.of(1L, 2L)));
+
+        verify(singleFlight, atLeastOnce()).forget(1L);
+        verify(singleFlight).forget(2L);
+    }
+
+    @Test
+    void getWorkoutPlansETagFromVersions() {
+        UserRepository.Versions versions = mock(UserRepository.Versions.class);
+        when(versions.getVersion()).thenReturn(2L);
+        when(versions.getWorkoutPlansVersion()).thenReturn(5L);
+        when(userRepository.findVersionsById(1L)).thenReturn(Optional.of(versions));
+
+        assertThat(workoutPlanService.getWorkoutPlansETag(1L)).isEqualTo("wp-1-2-5");
+        verify(workoutPlanRepository, never()).findAll();
+    }
+
+    @Test
+    void getWorkoutPlansETagUserNotFound() {
+        when(userRepository.findVersionsById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> workoutPlanService.getWorkoutPlansETag(1L))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("User not found");
     }
 }
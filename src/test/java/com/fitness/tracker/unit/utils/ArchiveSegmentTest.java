@@ -0,0 +1,69 @@
+package com.fitness.tracker.unit.utils;
+
+import com.fitness.tracker.utils.ArchiveSegment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArchiveSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsRows() throws IOException {
+        Path file = directory.resolve("user-1/2024-01-42.seg");
+        List<ArchiveSegment.Row> rows = List.of(
+                new ArchiveSegment.Row(42, 7, (short) 3, 250, 30, LocalDateTime.of(2024, 1, 2, 6, 15, 0, 123_456_000)),
+                new ArchiveSegment.Row(17, 0, (short) 0, 0, 0, LocalDateTime.of(2024, 1, 2, 6, 15)),
+                new ArchiveSegment.Row(43, 7, (short) 1, -5, 90, LocalDateTime.of(2024, 1, 31, 23, 59, 59)));
+
+        ArchiveSegment.write(file, rows);
+
+        assertThat(ArchiveSegment.read(file)).containsExactlyElementsOf(rows);
+        assertThat(Files.exists(directory.resolve("user-1/2024-01-42.seg.tmp"))).isFalse();
+    }
+
+    @Test
+    void sortedSegmentIsSmallerThanFixedWidthRows() throws IOException {
+        Path file = directory.resolve("segment.seg");
+        Random random = new Random(7);
+        List<ArchiveSegment.Row> rows = new ArrayList<>();
+        LocalDateTime createdDate = LocalDateTime.of(2024, 3, 1, 0, 0);
+        for (int i = 0; i < 5_000; i++) {
+            createdDate = createdDate.plusMinutes(random.nextInt(30));
+            rows.add(new ArchiveSegment.Row(1_000_000 + i * 3L, 12, (short) (1 + random.nextInt(4)),
+                    100 + random.nextInt(400), 10 + random.nextInt(80), createdDate));
+        }
+
+        ArchiveSegment.write(file, rows);
+
+        assertThat(ArchiveSegment.read(file)).containsExactlyElementsOf(rows);
+        // id, plan id and timestamp as longs plus three ints
+        assertThat(Files.size(file)).isLessThan(rows.size() * 36L / 4);
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedFiles() throws IOException {
+        Path foreign = directory.resolve("foreign.seg");
+        Files.writeString(foreign, "not a segment at all");
+        assertThatThrownBy(() -> ArchiveSegment.read(foreign)).isInstanceOf(IOException.class);
+
+        Path truncated = directory.resolve("truncated.seg");
+        ArchiveSegment.write(truncated, List.of(new ArchiveSegment.Row(1, 2, (short) 3, 4, 5, LocalDateTime.now())));
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, 16));
+        assertThatThrownBy(() -> ArchiveSegment.read(truncated)).isInstanceOf(IOException.class);
+    }
+}
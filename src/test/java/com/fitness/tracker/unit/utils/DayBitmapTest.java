@@ -0,0 +1,50 @@
+package com.fitness.tracker.unit.utils;
+
+import com.fitness.tracker.utils.DayBitmap;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayBitmapTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void growsInBothDirections() {
+        DayBitmap bitmap = new DayBitmap(null, null);
+        bitmap.set(DAY);
+        bitmap.set(DAY.minusDays(40));
+        bitmap.set(DAY.plusDays(40));
+
+        assertThat(bitmap.isSet(DAY)).isTrue();
+        assertThat(bitmap.isSet(DAY.minusDays(40))).isTrue();
+        assertThat(bitmap.isSet(DAY.plusDays(40))).isTrue();
+        assertThat(bitmap.isSet(DAY.plusDays(1))).isFalse();
+        assertThat(bitmap.getStart().toEpochDay() % 8).isZero();
+
+        DayBitmap reloaded = new DayBitmap(bitmap.getStart(), bitmap.getBits());
+        assertThat(reloaded.count(DAY.minusDays(40), DAY.plusDays(40))).isEqualTo(3);
+    }
+
+    @Test
+    void measuresRuns() {
+        DayBitmap bitmap = new DayBitmap(null, null);
+        for (int i = 0; i < 5; i++) {
+            bitmap.set(DAY.plusDays(i));
+        }
+        for (int i = 0; i < 12; i++) {
+            bitmap.set(DAY.plusDays(10 + i));
+        }
+
+        assertThat(bitmap.runEndingAt(DAY.plusDays(2))).isEqualTo(3);
+        assertThat(bitmap.runThrough(DAY.plusDays(2))).isEqualTo(5);
+        assertThat(bitmap.longestRun()).isEqualTo(12);
+        assertThat(bitmap.previousSet(DAY.plusDays(10))).isEqualTo(DAY.plusDays(4));
+
+        bitmap.clear(DAY.plusDays(15));
+        assertThat(bitmap.longestRun()).isEqualTo(6);
+        assertThat(bitmap.previousSet(DAY)).isNull();
+    }
+}
@@ -0,0 +1,123 @@
+package com.fitness.tracker.unit.utils;
+
+import com.fitness.tracker.configuration.IdempotencyProperties;
+import com.fitness.tracker.exception.CustomException;
+import com.fitness.tracker.utils.IdempotencyStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    @Test
+    void concurrentCallsWithSameKeyRunActionOnce() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(Duration.ofHours(1), 100));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> store.execute("key", "payload", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void expiredKeysRunActionAgain() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(Duration.ofMillis(1), 100));
+        AtomicInteger executions = new AtomicInteger();
+
+        store.execute("key", "payload", executions::incrementAndGet);
+        Thread.sleep(5);
+        store.execute("key", "payload", executions::incrementAndGet);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void oldestKeysAreForgottenBeyondCapacity() {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(Duration.ofHours(1), 2));
+        AtomicInteger executions = new AtomicInteger();
+
+        store.execute("a", "payload", executions::incrementAndGet);
+        store.execute("b", "payload", executions::incrementAndGet);
+        store.execute("c", "payload", executions::incrementAndGet);
+        store.execute("a", "payload", executions::incrementAndGet);
+
+        assertThat(executions).hasValue(4);
+    }
+
+    @Test
+    void keysInProgressAreNotForgottenBeyondCapacity() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(Duration.ofHours(1), 1));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Integer> inProgress = executor.submit(() -> store.execute("a", "payload", () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> store.execute("b", "payload", executions::incrementAndGet))
+                    .isInstanceOf(CustomException.class)
+                    .extracting("statusCode")
+                    .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            release.countDown();
+            assertThat(inProgress.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(store.execute("b", "payload", executions::incrementAndGet)).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void errorsAreNotRemembered() {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(Duration.ofHours(1), 1));
+
+        assertThatThrownBy(() -> store.execute("a", "payload", () -> {
+            throw new AssertionError("Action failed");
+        })).isInstanceOf(AssertionError.class);
+
+        assertThat(store.execute("a", "payload", () -> 7)).isEqualTo(7);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.fitness.tracker.unit.utils;
+
+import com.fitness.tracker.utils.InvertedIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    @Test
+    void tokenizesLowercaseWordsOnce() {
+        assertThat(InvertedIndex.tokenize("Upper-Body  strength, upper body!")).containsExactly("upper", "body", "strength");
+        assertThat(InvertedIndex.tokenize(" -- ")).isEmpty();
+        assertThat(InvertedIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void matchesEveryTermAsPrefixAndRanksWholeTermsFirst() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Strength training", "Legs");
+        index.put(2, "Strong core", null);
+        index.put(3, "Stretching", "Strength and mobility");
+
+        assertThat(index.search(List.of("str"), 10)).extracting(InvertedIndex.Hit::id).containsExactly(3L, 2L, 1L);
+        assertThat(index.search(List.of("strength"), 10))
+                .containsExactly(new InvertedIndex.Hit(3, 2), new InvertedIndex.Hit(1, 2));
+        assertThat(index.search(List.of("stren", "leg"), 10)).containsExactly(new InvertedIndex.Hit(1, 2));
+        assertThat(index.search(List.of("strength", "core"), 10)).isEmpty();
+        assertThat(index.search(List.of("str"), 1)).extracting(InvertedIndex.Hit::id).containsExactly(3L);
+    }
+
+    @Test
+    void updateReplacesTermsAndRemoveDropsDocument() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, "Morning run");
+        index.put(1, "Evening swim");
+
+        assertThat(index.search(List.of("run"), 10)).isEmpty();
+        assertThat(index.search(List.of("swim"), 10)).extracting(InvertedIndex.Hit::id).containsExactly(1L);
+
+        index.remove(1);
+        assertThat(index.search(List.of("swim"), 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
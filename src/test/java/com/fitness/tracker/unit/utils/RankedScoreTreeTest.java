@@ -0,0 +1,72 @@
+package com.fitness.tracker.unit.utils;
+
+import com.fitness.tracker.utils.RankedScoreTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedScoreTreeTest {
+
+    @Test
+    void ranksByScoreThenUserId() {
+        RankedScoreTree tree = new RankedScoreTree();
+        tree.add(1, 300);
+        tree.add(2, 500);
+        tree.add(3, 300);
+
+        assertThat(tree.rank(2)).isEqualTo(1);
+        assertThat(tree.rank(1)).isEqualTo(2);
+        assertThat(tree.rank(3)).isEqualTo(3);
+        assertThat(tree.top(2)).containsExactly(new RankedScoreTree.Entry(2, 500), new RankedScoreTree.Entry(1, 300));
+    }
+
+    @Test
+    void addingMovesUserAndNonPositiveScoreRemovesIt() {
+        RankedScoreTree tree = new RankedScoreTree();
+        tree.add(1, 100);
+        tree.add(2, 200);
+
+        tree.add(1, 150);
+        assertThat(tree.rank(1)).isEqualTo(1);
+        assertThat(tree.score(1)).isEqualTo(250);
+
+        tree.add(2, -200);
+        assertThat(tree.rank(2)).isEqualTo(-1);
+        assertThat(tree.size()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesSortedScoresAfterRandomUpdates() {
+        RankedScoreTree tree = new RankedScoreTree();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            long userId = random.nextInt(300);
+            long delta = random.nextInt(400) - 100;
+            tree.add(userId, delta);
+            long score = expected.getOrDefault(userId, 0L) + delta;
+            if (score > 0) {
+                expected.put(userId, score);
+            } else {
+                expected.remove(userId);
+            }
+        }
+
+        List<Map.Entry<Long, Long>> sorted = expected.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Long, Long>>comparingLong(Map.Entry::getValue).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .toList();
+        assertThat(tree.size()).isEqualTo(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(tree.rank(sorted.get(i).getKey())).isEqualTo(i + 1);
+        }
+        assertThat(tree.top(10)).extracting(RankedScoreTree.Entry::userId)
+                .containsExactlyElementsOf(sorted.stream().limit(10).map(Map.Entry::getKey).toList());
+    }
+}
@@ -0,0 +1,162 @@
+package com.fitness.tracker.unit.utils;
+
+import com.fitness.tracker.configuration.ReadWriteRoutingDataSource;
+import com.fitness.tracker.configuration.SingleFlightProperties;
+import com.fitness.tracker.utils.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties(true), meterRegistry,
+            new StaticListableBeanFactory().getBeanProvider(ReadWriteRoutingDataSource.class));
+
+    @Test
+    void concurrentIdenticalCallsShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("activity-logs", 1L, () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+            awaitCoalesced("activity-logs", 7);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+            assertThat(executions).hasValue(1);
+            assertThat(meterRegistry.get("single_flight.executed").tag("name", "activity-logs").counter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("single_flight.coalescing.ratio").tag("name", "activity-logs").gauge().value())
+                    .isEqualTo(7 / 8.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failureReachesEveryWaiterAndClearsTheEntry() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("workout-plans", 1L, () -> {
+                    await(release);
+                    throw new IllegalStateException("Query failed");
+                })));
+            }
+            awaitCoalesced("workout-plans", 1);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                        .isInstanceOf(ExecutionException.class)
+                        .hasCauseInstanceOf(IllegalStateException.class);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(singleFlight.execute("workout-plans", 1L, () -> 7)).isEqualTo(7);
+    }
+
+    @Test
+    void callsOfDifferentUsersOrArgumentsRunSeparately() {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("activity-logs", 1L, () -> singleFlight.execute("activity-logs", 2L, executions::incrementAndGet));
+        singleFlight.execute("activity-logs-range", 1L, List.of(1),
+                () -> singleFlight.execute("activity-logs-range", 1L, List.of(2), executions::incrementAndGet));
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void forgottenUserStartsAFreshCall() {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("activity-logs", 1L, () -> {
+            singleFlight.forget(1L);
+            return singleFlight.execute("activity-logs", 1L, executions::incrementAndGet);
+        });
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void callsInsideATransactionAreNotShared() {
+        AtomicInteger executions = new AtomicInteger();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            singleFlight.execute("activity-logs", 1L, () -> singleFlight.execute("activity-logs", 1L, executions::incrementAndGet));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertThat(executions).hasValue(1);
+        assertThat(meterRegistry.find("single_flight.coalesced").counter()).isNull();
+    }
+
+    @Test
+    void callsOfUsersReadingTheirOwnWritesAreNotShared() {
+        ReadWriteRoutingDataSource routingDataSource = mock(ReadWriteRoutingDataSource.class);
+        when(routingDataSource.routesReadsToPrimary()).thenReturn(true);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("routingDataSource", routingDataSource);
+        ObjectProvider<ReadWriteRoutingDataSource> provider = beanFactory.getBeanProvider(ReadWriteRoutingDataSource.class);
+        SingleFlight routed = new SingleFlight(new SingleFlightProperties(true), meterRegistry, provider);
+        AtomicInteger executions = new AtomicInteger();
+
+        routed.execute("activity-logs", 1L, () -> routed.execute("activity-logs", 1L, executions::incrementAndGet));
+
+        assertThat(executions).hasValue(1);
+    }
+
+    private void awaitCoalesced(String name, int waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (meterRegistry.counter("single_flight.coalesced", "name", name).count() >= waiters) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.fitness.tracker.unit.utils;
+
+import com.fitness.tracker.utils.TDigest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TDigestTest {
+
+    @Test
+    void approximatesUniformDistribution() {
+        TDigest digest = new TDigest(100);
+        for (int value = 1; value <= 100_000; value++) {
+            digest.add(value);
+        }
+
+        assertThat(digest.size()).isEqualTo(100_000);
+        assertThat(digest.getMeans().length).isLessThan(300);
+        assertThat(digest.cdf(50_000)).isCloseTo(0.5, within(0.005));
+        assertThat(digest.cdf(99_000)).isCloseTo(0.99, within(0.001));
+        assertThat(digest.quantile(0.9)).isCloseTo(90_000, within(500.0));
+        assertThat(digest.cdf(0)).isZero();
+        assertThat(digest.cdf(100_000)).isEqualTo(1.0);
+    }
+
+    @Test
+    void mergedDigestsMatchCombinedInput() {
+        Random random = new Random(7);
+        TDigest left = new TDigest(100);
+        TDigest right = new TDigest(100);
+        TDigest combined = new TDigest(100);
+        for (int i = 0; i < 50_000; i++) {
+            double low = random.nextGaussian() * 100 + 500;
+            double high = random.nextGaussian() * 100 + 900;
+            left.add(low);
+            right.add(high);
+            combined.add(low);
+            combined.add(high);
+        }
+
+        TDigest merged = new TDigest(100);
+        merged.merge(left);
+        merged.merge(right);
+
+        assertThat(merged.size()).isEqualTo(100_000);
+        for (double value : new double[] {400, 600, 700, 800, 1000}) {
+            assertThat(merged.cdf(value)).isCloseTo(combined.cdf(value), within(0.01));
+        }
+    }
+
+    @Test
+    void survivesCentroidRoundTrip() {
+        TDigest digest = new TDigest(100);
+        for (int value = 0; value < 10_000; value++) {
+            digest.add(value % 977);
+        }
+
+        TDigest restored = TDigest.fromCentroids(100, digest.getMeans(), digest.getWeights(), digest.getMin(), digest.getMax());
+
+        assertThat(restored.size()).isEqualTo(digest.size());
+        assertThat(restored.quantile(0.5)).isCloseTo(digest.quantile(0.5), within(5.0));
+    }
+}